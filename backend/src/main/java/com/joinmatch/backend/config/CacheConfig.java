@@ -0,0 +1,11 @@
+package com.joinmatch.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EVENT_DETAILS_CACHE = "eventDetails";
+}
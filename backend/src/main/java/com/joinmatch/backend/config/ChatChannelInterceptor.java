@@ -0,0 +1,163 @@
+package com.joinmatch.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatMembershipBroadcaster;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import com.joinmatch.backend.service.ChatPresenceBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class ChatChannelInterceptor implements ChannelInterceptor {
+
+    public static final String USER_ID_ATTRIBUTE = "chatUserId";
+
+    private static final String CONVERSATION_TOPIC_PREFIX = "/topic/conversation/";
+    private static final Set<String> CHAT_SEND_DESTINATIONS = Set.of("/app/chat.sendMessage", "/app/chat.typing");
+    // Broker destinations are only published to by the server, a client SEND there would skip every check
+    private static final List<String> BROKER_PREFIXES = List.of("/topic/", "/queue/", "/user/");
+    // Node-to-node traffic over the broker relay, clients may neither read nor forge it
+    private static final Set<String> SYSTEM_DESTINATIONS = Set.of(
+            ChatMembershipBroadcaster.DESTINATION,
+            ChatPresenceBroadcaster.DESTINATION,
+            "/topic/unresolved-user-destination",
+            "/topic/simp-user-registry"
+    );
+
+    private final ChatMembershipCache membershipCache;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> authenticate(accessor);
+            case SUBSCRIBE -> authorizeSubscribe(accessor);
+            case SEND -> authorizeSend(accessor, message);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    // The user id is resolved once per session so SEND and SUBSCRIBE only touch the membership cache
+    private void authenticate(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null) {
+            return;
+        }
+
+        String email = resolveEmail(accessor);
+        if (email == null) {
+            return;
+        }
+        userRepository.findByEmail(email)
+                .map(User::getId)
+                .ifPresent(id -> attributes.put(USER_ID_ATTRIBUTE, id));
+    }
+
+    private String resolveEmail(StompHeaderAccessor accessor) {
+        Principal principal = accessor.getUser();
+        if (principal != null) {
+            return principal.getName();
+        }
+
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtService.extractUsername(authHeader.substring(7));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void authorizeSubscribe(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (SYSTEM_DESTINATIONS.contains(destination)) {
+            throw new AccessDeniedException("Destination is not available to clients");
+        }
+        if (destination == null || !destination.startsWith(CONVERSATION_TOPIC_PREFIX)) {
+            return;
+        }
+
+        // covers /topic/conversation/{id} and its /typing and /presence sub-topics
+        String path = destination.substring(CONVERSATION_TOPIC_PREFIX.length());
+        int slash = path.indexOf('/');
+        Integer conversationId = parseId(slash < 0 ? path : path.substring(0, slash));
+        requireMember(accessor, conversationId);
+    }
+
+    private void authorizeSend(StompHeaderAccessor accessor, Message<?> message) {
+        String destination = accessor.getDestination();
+        if (destination != null && BROKER_PREFIXES.stream().anyMatch(destination::startsWith)) {
+            throw new AccessDeniedException("Destination is not available to clients");
+        }
+        if (!CHAT_SEND_DESTINATIONS.contains(destination)) {
+            return;
+        }
+
+        JsonNode payload = readPayload(message);
+        Integer conversationId = payload.hasNonNull("conversationId") ? payload.get("conversationId").asInt() : null;
+        Integer userId = requireMember(accessor, conversationId);
+
+        if (!payload.hasNonNull("senderId") || payload.get("senderId").asInt() != userId) {
+            throw new AccessDeniedException("Sender does not match the connected user");
+        }
+    }
+
+    private Integer requireMember(StompHeaderAccessor accessor, Integer conversationId) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Integer userId = attributes != null ? (Integer) attributes.get(USER_ID_ATTRIBUTE) : null;
+        if (userId == null) {
+            throw new AccessDeniedException("Not authenticated");
+        }
+        if (conversationId == null || !membershipCache.isMember(conversationId, userId)) {
+            throw new AccessDeniedException("User is not a member of this conversation");
+        }
+        return userId;
+    }
+
+    private JsonNode readPayload(Message<?> message) {
+        try {
+            if (message.getPayload() instanceof byte[] bytes) {
+                return objectMapper.readTree(bytes);
+            }
+            return objectMapper.readTree(message.getPayload().toString());
+        } catch (IOException e) {
+            throw new AccessDeniedException("Malformed chat message");
+        }
+    }
+
+    private Integer parseId(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.joinmatch.backend.config;
 
+import com.joinmatch.backend.enums.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,6 +40,8 @@ public class SecurityConfig {
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/api/ws/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // metrics and cache internals are for operators only
+                        .requestMatchers("/actuator/**").hasAnyAuthority(Role.MODERATOR.name(), Role.ADMIN.name())
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
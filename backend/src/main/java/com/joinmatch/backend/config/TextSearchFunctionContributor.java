@@ -0,0 +1,44 @@
+package com.joinmatch.backend.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.spi.TypeConfiguration;
+
+public class TextSearchFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH = "text_search_match";
+    public static final String RANK = "text_search_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        TypeConfiguration typeConfiguration = functionContributions.getTypeConfiguration();
+        BasicType<Boolean> booleanType = typeConfiguration.getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = typeConfiguration.getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        // Both functions take the event id and the search term
+        if (functionContributions.getDialect() instanceof PostgreSQLDialect) {
+            // event.search_vector and its GIN index are maintained by db/migration/V17
+            registry.registerPattern(MATCH,
+                    "(?1 in (select s.event_id from event s"
+                            + " where s.search_vector @@ plainto_tsquery('simple', ?2)))", booleanType);
+            registry.registerPattern(RANK,
+                    "coalesce((select ts_rank(s.search_vector, plainto_tsquery('simple', ?2))"
+                            + " from event s where s.event_id = ?1), 0)", doubleType);
+        } else {
+            registry.registerPattern(MATCH,
+                    "(?1 in (select e.event_id from event e"
+                            + " join sport s on s.id = e.sport_type_id"
+                            + " join sport_object o on o.object_id = e.sport_object_object_id"
+                            + " where lower(concat_ws(' ', e.event_name, e.description, s.name, o.city))"
+                            + " like concat('%', lower(?2), '%')))", booleanType);
+            registry.registerPattern(RANK,
+                    "(select case when lower(e.event_name) like concat('%', lower(?2), '%') then 2.0 else 1.0 end"
+                            + " from event e where e.event_id = ?1)", doubleType);
+        }
+    }
+}
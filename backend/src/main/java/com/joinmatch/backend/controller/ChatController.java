@@ -1,13 +1,23 @@
 package com.joinmatch.backend.controller;
 
+import com.joinmatch.backend.config.TokenExtractor;
+import com.joinmatch.backend.dto.Message.ChatCatchUpDto;
+import com.joinmatch.backend.dto.Message.ChatCatchUpRequestDto;
 import com.joinmatch.backend.dto.Message.ChatMessageDto;
+import com.joinmatch.backend.dto.Message.ChatTypingDto;
 import com.joinmatch.backend.dto.Message.ConversationDto;
 import com.joinmatch.backend.dto.Message.ConversationPreviewDto;
 import com.joinmatch.backend.model.Conversation;
 import com.joinmatch.backend.model.Message;
+import com.joinmatch.backend.model.User;
 import com.joinmatch.backend.repository.MessageRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatMessageWriteBehind;
+import com.joinmatch.backend.service.ChatPresenceService;
 import com.joinmatch.backend.service.ChatService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -23,12 +33,18 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatPresenceService chatPresenceService;
+    private final ChatMessageWriteBehind chatMessageWriteBehind;
     private final SimpMessagingTemplate messagingTemplate;
     private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
 
     @MessageMapping("/chat.sendMessage")
     public void sendMessage(@Payload ChatMessageDto chatMessage) {
-        ChatMessageDto savedMessage = chatService.saveMessage(chatMessage);
+        // saveMessage has to be entered through the proxy, otherwise it runs without a transaction
+        ChatMessageDto savedMessage = chatMessageWriteBehind.isEnabled()
+                ? chatService.postMessage(chatMessage)
+                : chatService.saveMessage(chatMessage);
 
         messagingTemplate.convertAndSend(
                 "/topic/conversation/" + chatMessage.conversationId(),
@@ -36,10 +52,43 @@ public class ChatController {
         );
     }
 
+    @MessageMapping("/chat.typing")
+    public void typing(@Payload ChatTypingDto typing) {
+        chatPresenceService.throttleTyping(typing).ifPresent(forwarded -> messagingTemplate.convertAndSend(
+                "/topic/conversation/" + forwarded.conversationId() + "/typing",
+                forwarded
+        ));
+    }
+
+    @GetMapping("/conversations/{id}/presence")
+    public ResponseEntity<List<Integer>> getOnlineParticipants(@PathVariable Integer id, HttpServletRequest request) {
+        String token = TokenExtractor.extractToken(request);
+        User user = token != null ? userRepository.findByTokenValue(token).orElse(null) : null;
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(chatPresenceService.getOnlineParticipants(id, user.getId()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
     @GetMapping("/conversations/{id}/messages")
     @ResponseBody
-    public List<ChatMessageDto> getMessages(@PathVariable Integer id) {
-        return chatService.getMessagesByConversation(id);
+    public List<ChatMessageDto> getMessages(
+            @PathVariable Integer id,
+            @RequestParam(required = false) Long beforeSeq,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return chatService.getMessagesByConversation(id, beforeSeq, limit);
+    }
+
+    @PostMapping("/conversations/catch-up")
+    @ResponseBody
+    public ChatCatchUpDto catchUp(@RequestBody ChatCatchUpRequestDto request) {
+        return chatService.catchUp(request);
     }
 
     @PostMapping("/conversations/direct")
@@ -56,8 +105,12 @@ public class ChatController {
 
     @GetMapping("/conversations/preview")
     @ResponseBody
-    public List<ConversationPreviewDto> getUserConversationPreviews(@RequestParam Integer userId) {
-        return chatService.getUserConversationPreviews(userId);
+    public List<ConversationPreviewDto> getUserConversationPreviews(
+            @RequestParam Integer userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return chatService.getUserConversationPreviews(userId, page, size);
     }
     @PostMapping("/team/{teamId}")
     public ResponseEntity<ConversationDto> createTeamChat(@PathVariable Integer teamId) {
@@ -73,19 +126,23 @@ public class ChatController {
     public ResponseEntity<Void> markRead(
             @PathVariable Integer conversationId,
             @RequestParam Integer userId,
-            @RequestParam(required = false) Integer lastMessageId
+            @RequestParam(required = false) Long lastSeq
     ) {
-        if (lastMessageId == null) {
+        if (lastSeq == null) {
             Message last = messageRepository
-                    .findTopByConversationIdOrderByCreatedAtDesc(conversationId)
+                    .findTopByConversationIdOrderBySeqDesc(conversationId)
                     .orElse(null);
 
             if (last != null) {
-                lastMessageId = last.getId();
+                lastSeq = last.getSeq();
             }
         }
 
-        chatService.markMessagesAsRead(conversationId, userId, lastMessageId);
+        try {
+            chatService.markMessagesAsRead(conversationId, userId, lastSeq);
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -2,6 +2,7 @@ package com.joinmatch.backend.controller;
 
 import com.joinmatch.backend.config.TokenExtractor;
 import com.joinmatch.backend.dto.Event.EventDetailsResponseDto;
+import com.joinmatch.backend.dto.Event.EventFeedDto;
 import com.joinmatch.backend.dto.Event.EventRequestDto;
 import com.joinmatch.backend.dto.Event.EventResponseDto;
 import com.joinmatch.backend.dto.Event.JoinEventAsTeamRequest;
@@ -47,7 +48,8 @@ public class EventController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
             @RequestParam(required = false) Boolean free,
-            @RequestParam(required = false) Boolean available
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String search
     ) {
         Pageable pageable = PageRequest.of(page, size);
         Page<EventResponseDto> events = eventService.getAll(
@@ -60,7 +62,8 @@ public class EventController {
                 dateFrom,
                 dateTo,
                 free,
-                available
+                available,
+                search
         );
 
         if (events.isEmpty()) {
@@ -69,6 +72,42 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<EventFeedDto> getEventFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer sportTypeId,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) Boolean free,
+            @RequestParam(required = false) Boolean available
+    ) {
+        try {
+            EventFeedDto feed = eventService.getFeed(
+                    cursor,
+                    size,
+                    direction,
+                    name,
+                    sportTypeId,
+                    city,
+                    dateFrom,
+                    dateTo,
+                    free,
+                    available
+            );
+
+            if (feed.items().isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(feed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EventDetailsResponseDto> getEventById(@PathVariable Integer id) {
         return ResponseEntity.ok(eventService.getDetailsById(id));
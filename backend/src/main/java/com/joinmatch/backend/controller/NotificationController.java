@@ -1,5 +1,6 @@
 package com.joinmatch.backend.controller;
 
+import com.joinmatch.backend.dto.Notification.NotificationFeedDto;
 import com.joinmatch.backend.dto.Notification.NotificationResponseDto;
 import com.joinmatch.backend.service.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,19 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/{userId}/feed")
+    public ResponseEntity<NotificationFeedDto> getFeed(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        try {
+            return ResponseEntity.ok(notificationService.getFeed(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{userId}/unread-count")
     public ResponseEntity<Long> getUnreadCount(@PathVariable Integer userId) {
         Long count = notificationService.getUnreadCount(userId);
@@ -32,4 +46,12 @@ public class NotificationController {
         notificationService.markAsRead(notificationId);
         return ResponseEntity.ok().build();
     }
+
+    @PatchMapping("/{userId}/read-all")
+    public ResponseEntity<Integer> markAllAsRead(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) Integer upToId
+    ) {
+        return ResponseEntity.ok(notificationService.markAllAsRead(userId, upToId));
+    }
 }
@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -27,7 +29,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "0") Integer minRatings
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getGeneralUserRanking(limit, minRatings);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/users/activity")
@@ -35,7 +37,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getActivityUserRanking(limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/cities")
@@ -50,7 +52,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getLocalUserRanking(city, limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/organizers/general")
@@ -59,7 +61,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "1") Integer minRatings
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getGeneralOrganizerRanking(limit, minRatings);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/organizers/activity")
@@ -67,7 +69,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getActivityOrganizerRanking(limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/organizers/local")
@@ -76,7 +78,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<UserRankingResponseDto> ranking = rankingsService.getLocalOrganizerRanking(city, limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/teams/general")
@@ -84,7 +86,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<TeamRankingResponseDto> ranking = rankingsService.getGeneralTeamRanking(limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/teams/local")
@@ -93,7 +95,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<TeamRankingResponseDto> ranking = rankingsService.getLocalTeamRanking(city, limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/teams/cities")
@@ -108,7 +110,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "1") Integer minRatings
     ) {
         List<EventRankingResponseDto> ranking = rankingsService.getRatingEventRanking(limit, minRatings);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/events/popularity")
@@ -116,7 +118,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<EventRankingResponseDto> ranking = rankingsService.getPopularityEventRanking(limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/events/local")
@@ -126,7 +128,7 @@ public class RankingsController {
             @RequestParam(defaultValue = "1") Integer minRatings
     ) {
         List<EventRankingResponseDto> ranking = rankingsService.getLocalEventRanking(city, limit, minRatings);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
     }
 
     @GetMapping("/badges/general")
@@ -134,6 +136,15 @@ public class RankingsController {
             @RequestParam(defaultValue = "20") Integer limit
     ) {
         List<BadgeRankingResponseDto> ranking = rankingsService.getGeneralBadgeRanking(limit);
-        return ResponseEntity.ok(ranking);
+        return withRefreshTime(ranking);
+    }
+
+    private <T> ResponseEntity<List<T>> withRefreshTime(List<T> ranking) {
+        LocalDateTime refreshedAt = rankingsService.getLastRefreshedAt();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (refreshedAt != null) {
+            response.lastModified(refreshedAt.atZone(ZoneId.systemDefault()));
+        }
+        return response.body(ranking);
     }
 }
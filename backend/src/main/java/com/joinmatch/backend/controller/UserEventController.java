@@ -14,6 +14,7 @@ import com.joinmatch.backend.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -66,8 +67,12 @@ public class UserEventController {
 
     @PostMapping
     public ResponseEntity<UserEventResponseDto> createEvent(@RequestBody @Valid UserEventRequestDto userEventRequestDto) {
-        UserEventResponseDto createdUserEvent = userEventService.create(userEventRequestDto);
-        return ResponseEntity.status(201).body(createdUserEvent);
+        try {
+            UserEventResponseDto createdUserEvent = userEventService.create(userEventRequestDto);
+            return ResponseEntity.status(201).body(createdUserEvent);
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @GetMapping("/{id}/participants")
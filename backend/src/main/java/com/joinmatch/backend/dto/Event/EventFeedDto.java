@@ -0,0 +1,10 @@
+package com.joinmatch.backend.dto.Event;
+
+import java.util.List;
+
+public record EventFeedDto(
+        List<EventResponseDto> items,
+        String nextCursor,
+        boolean hasMore
+) {
+}
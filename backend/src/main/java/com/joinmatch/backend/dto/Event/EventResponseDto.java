@@ -24,6 +24,13 @@ public record EventResponseDto(
 
 ) {
     public static EventResponseDto fromEvent(Event event) {
+        return fromEvent(
+                event,
+                event.getReportEvents().stream().anyMatch(report -> Boolean.TRUE.equals(report.getActive()))
+        );
+    }
+
+    public static EventResponseDto fromEvent(Event event, Boolean isBanned) {
         return new EventResponseDto(
                 event.getEventId(),
                 event.getEventName(),
@@ -37,10 +44,10 @@ public record EventResponseDto(
                 event.getScoreTeam2(),
                 event.getEventDate(),
                 event.getSportEv().getName(),
-                event.getUserEvents().size(),
+                event.getBookedParticipants(),
                 event.getMinLevel(),
                 event.getImageUrl(),
-                event.getReportEvents().stream().anyMatch(report -> Boolean.TRUE.equals(report.getActive()))
+                isBanned
         );
     }
 }
@@ -0,0 +1,14 @@
+package com.joinmatch.backend.dto.EventTeam;
+
+public record EventTeamSummaryDto(Integer teamId,
+                                  String name,
+                                  String city,
+                                  String photoUrl,
+                                  Integer leaderId,
+                                  String leaderName,
+                                  Long memberCount) {
+
+    public EventTeamResponseDto toResponseDto() {
+        return new EventTeamResponseDto(teamId, name, city, photoUrl, leaderId, leaderName);
+    }
+}
@@ -0,0 +1,9 @@
+package com.joinmatch.backend.dto.Message;
+
+import java.util.List;
+
+public record ChatCatchUpDto(
+        List<ChatMessageDto> messages,
+        boolean complete
+) {
+}
@@ -0,0 +1,9 @@
+package com.joinmatch.backend.dto.Message;
+
+import java.util.Map;
+
+public record ChatCatchUpRequestDto(
+        Integer userId,
+        Map<Integer, Long> lastSeenSeq
+) {
+}
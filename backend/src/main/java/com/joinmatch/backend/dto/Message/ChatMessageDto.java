@@ -13,6 +13,7 @@ public record ChatMessageDto(
         LocalDateTime createdAt,
         String conversationType,
         Integer teamId,
-        Integer eventId
+        Integer eventId,
+        Long seq
 ) {}
 
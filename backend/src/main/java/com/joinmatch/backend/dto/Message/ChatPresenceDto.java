@@ -0,0 +1,7 @@
+package com.joinmatch.backend.dto.Message;
+
+public record ChatPresenceDto(
+        Integer userId,
+        boolean online
+) {
+}
@@ -0,0 +1,9 @@
+package com.joinmatch.backend.dto.Message;
+
+public record ChatTypingDto(
+        Integer conversationId,
+        Integer senderId,
+        String senderName,
+        boolean typing
+) {
+}
@@ -0,0 +1,4 @@
+package com.joinmatch.backend.dto.Message;
+
+public record ChatUnreadCountDto(long total) {
+}
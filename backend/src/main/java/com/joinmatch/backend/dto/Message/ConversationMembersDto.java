@@ -0,0 +1,33 @@
+package com.joinmatch.backend.dto.Message;
+
+import com.joinmatch.backend.enums.ConversationType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public record ConversationMembersDto(
+        Integer conversationId,
+        ConversationType type,
+        Integer teamId,
+        Integer eventId,
+        Map<Integer, ParticipantDto> members
+) {
+    public boolean isMember(Integer userId) {
+        return members.containsKey(userId);
+    }
+
+    public ConversationMembersDto withMember(ParticipantDto member) {
+        Map<Integer, ParticipantDto> updated = new HashMap<>(members);
+        updated.put(member.id(), member);
+        return new ConversationMembersDto(conversationId, type, teamId, eventId, Map.copyOf(updated));
+    }
+
+    public ConversationMembersDto withoutMember(Integer userId) {
+        if (!members.containsKey(userId)) {
+            return this;
+        }
+        Map<Integer, ParticipantDto> updated = new HashMap<>(members);
+        updated.remove(userId);
+        return new ConversationMembersDto(conversationId, type, teamId, eventId, Map.copyOf(updated));
+    }
+}
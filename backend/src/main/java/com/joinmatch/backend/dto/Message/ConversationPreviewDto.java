@@ -1,10 +1,12 @@
 package com.joinmatch.backend.dto.Message;
 
+import java.time.LocalDateTime;
+
 public record ConversationPreviewDto(
         Integer id,
         String name,
         String avatarUrl,
         String lastMessage,
-        Integer unreadCount
+        Integer unreadCount,
+        LocalDateTime lastMessageAt
 ) {}
-
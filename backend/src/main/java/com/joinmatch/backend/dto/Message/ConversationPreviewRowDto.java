@@ -0,0 +1,48 @@
+package com.joinmatch.backend.dto.Message;
+
+import com.joinmatch.backend.enums.ConversationType;
+
+import java.time.LocalDateTime;
+
+public record ConversationPreviewRowDto(Integer conversationId,
+                                        ConversationType type,
+                                        String eventName,
+                                        String eventImageUrl,
+                                        String teamName,
+                                        String teamPhotoUrl,
+                                        String otherUserName,
+                                        String otherUserAvatarUrl,
+                                        String lastSenderName,
+                                        String lastContent,
+                                        LocalDateTime lastMessageAt,
+                                        Long unreadCount) {
+
+    public ConversationPreviewDto toPreviewDto() {
+        String name;
+        String avatarUrl;
+
+        if (type == ConversationType.EVENT) {
+            name = eventName != null ? eventName : "Czat wydarzenia";
+            avatarUrl = eventImageUrl;
+        } else if (type == ConversationType.TEAM) {
+            name = teamName != null ? teamName : "Czat drużyny";
+            avatarUrl = teamPhotoUrl;
+        } else {
+            name = otherUserName != null ? otherUserName : "Rozmowa prywatna";
+            avatarUrl = otherUserAvatarUrl;
+        }
+
+        String lastMessage = lastContent != null
+                ? lastSenderName + ": " + lastContent
+                : "Brak wiadomości";
+
+        return new ConversationPreviewDto(
+                conversationId,
+                name,
+                avatarUrl,
+                lastMessage,
+                unreadCount.intValue(),
+                lastMessageAt
+        );
+    }
+}
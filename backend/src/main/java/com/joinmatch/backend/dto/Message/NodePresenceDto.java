@@ -0,0 +1,11 @@
+package com.joinmatch.backend.dto.Message;
+
+import java.util.List;
+
+public record NodePresenceDto(
+        String nodeId,
+        boolean snapshot,
+        List<Integer> online,
+        List<Integer> offline
+) {
+}
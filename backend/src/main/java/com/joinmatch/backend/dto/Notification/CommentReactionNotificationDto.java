@@ -1,8 +1,12 @@
 package com.joinmatch.backend.dto.Notification;
 
+import java.util.List;
+
 public record CommentReactionNotificationDto(
         Integer postId,
         Integer commentId,
-        Integer parentCommentId
+        Integer parentCommentId,
+        List<Integer> userIds,
+        Integer reactionCount
 ) {
 }
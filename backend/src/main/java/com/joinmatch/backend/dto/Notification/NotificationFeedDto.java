@@ -0,0 +1,10 @@
+package com.joinmatch.backend.dto.Notification;
+
+import java.util.List;
+
+public record NotificationFeedDto(
+        List<NotificationResponseDto> items,
+        String nextCursor,
+        boolean hasMore
+) {
+}
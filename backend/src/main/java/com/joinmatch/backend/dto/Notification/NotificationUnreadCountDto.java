@@ -0,0 +1,4 @@
+package com.joinmatch.backend.dto.Notification;
+
+public record NotificationUnreadCountDto(long unreadCount) {
+}
@@ -1,8 +1,12 @@
 package com.joinmatch.backend.dto.Notification;
 
+import java.util.List;
+
 public record PostReactionNotificationDto(
         Integer userId,
         Integer postId,
-        Integer reactionId
+        Integer reactionId,
+        List<Integer> userIds,
+        Integer reactionCount
 ) {
 }
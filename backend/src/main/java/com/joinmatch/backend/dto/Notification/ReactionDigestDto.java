@@ -0,0 +1,18 @@
+package com.joinmatch.backend.dto.Notification;
+
+import com.joinmatch.backend.enums.NotificationType;
+
+import java.util.List;
+
+public record ReactionDigestDto(
+        NotificationType type,
+        Integer recipientId,
+        Integer postId,
+        Integer commentId,
+        Integer parentCommentId,
+        Integer reactionTypeId,
+        int actorCount,
+        List<Integer> actorIds,
+        List<String> actorNames
+) {
+}
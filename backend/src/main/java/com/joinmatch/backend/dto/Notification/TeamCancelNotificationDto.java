@@ -1,7 +1,7 @@
 package com.joinmatch.backend.dto.Notification;
 
 public record TeamCancelNotificationDto(
-        Integer userId,
+        Integer leaderId,
         Integer teamId,
         String reason
 ) {
@@ -1,11 +1,13 @@
 package com.joinmatch.backend.dto.UserEvent;
 
+import com.joinmatch.backend.model.AttendanceStatus;
+import com.joinmatch.backend.model.Event;
 import com.joinmatch.backend.model.Sport;
 import com.joinmatch.backend.model.SportUser;
+import com.joinmatch.backend.model.User;
 import com.joinmatch.backend.model.UserEvent;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 public record UserEventResponseDto(
         Integer id,
@@ -18,20 +20,12 @@ public record UserEventResponseDto(
         String eventName,
         Boolean isPaid,
         Integer sportRating,
-        LocalDateTime eventDate
+        LocalDateTime eventDate,
+        Boolean waitlisted
 ) {
     public static UserEventResponseDto fromUserEvent(UserEvent userEvent) {
         var user = userEvent.getUser();
         var event = userEvent.getEvent();
-        Sport sport = event.getSportEv();
-        Integer sportRating = null;
-        Optional<SportUser> first = user.getSportUsers()
-                .stream()
-                .filter(sportUser -> sportUser.getSport().equals(sport))
-                .findFirst();
-        if (first.isPresent()) {
-            sportRating = first.get().getRating();
-        }
 
         return new UserEventResponseDto(
                 userEvent.getId(),
@@ -43,8 +37,19 @@ public record UserEventResponseDto(
                 event.getEventId(),
                 event.getEventName(),
                 userEvent.getIsPaid(),
-                sportRating,
-                event.getEventDate()
+                sportRating(user, event),
+                event.getEventDate(),
+                userEvent.getAttendanceStatus().getId() == AttendanceStatus.WAITLISTED_ID
         );
     }
+
+    private static Integer sportRating(User user, Event event) {
+        Sport sport = event.getSportEv();
+        return user.getSportUsers()
+                .stream()
+                .filter(sportUser -> sportUser.getSport().equals(sport))
+                .findFirst()
+                .map(SportUser::getRating)
+                .orElse(null);
+    }
 }
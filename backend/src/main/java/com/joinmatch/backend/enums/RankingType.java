@@ -0,0 +1,16 @@
+package com.joinmatch.backend.enums;
+
+public enum RankingType {
+    USER_RATING,
+    USER_ACTIVITY,
+    USER_LOCAL_ACTIVITY,
+    ORGANIZER_RATING,
+    ORGANIZER_ACTIVITY,
+    ORGANIZER_LOCAL_ACTIVITY,
+    TEAM_MEMBERS,
+    TEAM_LOCAL_MEMBERS,
+    EVENT_RATING,
+    EVENT_POPULARITY,
+    EVENT_LOCAL_RATING,
+    BADGES
+}
@@ -0,0 +1,23 @@
+package com.joinmatch.backend.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+
+public record ChatMembershipChanged(
+        Integer conversationId,
+        Integer userId,
+        ParticipantDto addedMember
+) {
+    public static ChatMembershipChanged added(Integer conversationId, ParticipantDto member) {
+        return new ChatMembershipChanged(conversationId, member.id(), member);
+    }
+
+    public static ChatMembershipChanged removed(Integer conversationId, Integer userId) {
+        return new ChatMembershipChanged(conversationId, userId, null);
+    }
+
+    @JsonIgnore
+    public boolean isAdded() {
+        return addedMember != null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.joinmatch.backend.events;
+
+public record EventDetailsChanged(
+        Integer eventId
+) {
+}
@@ -0,0 +1,8 @@
+package com.joinmatch.backend.events;
+
+import java.util.List;
+
+public record NotificationsCreated(
+        List<Integer> userIds
+) {
+}
@@ -0,0 +1,15 @@
+package com.joinmatch.backend.events;
+
+import com.joinmatch.backend.enums.NotificationType;
+
+public record ReactionReceived(
+        NotificationType type,
+        Integer recipientId,
+        Integer postId,
+        Integer commentId,
+        Integer parentCommentId,
+        Integer actorId,
+        String actorName,
+        Integer reactionTypeId
+) {
+}
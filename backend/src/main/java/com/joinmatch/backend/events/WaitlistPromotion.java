@@ -0,0 +1,7 @@
+package com.joinmatch.backend.events;
+
+public record WaitlistPromotion(
+        Integer eventId,
+        Integer userId
+) {
+}
@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AttendanceStatus {
+    public static final int WAITLISTED_ID = 6;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
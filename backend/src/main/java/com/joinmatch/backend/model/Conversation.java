@@ -24,6 +24,10 @@ public class Conversation {
     @Enumerated(EnumType.STRING)
     private ConversationType type;
 
+    @Column(name = "last_message_seq", nullable = false)
+    @Builder.Default
+    private Long lastMessageSeq = 0L;
+
     @ManyToMany
     @JoinTable(
             name = "conversation_participants",
@@ -9,25 +9,34 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "message_read")
+@Table(
+        name = "conversation_read_cursor",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_conversation_read_cursor_conversation_user",
+                columnNames = {"conversation_id", "user_id"}
+        )
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class MessageRead {
+public class ConversationReadCursor {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "message_id", nullable = false)
-    private Message message;
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(name = "last_read_seq", nullable = false)
+    private Long lastReadSeq;
+
     @Column(nullable = false)
     private LocalDateTime readAt;
 }
@@ -14,6 +14,25 @@ import java.util.Set;
 
 @Entity
 @Table(name= "event")
+@NamedEntityGraph(
+        name = "Event.listing",
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode("sportObject"),
+                @NamedAttributeNode("sportEv"),
+                @NamedAttributeNode("eventVisibility")
+        }
+)
+@NamedEntityGraph(
+        name = "Event.details",
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode("sportObject"),
+                @NamedAttributeNode("sportEv"),
+                @NamedAttributeNode("eventVisibility"),
+                @NamedAttributeNode("paymentMethods")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,6 +48,13 @@ public class Event {
     @Column(name = "number_of_participants", nullable = false)
     private Integer numberOfParticipants;
 
+    @Column(name = "booked_participants", nullable = false, updatable = false)
+    private Integer bookedParticipants = 0;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "cost", precision = 6, scale = 2, nullable = false)
     private BigDecimal cost;
     @Column(name = "is_for_team", nullable = false)
@@ -79,7 +105,7 @@ public class Event {
     private Boolean isAttendanceChecked = false;
 
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
     @CollectionTable(name = "event_payment_methods", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "payment_method")
     private List<String> paymentMethods = new ArrayList<>();
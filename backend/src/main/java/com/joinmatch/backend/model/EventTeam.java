@@ -31,5 +31,8 @@ public class EventTeam {
 
     @Column(name = "joined_at", nullable = false)
     private LocalDateTime joinedAt;
+
+    @Column(name = "reserved_spots", nullable = false)
+    private Integer reservedSpots = 0;
 }
 
@@ -0,0 +1,40 @@
+package com.joinmatch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Chat messages the write-behind queue could not insert, kept for manual replay
+@Entity
+@Table(name = "message_dead_letter")
+@Data
+@NoArgsConstructor
+public class MessageDeadLetter {
+
+    @Id
+    @Column(name = "message_id")
+    private Integer messageId;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Integer conversationId;
+
+    @Column(name = "sender_id", nullable = false)
+    private Integer senderId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+}
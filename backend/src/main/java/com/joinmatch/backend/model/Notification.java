@@ -16,8 +16,12 @@ import java.time.LocalDateTime;
 @Data
 @Builder
 public class Notification {
+    public static final String ID_SEQUENCE = "notification_seq";
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = Notification.ID_SEQUENCE, allocationSize = Notification.ID_ALLOCATION_SIZE)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,76 @@
+package com.joinmatch.backend.model;
+
+import com.joinmatch.backend.enums.RankingType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ranking_snapshot")
+@Data
+@NoArgsConstructor
+public class RankingSnapshot {
+
+    public static final String ID_SEQUENCE = "ranking_snapshot_seq";
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ranking_snapshot_seq")
+    @SequenceGenerator(name = "ranking_snapshot_seq", sequenceName = RankingSnapshot.ID_SEQUENCE, allocationSize = RankingSnapshot.ID_ALLOCATION_SIZE)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ranking_type", nullable = false, length = 40)
+    private RankingType rankingType;
+
+    @Column(name = "city", length = 100)
+    private String city;
+
+    @Column(name = "rank_order", nullable = false)
+    private Integer rankOrder;
+
+    @Column(name = "subject_id", nullable = false)
+    private Integer subjectId;
+
+    @Column(name = "subject_name")
+    private String subjectName;
+
+    @Column(name = "subject_email")
+    private String subjectEmail;
+
+    @Column(name = "subject_image_url", columnDefinition = "text")
+    private String subjectImageUrl;
+
+    @Column(name = "subject_city", length = 100)
+    private String subjectCity;
+
+    @Column(name = "sport_type_name", length = 50)
+    private String sportTypeName;
+
+    @Column(name = "owner_id")
+    private Integer ownerId;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    @Column(name = "owner_email")
+    private String ownerEmail;
+
+    @Column(name = "owner_avatar_url", columnDefinition = "text")
+    private String ownerAvatarUrl;
+
+    @Column(name = "average_rating")
+    private Double averageRating;
+
+    @Column(name = "total_count", nullable = false)
+    private Integer totalCount;
+
+    @Column(name = "participant_count")
+    private Integer participantCount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
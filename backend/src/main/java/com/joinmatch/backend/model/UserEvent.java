@@ -6,7 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "user_event")
+@Table(
+        name = "user_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_event_user_event", columnNames = {"user_id", "event_id"})
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,4 +33,11 @@ public class UserEvent {
 
     @Column(name = "is_paid", nullable = false)
     private Boolean isPaid = false;
+
+    @Column(name = "waitlist_position")
+    private Long waitlistPosition;
+
+    public UserEvent(Integer id, User user, Event event, AttendanceStatus attendanceStatus, Boolean isPaid) {
+        this(id, user, event, attendanceStatus, isPaid, null);
+    }
 }
@@ -0,0 +1,34 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.ConversationReadCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ConversationReadCursorRepository extends JpaRepository<ConversationReadCursor, Integer> {
+    Optional<ConversationReadCursor> findByConversationIdAndUserId(Integer conversationId, Integer userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ConversationReadCursor c WHERE c.conversation.id = :conversationId AND c.user.id = :userId")
+    Optional<ConversationReadCursor> lockByConversationIdAndUserId(@Param("conversationId") Integer conversationId,
+                                                                   @Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO conversation_read_cursor (conversation_id, user_id, last_read_seq, read_at)
+    SELECT CAST(:conversationId AS INTEGER), CAST(:userId AS INTEGER), 0, CAST(:readAt AS TIMESTAMP)
+    WHERE NOT EXISTS (
+        SELECT 1 FROM conversation_read_cursor
+        WHERE conversation_id = :conversationId AND user_id = :userId
+    )
+""", nativeQuery = true)
+    int insertIfAbsent(@Param("conversationId") Integer conversationId,
+                       @Param("userId") Integer userId,
+                       @Param("readAt") LocalDateTime readAt);
+}
@@ -1,7 +1,11 @@
 package com.joinmatch.backend.repository;
 
+import com.joinmatch.backend.dto.Message.ConversationPreviewRowDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
 import com.joinmatch.backend.model.Conversation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,6 +32,77 @@ public interface ConversationRepository extends JpaRepository<Conversation, Inte
 """)
     List<Conversation> findByParticipantId(@Param("userId") Integer userId);
 
+    @Query("SELECT c.id FROM Conversation c JOIN c.participants p WHERE p.id = :userId")
+    List<Integer> findIdsByParticipantId(@Param("userId") Integer userId);
+
+    @Query("""
+    SELECT new com.joinmatch.backend.dto.Message.ConversationPreviewRowDto(
+        c.id, c.type,
+        ev.eventName, ev.imageUrl,
+        t.name, t.photoUrl,
+        o.name, o.urlOfPicture,
+        ls.name, lm.content, lm.createdAt,
+        (SELECT COUNT(m) FROM Message m
+         WHERE m.conversation.id = c.id
+           AND m.seq > COALESCE((
+               SELECT rc.lastReadSeq FROM ConversationReadCursor rc
+               WHERE rc.conversation.id = c.id AND rc.user.id = :userId
+           ), 0))
+    )
+    FROM Conversation c
+    JOIN c.participants me
+    LEFT JOIN c.event ev
+    LEFT JOIN c.team t
+    LEFT JOIN c.participants o
+        ON o.id <> :userId AND c.type = com.joinmatch.backend.enums.ConversationType.PRIVATE
+    LEFT JOIN Message lm
+        ON lm.conversation.id = c.id
+       AND lm.seq = (SELECT MAX(m2.seq) FROM Message m2 WHERE m2.conversation.id = c.id)
+    LEFT JOIN lm.sender ls
+    WHERE me.id = :userId
+    ORDER BY lm.createdAt DESC NULLS LAST, c.id DESC
+""")
+    List<ConversationPreviewRowDto> findPreviewsByParticipantId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("""
+    SELECT new com.joinmatch.backend.dto.Message.ParticipantDto(p.id, p.name, p.urlOfPicture)
+    FROM Conversation c
+    JOIN c.participants p
+    WHERE c.id = :conversationId
+""")
+    List<ParticipantDto> findParticipants(@Param("conversationId") Integer conversationId);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.team.id = :teamId")
+    Optional<Integer> findIdByTeamId(@Param("teamId") Integer teamId);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.event.eventId = :eventId")
+    Optional<Integer> findIdByEventId(@Param("eventId") Integer eventId);
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO conversation_participants (conversation_id, user_id)
+    SELECT CAST(:conversationId AS INTEGER), CAST(:userId AS INTEGER)
+    WHERE NOT EXISTS (
+        SELECT 1 FROM conversation_participants
+        WHERE conversation_id = :conversationId AND user_id = :userId
+    )
+""", nativeQuery = true)
+    int addParticipant(@Param("conversationId") Integer conversationId, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = """
+    DELETE FROM conversation_participants
+    WHERE conversation_id = :conversationId AND user_id = :userId
+""", nativeQuery = true)
+    int removeParticipant(@Param("conversationId") Integer conversationId, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageSeq = c.lastMessageSeq + :count WHERE c.id = :conversationId")
+    int incrementLastMessageSeq(@Param("conversationId") Integer conversationId, @Param("count") long count);
+
+    @Query("SELECT c.lastMessageSeq FROM Conversation c WHERE c.id = :conversationId")
+    long findLastMessageSeq(@Param("conversationId") Integer conversationId);
+
     Optional<Conversation> findByTeamId(Integer teamId);
     Optional<Conversation> findByEventEventId(Integer eventId);
 
@@ -0,0 +1,11 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.Event;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface EventKeysetRepository {
+    List<Event> findSlice(Specification<Event> spec, Sort sort, int limit);
+}
@@ -1,16 +1,34 @@
 package com.joinmatch.backend.repository;
 
 import com.joinmatch.backend.model.Event;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>, EventKeysetRepository {
+    @Override
+    @EntityGraph("Event.listing")
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
+    @EntityGraph("Event.details")
+    @Query("SELECT e FROM Event e WHERE e.eventId = :id")
+    Optional<Event> findDetailsById(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.eventId = :id")
+    Optional<Event> lockById(@Param("id") Integer id);
 
-public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event> {
     @Query("""
         select distinct e
         from Event e
@@ -42,6 +60,26 @@ WHERE
     """)
     Page<Event> findAllParticipatedByUserId(Integer id, Pageable sortedPageable);
 
+    @Modifying
+    @Query("""
+        UPDATE Event e
+        SET e.bookedParticipants = e.bookedParticipants + :spots
+        WHERE e.eventId = :eventId
+          AND e.bookedParticipants + :spots <= e.numberOfParticipants
+    """)
+    int reserveSpots(@Param("eventId") Integer eventId, @Param("spots") int spots);
+
+    @Modifying
+    @Query("""
+        UPDATE Event e
+        SET e.bookedParticipants = CASE
+            WHEN e.bookedParticipants > :spots THEN e.bookedParticipants - :spots
+            ELSE 0
+        END
+        WHERE e.eventId = :eventId
+    """)
+    int releaseSpots(@Param("eventId") Integer eventId, @Param("spots") int spots);
+
     @Query("SELECT COUNT(e) FROM Event e WHERE e.owner.id = :userId")
     int countCreatedEvents(@Param("userId") Integer userId);
 
@@ -78,12 +116,21 @@ WHERE
         SELECT e.eventId, e.eventName, e.imageUrl,
                so.city, s.name as sportTypeName,
                u.id, u.name, u.email, u.urlOfPicture,
-               COALESCE(AVG(er.rating), 0.0) as avgRating,
-               COUNT(er.eventRatingId) as totalRatings,
-               COUNT(ue.id) as participantCount
+               COALESCE(r.avgRating, 0.0) as avgRating,
+               COALESCE(r.ratingCount, 0) as totalRatings,
+               COALESCE(p.participantCount, 0) as participantCount
         FROM Event e
-        LEFT JOIN EventRating er ON er.event.eventId = e.eventId
-        LEFT JOIN UserEvent ue ON ue.event.eventId = e.eventId
+        LEFT JOIN (
+            SELECT er.event.eventId as eventId, AVG(er.rating) as avgRating, COUNT(er.eventRatingId) as ratingCount
+            FROM EventRating er
+            GROUP BY er.event.eventId
+        ) r ON r.eventId = e.eventId
+        LEFT JOIN (
+            SELECT ue.event.eventId as eventId, COUNT(ue.id) as participantCount
+            FROM UserEvent ue
+            WHERE ue.attendanceStatus.id = 1
+            GROUP BY ue.event.eventId
+        ) p ON p.eventId = e.eventId
         JOIN SportObject so ON e.sportObject.objectId = so.objectId
         JOIN Sport s ON e.sportEv.id = s.id
         JOIN User u ON e.owner.id = u.id
@@ -93,8 +140,7 @@ WHERE
         )
           AND u.isBlocked = false
           AND u.isVerified = true
-        GROUP BY e.eventId, e.eventName, e.imageUrl, so.city, s.name, u.id, u.name, u.email, u.urlOfPicture
-        HAVING COUNT(er.eventRatingId) >= :minRatings
+          AND COALESCE(r.ratingCount, 0) >= :minRatings
         ORDER BY avgRating DESC, totalRatings DESC
         LIMIT :limit
     """)
@@ -104,12 +150,21 @@ WHERE
         SELECT e.eventId, e.eventName, e.imageUrl,
                so.city, s.name as sportTypeName,
                u.id, u.name, u.email, u.urlOfPicture,
-               COALESCE(AVG(er.rating), 0.0) as avgRating,
-               COUNT(er.eventRatingId) as totalRatings,
-               COUNT(ue.id) as participantCount
+               COALESCE(r.avgRating, 0.0) as avgRating,
+               COALESCE(r.ratingCount, 0) as totalRatings,
+               p.participantCount as participantCount
         FROM Event e
-        LEFT JOIN EventRating er ON er.event.eventId = e.eventId
-        LEFT JOIN UserEvent ue ON ue.event.eventId = e.eventId
+        JOIN (
+            SELECT ue.event.eventId as eventId, COUNT(ue.id) as participantCount
+            FROM UserEvent ue
+            WHERE ue.attendanceStatus.id = 1
+            GROUP BY ue.event.eventId
+        ) p ON p.eventId = e.eventId
+        LEFT JOIN (
+            SELECT er.event.eventId as eventId, AVG(er.rating) as avgRating, COUNT(er.eventRatingId) as ratingCount
+            FROM EventRating er
+            GROUP BY er.event.eventId
+        ) r ON r.eventId = e.eventId
         JOIN SportObject so ON e.sportObject.objectId = so.objectId
         JOIN Sport s ON e.sportEv.id = s.id
         JOIN User u ON e.owner.id = u.id
@@ -119,8 +174,6 @@ WHERE
         )
           AND u.isBlocked = false
           AND u.isVerified = true
-        GROUP BY e.eventId, e.eventName, e.imageUrl, so.city, s.name, u.id, u.name, u.email, u.urlOfPicture
-        HAVING COUNT(ue.id) > 0
         ORDER BY participantCount DESC
         LIMIT :limit
     """)
@@ -130,12 +183,21 @@ WHERE
         SELECT e.eventId, e.eventName, e.imageUrl,
                so.city, s.name as sportTypeName,
                u.id, u.name, u.email, u.urlOfPicture,
-               COALESCE(AVG(er.rating), 0.0) as avgRating,
-               COUNT(er.eventRatingId) as totalRatings,
-               COUNT(ue.id) as participantCount
+               COALESCE(r.avgRating, 0.0) as avgRating,
+               COALESCE(r.ratingCount, 0) as totalRatings,
+               COALESCE(p.participantCount, 0) as participantCount
         FROM Event e
-        LEFT JOIN EventRating er ON er.event.eventId = e.eventId
-        LEFT JOIN UserEvent ue ON ue.event.eventId = e.eventId
+        LEFT JOIN (
+            SELECT er.event.eventId as eventId, AVG(er.rating) as avgRating, COUNT(er.eventRatingId) as ratingCount
+            FROM EventRating er
+            GROUP BY er.event.eventId
+        ) r ON r.eventId = e.eventId
+        LEFT JOIN (
+            SELECT ue.event.eventId as eventId, COUNT(ue.id) as participantCount
+            FROM UserEvent ue
+            WHERE ue.attendanceStatus.id = 1
+            GROUP BY ue.event.eventId
+        ) p ON p.eventId = e.eventId
         JOIN SportObject so ON e.sportObject.objectId = so.objectId
         JOIN Sport s ON e.sportEv.id = s.id
         JOIN User u ON e.owner.id = u.id
@@ -146,8 +208,7 @@ WHERE
           AND u.isBlocked = false
           AND u.isVerified = true
           AND LOWER(so.city) = LOWER(:city)
-        GROUP BY e.eventId, e.eventName, e.imageUrl, so.city, s.name, u.id, u.name, u.email, u.urlOfPicture
-        HAVING COUNT(er.eventRatingId) >= :minRatings
+          AND COALESCE(r.ratingCount, 0) >= :minRatings
         ORDER BY avgRating DESC, totalRatings DESC
         LIMIT :limit
     """)
@@ -1,7 +1,10 @@
 package com.joinmatch.backend.repository;
 
+import com.joinmatch.backend.dto.EventTeam.EventTeamSummaryDto;
 import com.joinmatch.backend.model.EventTeam;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +20,20 @@ public interface EventTeamRepository extends JpaRepository<EventTeam, Integer> {
     void deleteByEvent_EventIdAndTeam_Id(Integer eventId, Integer teamId);
     Optional<EventTeam> findByEvent_EventIdAndTeam_Id(Integer eventId, Integer teamId);
 
+    @Query("""
+        SELECT new com.joinmatch.backend.dto.EventTeam.EventTeamSummaryDto(
+            t.id, t.name, t.city, t.photoUrl, l.id, l.name, COUNT(DISTINCT ut.user.id)
+        )
+        FROM EventTeam et
+        JOIN et.team t
+        JOIN t.leader l
+        LEFT JOIN t.userTeams ut
+        WHERE et.event.eventId = :eventId
+        GROUP BY et.id, et.joinedAt, t.id, t.name, t.city, t.photoUrl, l.id, l.name
+        ORDER BY et.joinedAt
+    """)
+    List<EventTeamSummaryDto> findSummariesByEventId(@Param("eventId") Integer eventId);
+
 }
 
 
@@ -0,0 +1,10 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.Message;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MessageCatchUpRepository {
+    List<Message> findAfterSeqs(Map<Integer, Long> lastSeenSeqByConversation, int limit);
+}
@@ -0,0 +1,47 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.Message;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Map;
+
+public class MessageCatchUpRepositoryImpl implements MessageCatchUpRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // One statement for all conversations: (conversation = ? AND seq > ?) OR ... served by the (conversation_id, seq) index
+    @Override
+    public List<Message> findAfterSeqs(Map<Integer, Long> lastSeenSeqByConversation, int limit) {
+        if (lastSeenSeqByConversation.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Message> query = cb.createQuery(Message.class);
+        Root<Message> root = query.from(Message.class);
+        root.fetch("sender");
+        root.fetch("conversation");
+
+        Predicate[] missed = lastSeenSeqByConversation.entrySet().stream()
+                .map(entry -> cb.and(
+                        cb.equal(root.get("conversation").get("id"), entry.getKey()),
+                        cb.greaterThan(root.get("seq"), entry.getValue())
+                ))
+                .toArray(Predicate[]::new);
+
+        query.select(root)
+                .where(cb.or(missed))
+                .orderBy(cb.asc(root.get("conversation").get("id")), cb.asc(root.get("seq")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -10,37 +10,45 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MessageRepository extends JpaRepository<Message, Integer> {
-    List<Message> findByConversationIdOrderByCreatedAtAsc(Integer conversationId);
-
-    Optional<Message> findTopByConversationIdOrderByCreatedAtDesc(Integer conversationId);
-
+public interface MessageRepository extends JpaRepository<Message, Integer>, MessageCatchUpRepository {
     @Query("""
-        SELECT m FROM Message m 
-        WHERE m.conversation.id = :cid 
-          AND m.id <= :lastMessageId
-          AND m.id NOT IN (
-             SELECT mr.message.id 
-             FROM MessageRead mr 
-             WHERE mr.user.id = :uid
-          )
-    """)
-    List<Message> findUnreadMessages(
+    SELECT m FROM Message m
+    JOIN FETCH m.sender
+    JOIN FETCH m.conversation
+    WHERE m.conversation.id = :cid
+      AND m.seq < :beforeSeq
+    ORDER BY m.seq DESC
+    LIMIT :limit
+""")
+    List<Message> findPageBefore(
             @Param("cid") Integer conversationId,
-            @Param("uid") Integer userId,
-            @Param("lastMessageId") Integer lastMessageId
+            @Param("beforeSeq") Long beforeSeq,
+            @Param("limit") Integer limit
     );
 
+    Optional<Message> findTopByConversationIdOrderBySeqDesc(Integer conversationId);
+
     @Query("""
     SELECT COUNT(m) FROM Message m
-    LEFT JOIN MessageRead mr 
-        ON mr.message = m AND mr.user.id = :uid
     WHERE m.conversation.id = :cid
-      AND mr.id IS NULL
+      AND m.seq > :afterSeq
+      AND m.seq <= :upToSeq
 """)
-    long countUnreadMessages(
+    long countInRange(
             @Param("cid") Integer conversationId,
-            @Param("uid") Integer userId
+            @Param("afterSeq") Long afterSeq,
+            @Param("upToSeq") Long upToSeq
     );
 
+    @Query("""
+    SELECT COUNT(m) FROM Conversation c
+    JOIN c.participants p
+    JOIN Message m ON m.conversation.id = c.id
+    WHERE p.id = :uid
+      AND m.seq > COALESCE((
+          SELECT rc.lastReadSeq FROM ConversationReadCursor rc
+          WHERE rc.conversation.id = c.id AND rc.user.id = :uid
+      ), 0)
+""")
+    long countTotalUnread(@Param("uid") Integer userId);
 }
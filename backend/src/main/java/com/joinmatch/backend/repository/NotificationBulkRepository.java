@@ -0,0 +1,10 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.Notification;
+
+import java.util.List;
+
+public interface NotificationBulkRepository {
+
+    List<Notification> insertAll(List<Notification> notifications);
+}
@@ -0,0 +1,33 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.Notification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class NotificationBulkRepositoryImpl implements NotificationBulkRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Sequence ids are pooled, so the whole fan-out is flushed as batched multi-row INSERTs
+    @Override
+    @Transactional
+    public List<Notification> insertAll(List<Notification> notifications) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            notifications.forEach(entityManager::persist);
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+        return notifications;
+    }
+}
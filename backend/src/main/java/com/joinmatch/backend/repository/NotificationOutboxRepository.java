@@ -0,0 +1,16 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Integer> {
+
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.availableAt <= :now ORDER BY o.availableAt")
+    List<NotificationOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+}
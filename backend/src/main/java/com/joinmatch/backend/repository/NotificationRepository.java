@@ -3,16 +3,80 @@ package com.joinmatch.backend.repository;
 import com.joinmatch.backend.model.Notification;
 import com.joinmatch.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface NotificationRepository extends JpaRepository<Notification, Integer> {
+public interface NotificationRepository extends JpaRepository<Notification, Integer>, NotificationBulkRepository {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Integer userId);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countByUserIdAndIsReadFalse(@Param("userId") Integer userId);
     
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
+
+    @Query("""
+    SELECT n FROM Notification n
+    WHERE n.user.id = :userId
+    ORDER BY n.createdAt DESC, n.id DESC
+    LIMIT :limit
+""")
+    List<Notification> findFirstPage(
+            @Param("userId") Integer userId,
+            @Param("limit") Integer limit
+    );
+
+    @Query("""
+    SELECT n FROM Notification n
+    WHERE n.user.id = :userId
+      AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+    ORDER BY n.createdAt DESC, n.id DESC
+    LIMIT :limit
+""")
+    List<Notification> findPageBefore(
+            @Param("userId") Integer userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Integer id,
+            @Param("limit") Integer limit
+    );
+
+    @Modifying
+    @Query("""
+    UPDATE Notification n
+    SET n.isRead = true
+    WHERE n.user.id = :userId
+      AND n.isRead = false
+""")
+    int markAllAsRead(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("""
+    UPDATE Notification n
+    SET n.isRead = true
+    WHERE n.user.id = :userId
+      AND n.isRead = false
+      AND EXISTS (
+          SELECT 1 FROM Notification upTo
+          WHERE upTo.id = :upToId
+            AND upTo.user.id = :userId
+            AND (n.createdAt < upTo.createdAt OR (n.createdAt = upTo.createdAt AND n.id <= upTo.id))
+      )
+""")
+    int markAsReadUpTo(@Param("userId") Integer userId, @Param("upToId") Integer upToId);
+
+    @Query("""
+    SELECT n.id FROM Notification n
+    WHERE n.isRead = true
+      AND n.createdAt < :cutoff
+    ORDER BY n.createdAt
+    LIMIT :limit
+""")
+    List<Integer> findReadIdsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") Integer limit);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,10 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.RankingSnapshot;
+
+import java.util.List;
+
+public interface RankingSnapshotBulkRepository {
+
+    void insertAll(List<RankingSnapshot> rows);
+}
@@ -0,0 +1,39 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.model.RankingSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class RankingSnapshotBulkRepositoryImpl implements RankingSnapshotBulkRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows are detached right after the flush, a rebuild holds thousands of them
+    @Override
+    @Transactional
+    public void insertAll(List<RankingSnapshot> rows) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                entityManager.persist(rows.get(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+}
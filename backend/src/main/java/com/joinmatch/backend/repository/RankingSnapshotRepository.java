@@ -0,0 +1,47 @@
+package com.joinmatch.backend.repository;
+
+import com.joinmatch.backend.enums.RankingType;
+import com.joinmatch.backend.model.RankingSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RankingSnapshotRepository extends JpaRepository<RankingSnapshot, Long>, RankingSnapshotBulkRepository {
+
+    @Query("""
+        SELECT r
+        FROM RankingSnapshot r
+        WHERE r.rankingType = :type
+          AND r.city IS NULL
+          AND r.totalCount >= :minCount
+        ORDER BY r.rankOrder
+        LIMIT :limit
+    """)
+    List<RankingSnapshot> findGlobalRanking(@Param("type") RankingType type,
+                                            @Param("minCount") Integer minCount,
+                                            @Param("limit") Integer limit);
+
+    @Query("""
+        SELECT r
+        FROM RankingSnapshot r
+        WHERE r.rankingType = :type
+          AND r.city = LOWER(:city)
+          AND r.totalCount >= :minCount
+        ORDER BY r.rankOrder
+        LIMIT :limit
+    """)
+    List<RankingSnapshot> findLocalRanking(@Param("type") RankingType type,
+                                           @Param("city") String city,
+                                           @Param("minCount") Integer minCount,
+                                           @Param("limit") Integer limit);
+
+    long countByRankingTypeAndCityIsNull(RankingType type);
+
+    long countByRankingTypeAndCity(RankingType type, String city);
+
+    @Query("SELECT MAX(r.refreshedAt) FROM RankingSnapshot r")
+    LocalDateTime findLastRefreshedAt();
+}
@@ -5,7 +5,10 @@ import com.joinmatch.backend.model.User;
 import com.joinmatch.backend.model.UserEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -24,6 +27,21 @@ public interface UserEventRepository extends JpaRepository<UserEvent, Integer> {
 
     Optional<UserEvent> findByEvent_EventIdAndUser_Id(Integer eventId, Integer userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UserEvent> findFirstByEvent_EventIdAndAttendanceStatus_IdAndWaitlistPositionNotNullOrderByWaitlistPositionAscIdAsc(
+            Integer eventId, Integer attendanceStatusId);
+
+    @Query("""
+        SELECT COALESCE(MAX(ue.waitlistPosition), 0)
+        FROM UserEvent ue
+        WHERE ue.event.eventId = :eventId AND ue.waitlistPosition IS NOT NULL
+        """)
+    long findLastWaitlistPosition(@Param("eventId") Integer eventId);
+
+    @Modifying
+    @Query("DELETE FROM UserEvent ue WHERE ue.event.eventId = :eventId AND ue.waitlistPosition IS NOT NULL")
+    int deleteWaitlist(@Param("eventId") Integer eventId);
+
     @Query("""
         SELECT CASE WHEN COUNT(e) > 0 THEN TRUE ELSE FALSE END
         FROM Event e
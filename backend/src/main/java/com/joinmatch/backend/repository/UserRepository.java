@@ -1,5 +1,6 @@
 package com.joinmatch.backend.repository;
 
+import com.joinmatch.backend.dto.Message.ParticipantDto;
 import com.joinmatch.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +12,9 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     Optional<User> getUserById(Integer id);
+
+    @Query("SELECT new com.joinmatch.backend.dto.Message.ParticipantDto(u.id, u.name, u.urlOfPicture) FROM User u WHERE u.id = :id")
+    Optional<ParticipantDto> findParticipantById(@Param("id") Integer id);
     @Query("""
         select distinct u
         from JoinMatchToken t
@@ -0,0 +1,73 @@
+package com.joinmatch.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// With the broker relay every node keeps its own membership cache, changes are fanned out over the relay's system connection
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "chat.broker.relay.enabled", havingValue = "true")
+public class ChatMembershipBroadcaster {
+
+    public static final String DESTINATION = "/topic/chat-membership-changes";
+
+    private final ChatMembershipCache membershipCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ChatMembershipBroadcaster(ChatMembershipCache membershipCache,
+                                     SimpMessagingTemplate messagingTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Qualifier("stompBrokerRelayMessageHandler") AbstractBrokerMessageHandler brokerHandler) {
+        this.membershipCache = membershipCache;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+
+        // Registered before the relay starts, next to the user destination broadcasts Spring already subscribes to
+        StompBrokerRelayMessageHandler relay = (StompBrokerRelayMessageHandler) brokerHandler;
+        Map<String, MessageHandler> subscriptions = new HashMap<>();
+        if (relay.getSystemSubscriptions() != null) {
+            subscriptions.putAll(relay.getSystemSubscriptions());
+        }
+        subscriptions.put(DESTINATION, this::onBroadcast);
+        relay.setSystemSubscriptions(subscriptions);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(ChatMembershipChanged changed) {
+        messagingTemplate.convertAndSend(DESTINATION, changed);
+    }
+
+    // Deltas sent while this node was cut off from the broker are gone, so everything is reloaded
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        if (event.isBrokerAvailable()) {
+            membershipCache.invalidateAll();
+        }
+    }
+
+    private void onBroadcast(Message<?> message) {
+        try {
+            membershipCache.apply(objectMapper.readValue((byte[]) message.getPayload(), ChatMembershipChanged.class));
+        } catch (IOException | ClassCastException e) {
+            log.warn("Ignoring malformed chat membership change", e);
+        }
+    }
+}
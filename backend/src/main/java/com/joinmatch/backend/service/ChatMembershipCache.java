@@ -0,0 +1,84 @@
+package com.joinmatch.backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.joinmatch.backend.dto.Message.ConversationMembersDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.repository.ConversationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class ChatMembershipCache {
+
+    private final ConversationRepository conversationRepository;
+    private final LoadingCache<Integer, ConversationMembersDto> memberships;
+
+    public ChatMembershipCache(ConversationRepository conversationRepository,
+                               @Value("${chat.membership-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${chat.membership-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.conversationRepository = conversationRepository;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build(this::load);
+    }
+
+    public ConversationMembersDto get(Integer conversationId) {
+        ConversationMembersDto membership = memberships.get(conversationId);
+        if (membership == null) {
+            throw new EntityNotFoundException("Conversation " + conversationId + " not found");
+        }
+        return membership;
+    }
+
+    public boolean isMember(Integer conversationId, Integer userId) {
+        ConversationMembersDto membership = memberships.get(conversationId);
+        return membership != null && membership.isMember(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(ChatMembershipChanged changed) {
+        apply(changed);
+    }
+
+    // Applied as a delta so a join or leave in a large event chat does not reload every participant
+    public void apply(ChatMembershipChanged changed) {
+        memberships.asMap().computeIfPresent(changed.conversationId(), (id, membership) -> changed.isAdded()
+                ? membership.withMember(changed.addedMember())
+                : membership.withoutMember(changed.userId()));
+    }
+
+    public void invalidateAll() {
+        memberships.invalidateAll();
+    }
+
+    private ConversationMembersDto load(Integer conversationId) {
+        Conversation conversation = conversationRepository.findById(conversationId).orElse(null);
+        if (conversation == null) {
+            return null;
+        }
+
+        Map<Integer, ParticipantDto> members = new LinkedHashMap<>();
+        for (ParticipantDto participant : conversationRepository.findParticipants(conversationId)) {
+            members.put(participant.id(), participant);
+        }
+
+        return new ConversationMembersDto(
+                conversationId,
+                conversation.getType(),
+                conversation.getTeam() != null ? conversation.getTeam().getId() : null,
+                conversation.getEvent() != null ? conversation.getEvent().getEventId() : null,
+                Map.copyOf(members)
+        );
+    }
+}
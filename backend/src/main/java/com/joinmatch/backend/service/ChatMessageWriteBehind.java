@@ -0,0 +1,217 @@
+package com.joinmatch.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class ChatMessageWriteBehind {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO message (id, conversation_id, sender_id, seq, content, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DEAD_LETTER_SQL = """
+            INSERT INTO message_dead_letter (message_id, conversation_id, sender_id, seq, content, created_at, failed_at, error)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageIdAllocator idAllocator;
+    private final MessageSeqAllocator seqAllocator;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final List<BlockingQueue<PendingMessage>> stripes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public record PendingMessage(
+            int id,
+            int conversationId,
+            int senderId,
+            long seq,
+            String content,
+            LocalDateTime createdAt
+    ) {
+    }
+
+    public ChatMessageWriteBehind(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MessageIdAllocator idAllocator,
+                                  MessageSeqAllocator seqAllocator,
+                                  @Value("${chat.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${chat.write-behind.stripes:4}") int stripeCount,
+                                  @Value("${chat.write-behind.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${chat.write-behind.batch-size:200}") int batchSize,
+                                  @Value("${chat.write-behind.offer-timeout:PT2S}") Duration offerTimeout,
+                                  @Value("${chat.write-behind.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.seqAllocator = seqAllocator;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        if (enabled) {
+            running = true;
+            for (int i = 0; i < stripeCount; i++) {
+                BlockingQueue<PendingMessage> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity / stripeCount));
+                stripes.add(queue);
+                Thread worker = new Thread(() -> drain(queue), "chat-write-behind-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // One queue and one writer per stripe keeps the messages of a conversation in id and seq order
+    public PendingMessage enqueue(Integer conversationId, Integer senderId, String content) {
+        BlockingQueue<PendingMessage> queue = stripes.get(Math.floorMod(conversationId, stripes.size()));
+        synchronized (queue) {
+            if (!running) {
+                throw new IllegalStateException("Chat is shutting down, try again later");
+            }
+            PendingMessage pending = new PendingMessage(
+                    idAllocator.next(), conversationId, senderId, seqAllocator.nextReserved(conversationId),
+                    content, LocalDateTime.now());
+            try {
+                if (!queue.offer(pending, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Chat is overloaded, try again later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing chat message", e);
+            }
+            return pending;
+        }
+    }
+
+    public int pendingCount() {
+        return stripes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    private void drain(BlockingQueue<PendingMessage> queue) {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingMessage> batch) throws InterruptedException {
+        DataAccessException lastError = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (DataAccessException e) {
+                lastError = e;
+                log.warn("Chat message batch of {} failed (attempt {}/{})", batch.size(), attempt, MAX_ATTEMPTS, e);
+                if (attempt < MAX_ATTEMPTS) {
+                    Thread.sleep(200L * attempt);
+                }
+            }
+        }
+
+        if (batch.size() == 1) {
+            deadLetter(batch.get(0), lastError);
+            return;
+        }
+        // One bad row must not take the rest of the batch down with it
+        for (PendingMessage message : batch) {
+            try {
+                insert(List.of(message));
+            } catch (DataAccessException e) {
+                deadLetter(message, e);
+            }
+        }
+    }
+
+    private void insert(List<PendingMessage> messages) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                INSERT_SQL, messages, messages.size(), (ps, message) -> {
+                    ps.setInt(1, message.id());
+                    ps.setInt(2, message.conversationId());
+                    ps.setInt(3, message.senderId());
+                    ps.setLong(4, message.seq());
+                    ps.setString(5, message.content());
+                    ps.setTimestamp(6, Timestamp.valueOf(message.createdAt()));
+                }));
+    }
+
+    private void deadLetter(PendingMessage message, DataAccessException cause) {
+        String error = cause.getMostSpecificCause().getMessage();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DEAD_LETTER_SQL,
+                    message.id(), message.conversationId(), message.senderId(), message.seq(), message.content(),
+                    Timestamp.valueOf(message.createdAt()), Timestamp.valueOf(LocalDateTime.now()), error));
+            log.error("Chat message {} of conversation {} moved to message_dead_letter: {}",
+                    message.id(), message.conversationId(), error);
+        } catch (DataAccessException e) {
+            log.error("Losing chat message {} of conversation {}, the dead letter insert failed too",
+                    message.id(), message.conversationId(), e);
+        }
+    }
+
+    // New messages are refused first, whatever the workers have not written in time is flushed here
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (BlockingQueue<PendingMessage> queue : stripes) {
+            synchronized (queue) {
+                running = false;
+            }
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+
+        for (BlockingQueue<PendingMessage> queue : stripes) {
+            List<PendingMessage> left = new ArrayList<>();
+            queue.drainTo(left);
+            for (int from = 0; from < left.size(); from += batchSize) {
+                write(left.subList(from, Math.min(from + batchSize, left.size())));
+            }
+        }
+        // A worker past the deadline still holds the batch it took off its queue, it exits once that is written
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+}
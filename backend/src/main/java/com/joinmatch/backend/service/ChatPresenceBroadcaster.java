@@ -0,0 +1,90 @@
+package com.joinmatch.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joinmatch.backend.dto.Message.NodePresenceDto;
+import com.joinmatch.backend.events.ChatPresenceChanged;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// With the broker relay every node only sees its own WebSocket sessions, so nodes exchange who is connected to them
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "chat.broker.relay.enabled", havingValue = "true")
+public class ChatPresenceBroadcaster {
+
+    public static final String DESTINATION = "/topic/chat-presence-changes";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ChatPresenceService presenceService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ChatPresenceBroadcaster(ChatPresenceService presenceService,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier("stompBrokerRelayMessageHandler") AbstractBrokerMessageHandler brokerHandler) {
+        this.presenceService = presenceService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+
+        StompBrokerRelayMessageHandler relay = (StompBrokerRelayMessageHandler) brokerHandler;
+        Map<String, MessageHandler> subscriptions = new HashMap<>();
+        if (relay.getSystemSubscriptions() != null) {
+            subscriptions.putAll(relay.getSystemSubscriptions());
+        }
+        subscriptions.put(DESTINATION, this::onBroadcast);
+        relay.setSystemSubscriptions(subscriptions);
+    }
+
+    @EventListener
+    public void onPresenceChanged(ChatPresenceChanged changed) {
+        List<Integer> user = List.of(changed.userId());
+        messagingTemplate.convertAndSend(DESTINATION, new NodePresenceDto(
+                nodeId,
+                false,
+                changed.online() ? user : List.of(),
+                changed.online() ? List.of() : user
+        ));
+    }
+
+    // The full set repairs lost deltas and keeps this node from expiring on the others
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat:PT10S}")
+    public void sendSnapshot() {
+        messagingTemplate.convertAndSend(DESTINATION,
+                new NodePresenceDto(nodeId, true, presenceService.localOnlineUserIds(), List.of()));
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        if (event.isBrokerAvailable()) {
+            sendSnapshot();
+        }
+    }
+
+    private void onBroadcast(Message<?> message) {
+        try {
+            NodePresenceDto presence = objectMapper.readValue((byte[]) message.getPayload(), NodePresenceDto.class);
+            if (!nodeId.equals(presence.nodeId())) {
+                presenceService.applyRemote(presence);
+            }
+        } catch (IOException | ClassCastException e) {
+            log.warn("Ignoring malformed chat presence update", e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.joinmatch.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.joinmatch.backend.config.ChatChannelInterceptor;
+import com.joinmatch.backend.dto.Message.ChatPresenceDto;
+import com.joinmatch.backend.dto.Message.ChatTypingDto;
+import com.joinmatch.backend.dto.Message.ConversationMembersDto;
+import com.joinmatch.backend.dto.Message.NodePresenceDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+import com.joinmatch.backend.events.ChatPresenceChanged;
+import com.joinmatch.backend.repository.ConversationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ChatPresenceService {
+
+    private final ConversationRepository conversationRepository;
+    private final ChatMembershipCache membershipCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long typingThrottleNanos;
+    private final long nodeExpiryNanos;
+
+    // Nothing here is persisted, a restarted node learns presence again from reconnecting clients
+    private final ConcurrentHashMap<Integer, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> userBySession = new ConcurrentHashMap<>();
+    // Users connected to other nodes, only filled in when ChatPresenceBroadcaster shares presence over the broker relay
+    private final ConcurrentHashMap<String, RemoteNode> remoteNodes = new ConcurrentHashMap<>();
+    private final Cache<Long, Long> lastTyping;
+
+    private static final class RemoteNode {
+        private final Set<Integer> userIds = ConcurrentHashMap.newKeySet();
+        private volatile long lastSeen = System.nanoTime();
+    }
+
+    public ChatPresenceService(ConversationRepository conversationRepository,
+                               ChatMembershipCache membershipCache,
+                               SimpMessagingTemplate messagingTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${chat.typing.throttle:PT2S}") Duration typingThrottle,
+                               @Value("${chat.presence.node-expiry:PT30S}") Duration nodeExpiry) {
+        this.conversationRepository = conversationRepository;
+        this.membershipCache = membershipCache;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.typingThrottleNanos = typingThrottle.toNanos();
+        this.nodeExpiryNanos = nodeExpiry.toNanos();
+        this.lastTyping = Caffeine.newBuilder()
+                .expireAfterWrite(typingThrottle)
+                .build();
+    }
+
+    // CONNECT rather than CONNECTED, a CONNECTED frame coming back from the broker relay carries no session attributes
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        Integer userId = resolveUserId(event.getMessage());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId != null && sessionId != null && connect(sessionId, userId)) {
+            changed(userId, true);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Integer userId = userBySession.get(event.getSessionId());
+        if (userId != null && disconnect(event.getSessionId())) {
+            changed(userId, false);
+        }
+    }
+
+    // Both return true only on the offline/online transition, compute keeps that atomic per user
+    public boolean connect(String sessionId, Integer userId) {
+        boolean[] cameOnline = {false};
+        userBySession.put(sessionId, userId);
+        sessionsByUser.compute(userId, (id, sessions) -> {
+            if (sessions == null) {
+                sessions = new HashSet<>();
+                cameOnline[0] = true;
+            }
+            sessions.add(sessionId);
+            return sessions;
+        });
+        return cameOnline[0];
+    }
+
+    public boolean disconnect(String sessionId) {
+        Integer userId = userBySession.remove(sessionId);
+        if (userId == null) {
+            return false;
+        }
+
+        boolean[] wentOffline = {false};
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            if (sessions.isEmpty()) {
+                wentOffline[0] = true;
+                return null;
+            }
+            return sessions;
+        });
+        return wentOffline[0];
+    }
+
+    public boolean isOnline(Integer userId) {
+        return sessionsByUser.containsKey(userId) || isOnlineElsewhere(userId);
+    }
+
+    public List<Integer> localOnlineUserIds() {
+        return List.copyOf(sessionsByUser.keySet());
+    }
+
+    // A snapshot replaces what is known about the node, a delta only adds and removes users
+    public void applyRemote(NodePresenceDto presence) {
+        long now = System.nanoTime();
+        remoteNodes.values().removeIf(node -> now - node.lastSeen >= nodeExpiryNanos);
+
+        RemoteNode node = remoteNodes.computeIfAbsent(presence.nodeId(), id -> new RemoteNode());
+        if (presence.snapshot()) {
+            node.userIds.retainAll(new HashSet<>(presence.online()));
+        }
+        node.userIds.addAll(presence.online());
+        presence.offline().forEach(node.userIds::remove);
+        node.lastSeen = now;
+    }
+
+    public int onlineUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public int sessionCount() {
+        return userBySession.size();
+    }
+
+    public List<Integer> getOnlineParticipants(Integer conversationId, Integer userId) {
+        ConversationMembersDto membership = membershipCache.get(conversationId);
+        if (!membership.isMember(userId)) {
+            throw new SecurityException("User is not a member of this conversation");
+        }
+        return membership.members().keySet().stream()
+                .filter(this::isOnline)
+                .sorted()
+                .toList();
+    }
+
+    // A started typing signal passes at most once per throttle window, a stop signal always passes
+    public Optional<ChatTypingDto> throttleTyping(ChatTypingDto typing) {
+        long key = ((long) typing.conversationId() << 32) | (typing.senderId() & 0xffffffffL);
+        if (typing.typing()) {
+            long now = System.nanoTime();
+            boolean[] accepted = {false};
+            lastTyping.asMap().compute(key, (k, last) -> {
+                if (last != null && now - last < typingThrottleNanos) {
+                    return last;
+                }
+                accepted[0] = true;
+                return now;
+            });
+            if (!accepted[0]) {
+                return Optional.empty();
+            }
+        } else {
+            lastTyping.invalidate(key);
+        }
+
+        ParticipantDto sender = membershipCache.get(typing.conversationId()).members().get(typing.senderId());
+        return Optional.of(new ChatTypingDto(
+                typing.conversationId(),
+                typing.senderId(),
+                sender != null ? sender.name() : typing.senderName(),
+                typing.typing()
+        ));
+    }
+
+    // Clients only hear about the first session in the cluster coming up and the last one going away
+    private void changed(Integer userId, boolean online) {
+        eventPublisher.publishEvent(new ChatPresenceChanged(userId, online));
+        if (!isOnlineElsewhere(userId)) {
+            broadcast(userId, online);
+        }
+    }
+
+    // Nodes that stopped sending heartbeats are treated as gone together with their users
+    private boolean isOnlineElsewhere(Integer userId) {
+        long now = System.nanoTime();
+        for (RemoteNode node : remoteNodes.values()) {
+            if (now - node.lastSeen < nodeExpiryNanos && node.userIds.contains(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void broadcast(Integer userId, boolean online) {
+        ChatPresenceDto presence = new ChatPresenceDto(userId, online);
+        for (Integer conversationId : conversationRepository.findIdsByParticipantId(userId)) {
+            messagingTemplate.convertAndSend("/topic/conversation/" + conversationId + "/presence", presence);
+        }
+    }
+
+    private Integer resolveUserId(Message<?> message) {
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        return attributes != null ? (Integer) attributes.get(ChatChannelInterceptor.USER_ID_ATTRIBUTE) : null;
+    }
+}
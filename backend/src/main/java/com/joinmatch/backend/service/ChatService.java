@@ -1,34 +1,65 @@
 package com.joinmatch.backend.service;
 
+import com.joinmatch.backend.dto.Message.ChatCatchUpDto;
+import com.joinmatch.backend.dto.Message.ChatCatchUpRequestDto;
 import com.joinmatch.backend.dto.Message.ChatMessageDto;
 import com.joinmatch.backend.dto.Message.ConversationDto;
+import com.joinmatch.backend.dto.Message.ConversationMembersDto;
 import com.joinmatch.backend.dto.Message.ConversationPreviewDto;
+import com.joinmatch.backend.dto.Message.ConversationPreviewRowDto;
 import com.joinmatch.backend.dto.Message.ParticipantDto;
 import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.events.ChatMessageSaved;
+import com.joinmatch.backend.events.ChatMessagesRead;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ChatService {
+    private static final int MAX_MESSAGE_PAGE_SIZE = 200;
+    private static final int MAX_PREVIEW_PAGE_SIZE = 100;
+    private static final int MAX_CATCH_UP_MESSAGES = 1000;
+
     private final MessageRepository messageRepository;
     private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final TeamRepository teamRepository;
-    private final MessageReadRepository messageReadRepository;
+    private final ConversationReadCursorRepository readCursorRepository;
+    private final ChatUnreadService chatUnreadService;
+    private final ChatMembershipCache membershipCache;
+    private final ChatMessageWriteBehind chatMessageWriteBehind;
+    private final MessageSeqAllocator seqAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    private ParticipantDto toParticipantDto(User user) {
+        return new ParticipantDto(user.getId(), user.getName(), user.getUrlOfPicture());
+    }
 
     private ConversationDto mapToConversationDto(Conversation conversation) {
         List<ParticipantDto> participants = conversation.getParticipants().stream()
-                .map(u -> new ParticipantDto(u.getId(), u.getName(), u.getUrlOfPicture()))
+                .map(this::toParticipantDto)
                 .toList();
 
         Integer teamId = conversation.getTeam() != null ? conversation.getTeam().getId() : null;
@@ -48,6 +79,37 @@ public class ChatService {
     }
 
 
+    // Write-behind path, the row is inserted later by ChatMessageWriteBehind
+    public ChatMessageDto postMessage(ChatMessageDto dto) {
+        if (!chatMessageWriteBehind.isEnabled()) {
+            throw new IllegalStateException("Chat write-behind is disabled");
+        }
+
+        ConversationMembersDto conversation = membershipCache.get(dto.conversationId());
+        ParticipantDto sender = conversation.members().get(dto.senderId());
+        if (sender == null) {
+            throw new RuntimeException("User is not a member of this conversation");
+        }
+
+        ChatMessageWriteBehind.PendingMessage pending =
+                chatMessageWriteBehind.enqueue(dto.conversationId(), dto.senderId(), dto.content());
+        eventPublisher.publishEvent(new ChatMessageSaved(pending.conversationId(), pending.id()));
+
+        return new ChatMessageDto(
+                pending.id(),
+                conversation.conversationId(),
+                sender.id(),
+                sender.name(),
+                sender.avatarUrl(),
+                pending.content(),
+                pending.createdAt(),
+                conversation.type().name(),
+                conversation.teamId(),
+                conversation.eventId(),
+                pending.seq()
+        );
+    }
+
     @Transactional
     public ChatMessageDto saveMessage(ChatMessageDto dto) {
         Conversation conversation = conversationRepository.findById(dto.conversationId())
@@ -59,11 +121,13 @@ public class ChatService {
         Message message = Message.builder()
                 .conversation(conversation)
                 .sender(sender)
+                .seq(seqAllocator.next(conversation.getId()))
                 .content(dto.content())
                 .createdAt(LocalDateTime.now())
                 .build();
 
         Message saved = messageRepository.save(message);
+        eventPublisher.publishEvent(new ChatMessageSaved(conversation.getId(), saved.getId()));
 
         return new ChatMessageDto(
                 message.getId(),
@@ -75,26 +139,52 @@ public class ChatService {
                 saved.getCreatedAt(),
                 conversation.getType().name(),
                 conversation.getTeam() != null ? conversation.getTeam().getId() : null,
-                conversation.getEvent() != null ? conversation.getEvent().getEventId() : null
+                conversation.getEvent() != null ? conversation.getEvent().getEventId() : null,
+                saved.getSeq()
         );
     }
 
-    public List<ChatMessageDto> getMessagesByConversation(Integer conversationId) {
-        return messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId)
+    public List<ChatMessageDto> getMessagesByConversation(Integer conversationId, Long beforeSeq, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_MESSAGE_PAGE_SIZE);
+        List<ChatMessageDto> page = new ArrayList<>(messageRepository
+                .findPageBefore(conversationId, beforeSeq != null ? beforeSeq : Long.MAX_VALUE, pageSize)
                 .stream()
-                .map(m -> new ChatMessageDto(
-                        m.getId(),
-                        m.getConversation().getId(),
-                        m.getSender().getId(),
-                        m.getSender().getName(),
-                        m.getSender().getUrlOfPicture(),
-                        m.getContent(),
-                        m.getCreatedAt(),
-                        m.getConversation().getType().name(),
-                        m.getConversation().getTeam() != null ? m.getConversation().getTeam().getId() : null,
-                        m.getConversation().getEvent() != null ? m.getConversation().getEvent().getEventId() : null
-                ))
-                .toList();
+                .map(this::toChatMessageDto)
+                .toList());
+        Collections.reverse(page);
+        return page;
+    }
+
+    public ChatCatchUpDto catchUp(ChatCatchUpRequestDto request) {
+        Map<Integer, Long> lastSeen = new HashMap<>();
+        request.lastSeenSeq().forEach((conversationId, seq) -> {
+            if (membershipCache.isMember(conversationId, request.userId())) {
+                lastSeen.put(conversationId, seq != null ? seq : 0L);
+            }
+        });
+
+        List<Message> missed = messageRepository.findAfterSeqs(lastSeen, MAX_CATCH_UP_MESSAGES + 1);
+        boolean complete = missed.size() <= MAX_CATCH_UP_MESSAGES;
+        return new ChatCatchUpDto(
+                missed.stream().limit(MAX_CATCH_UP_MESSAGES).map(this::toChatMessageDto).toList(),
+                complete
+        );
+    }
+
+    private ChatMessageDto toChatMessageDto(Message m) {
+        return new ChatMessageDto(
+                m.getId(),
+                m.getConversation().getId(),
+                m.getSender().getId(),
+                m.getSender().getName(),
+                m.getSender().getUrlOfPicture(),
+                m.getContent(),
+                m.getCreatedAt(),
+                m.getConversation().getType().name(),
+                m.getConversation().getTeam() != null ? m.getConversation().getTeam().getId() : null,
+                m.getConversation().getEvent() != null ? m.getConversation().getEvent().getEventId() : null,
+                m.getSeq()
+        );
     }
 
     @Transactional
@@ -122,7 +212,7 @@ public class ChatService {
         Conversation conversation = createDirectConversation(user1Id, user2Id);
 
         List<ParticipantDto> participants = conversation.getParticipants().stream()
-                .map(u -> new ParticipantDto(u.getId(), u.getName(), u.getUrlOfPicture()))
+                .map(this::toParticipantDto)
                 .toList();
 
         return new ConversationDto(conversation.getId(), conversation.getType().name(), participants, null, null, null, null);
@@ -131,45 +221,11 @@ public class ChatService {
         return conversationRepository.findByParticipantId(userId);
     }
 
-    public List<ConversationPreviewDto> getUserConversationPreviews(Integer userId) {
-        List<Conversation> convos = conversationRepository.findByParticipantId(userId);
-
-        return convos.stream().map(c -> {
-            Message last = messageRepository
-                    .findTopByConversationIdOrderByCreatedAtDesc(c.getId())
-                    .orElse(null);
-            String lastMessage = (last != null)
-                    ? last.getSender().getName() + ": " + last.getContent()
-                    : "Brak wiadomości";
-
-            String name;
-            String avatarUrl;
-
-            if (c.getType() == ConversationType.EVENT) {
-                name = c.getEvent() != null ? c.getEvent().getEventName() : "Czat wydarzenia";
-                avatarUrl = c.getEvent() != null ? c.getEvent().getImageUrl() : null;
-            } else if (c.getType() == ConversationType.TEAM) {
-                name = c.getTeam() != null ? c.getTeam().getName() : "Czat drużyny";
-                avatarUrl = c.getTeam() != null ? c.getTeam().getPhotoUrl() : null;
-            } else {
-                User other = c.getParticipants().stream()
-                        .filter(u -> !u.getId().equals(userId))
-                        .findFirst()
-                        .orElse(null);
-                name = other != null ? other.getName() : "Rozmowa prywatna";
-                avatarUrl = other != null ? other.getUrlOfPicture() : null;
-            }
-
-            long unread = messageRepository.countUnreadMessages(c.getId(), userId);
-
-            return new ConversationPreviewDto(
-                    c.getId(),
-                    name,
-                    avatarUrl,
-                    lastMessage,
-                    (int) unread
-            );
-        }).collect(Collectors.toList());
+    public List<ConversationPreviewDto> getUserConversationPreviews(Integer userId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PREVIEW_PAGE_SIZE));
+        return conversationRepository.findPreviewsByParticipantId(userId, pageable).stream()
+                .map(ConversationPreviewRowDto::toPreviewDto)
+                .toList();
     }
 
     @Transactional
@@ -222,91 +278,86 @@ public class ChatService {
 
     @Transactional
     public void addUserToEventChat(Integer eventId, Integer userId) {
-        var convOpt = conversationRepository.findByEventEventId(eventId);
-        if (convOpt.isEmpty()) return;
-
-        Conversation conv = convOpt.get();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!conv.getParticipants().contains(user)) {
-            conv.getParticipants().add(user);
-            conversationRepository.save(conv);
-        }
+        conversationRepository.findIdByEventId(eventId)
+                .ifPresent(conversationId -> addParticipant(conversationId, userId));
     }
 
     @Transactional
     public void removeUserFromEventChat(Integer eventId, Integer userId) {
-        var convOpt = conversationRepository.findByEventEventId(eventId);
-        if (convOpt.isEmpty()) return;
-
-        Conversation conv = convOpt.get();
-        conv.setParticipants(
-                conv.getParticipants().stream()
-                        .filter(u -> !u.getId().equals(userId))
-                        .collect(Collectors.toList())
-        );
-        conversationRepository.save(conv);
+        conversationRepository.findIdByEventId(eventId)
+                .ifPresent(conversationId -> removeParticipant(conversationId, userId));
     }
 
     @Transactional
     public void addUserToTeamChat(Integer teamId, Integer userId) {
-        var convOpt = conversationRepository.findByTeamId(teamId);
-        if (convOpt.isEmpty()) return;
+        conversationRepository.findIdByTeamId(teamId)
+                .ifPresent(conversationId -> addParticipant(conversationId, userId));
+    }
+
+    @Transactional
+    public void removeUserFromTeamChat(Integer teamId, Integer userId) {
+        conversationRepository.findIdByTeamId(teamId)
+                .ifPresent(conversationId -> removeParticipant(conversationId, userId));
+    }
 
-        Conversation conv = convOpt.get();
-        User user = userRepository.findById(userId)
+    // Single join-table row per change, the participants collection of large event chats is never loaded
+    private void addParticipant(Integer conversationId, Integer userId) {
+        ParticipantDto participant = userRepository.findParticipantById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        boolean already = conv.getParticipants().stream().anyMatch(u -> u.getId().equals(userId));
-        if (!already) {
-            conv.getParticipants().add(user);
-            conversationRepository.save(conv);
+        if (conversationRepository.addParticipant(conversationId, userId) > 0) {
+            eventPublisher.publishEvent(ChatMembershipChanged.added(conversationId, participant));
         }
     }
 
-    @Transactional
-    public void removeUserFromTeamChat(Integer teamId, Integer userId) {
-        var convOpt = conversationRepository.findByTeamId(teamId);
-        if (convOpt.isEmpty()) return;
-
-        Conversation conv = convOpt.get();
-        conv.getParticipants().removeIf(u -> u.getId().equals(userId));
-        conversationRepository.save(conv);
+    private void removeParticipant(Integer conversationId, Integer userId) {
+        if (conversationRepository.removeParticipant(conversationId, userId) > 0) {
+            eventPublisher.publishEvent(ChatMembershipChanged.removed(conversationId, userId));
+        }
     }
 
     @Transactional
-    public void markMessagesAsRead(Integer conversationId, Integer userId, Integer lastMessageId) {
-
-        List<Message> messages = messageRepository
-                .findUnreadMessages(conversationId, userId, lastMessageId);
-
-        User user = userRepository.findById(userId)
-                .orElseThrow();
+    public void markMessagesAsRead(Integer conversationId, Integer userId, Long lastSeq) {
+        if (lastSeq == null) {
+            return;
+        }
+        if (!membershipCache.isMember(conversationId, userId)) {
+            throw new SecurityException("User is not a member of this conversation");
+        }
+        // A seq past the newest one would mark messages that do not exist yet as read
+        long readSeq = Math.min(lastSeq, conversationRepository.findLastMessageSeq(conversationId));
 
-        for (Message m : messages) {
-            if (messageReadRepository.existsByMessageIdAndUserId(m.getId(), userId)) {
-                continue;
-            }
+        ConversationReadCursor cursor = readCursorRepository.lockByConversationIdAndUserId(conversationId, userId)
+                .orElseGet(() -> {
+                    createReadCursor(conversationId, userId);
+                    return readCursorRepository.lockByConversationIdAndUserId(conversationId, userId).orElseThrow();
+                });
 
-            messageReadRepository.save(
-                    MessageRead.builder()
-                            .message(m)
-                            .user(user)
-                            .readAt(LocalDateTime.now())
-                            .build()
-            );
+        if (readSeq <= cursor.getLastReadSeq()) {
+            return;
         }
 
+        long newlyRead = messageRepository.countInRange(conversationId, cursor.getLastReadSeq(), readSeq);
+        cursor.setLastReadSeq(readSeq);
+        cursor.setReadAt(LocalDateTime.now());
+        readCursorRepository.save(cursor);
+        eventPublisher.publishEvent(new ChatMessagesRead(userId, newlyRead));
     }
-    public long countTotalUnread(Integer userId) {
-        List<Conversation> convos = conversationRepository.findByParticipantId(userId);
 
-        long total = 0;
-        for (Conversation c : convos) {
-            total += messageRepository.countUnreadMessages(c.getId(), userId);
+    // Committed on its own, so two concurrent first reads cannot fail the caller on the unique constraint
+    private void createReadCursor(Integer conversationId, Integer userId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    readCursorRepository.insertIfAbsent(conversationId, userId, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // the other read created it first
         }
-        return total;
+    }
+
+    public long countTotalUnread(Integer userId) {
+        return chatUnreadService.getTotal(userId);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.joinmatch.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.joinmatch.backend.dto.Message.ChatUnreadCountDto;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.events.ChatMessageSaved;
+import com.joinmatch.backend.events.ChatMessagesRead;
+import com.joinmatch.backend.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ChatUnreadService {
+
+    private final MessageRepository messageRepository;
+    private final ChatMembershipCache membershipCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Cache<Integer, AtomicLong> totals;
+
+    public ChatUnreadService(MessageRepository messageRepository,
+                             ChatMembershipCache membershipCache,
+                             SimpMessagingTemplate messagingTemplate,
+                             @Value("${chat.unread-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${chat.unread-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.messageRepository = messageRepository;
+        this.membershipCache = membershipCache;
+        this.messagingTemplate = messagingTemplate;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public long getTotal(Integer userId) {
+        return totals.get(userId, id -> new AtomicLong(messageRepository.countTotalUnread(id))).get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSaved(ChatMessageSaved saved) {
+        for (Integer userId : membershipCache.get(saved.conversationId()).members().keySet()) {
+            AtomicLong total = totals.getIfPresent(userId);
+            if (total != null) {
+                push(userId, total.incrementAndGet());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessagesRead(ChatMessagesRead read) {
+        AtomicLong total = totals.getIfPresent(read.userId());
+        if (total != null) {
+            push(read.userId(), total.updateAndGet(value -> Math.max(0, value - read.count())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(ChatMembershipChanged changed) {
+        totals.invalidate(changed.userId());
+    }
+
+    private void push(Integer userId, long total) {
+        messagingTemplate.convertAndSendToUser(
+                userId.toString(),
+                "/queue/chat-unread",
+                new ChatUnreadCountDto(total)
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.config.CacheConfig;
+import com.joinmatch.backend.events.EventDetailsChanged;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class EventDetailsCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventDetailsChanged(EventDetailsChanged changed) {
+        Cache cache = cacheManager.getCache(CacheConfig.EVENT_DETAILS_CACHE);
+        if (cache != null) {
+            cache.evict(changed.eventId());
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.joinmatch.backend.service;
 
+import com.joinmatch.backend.config.CacheConfig;
 import com.joinmatch.backend.config.TokenExtractor;
 import com.joinmatch.backend.dto.Event.EventDetailsResponseDto;
+import com.joinmatch.backend.dto.Event.EventFeedDto;
 import com.joinmatch.backend.dto.Event.EventRequestDto;
 import com.joinmatch.backend.dto.Event.EventResponseDto;
 import com.joinmatch.backend.dto.EventTeam.EventTeamResponseDto;
+import com.joinmatch.backend.dto.EventTeam.EventTeamSummaryDto;
 import com.joinmatch.backend.dto.Reports.EventReportDto;
 import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.events.EventDetailsChanged;
 import com.joinmatch.backend.model.Event;
 import com.joinmatch.backend.repository.EventRepository;
 import com.joinmatch.backend.specification.EventSpecificationBuilder;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.transaction.annotation.Transactional;
 import com.joinmatch.backend.model.*;
@@ -21,8 +27,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.data.jpa.domain.Specification;
 import software.amazon.awssdk.services.s3.endpoints.internal.Value;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -43,7 +51,11 @@ public class EventService {
     private final NotificationService notificationService;
     private final EventTeamRepository eventTeamRepository;
     private final TeamRepository teamRepository;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    private static final String CURSOR_SEPARATOR = "_";
+    private static final int MAX_FEED_PAGE_SIZE = 100;
 
     private void refundParticipants(Event event) {
         event.getUserEvents().forEach(ue -> {
@@ -75,12 +87,13 @@ public class EventService {
             LocalDate dateFrom,
             LocalDate dateTo,
             Boolean free,
-            Boolean available
+            Boolean available,
+            String search
     ) {
-        Sort sort = Sort.by(new Sort.Order(
-                Sort.Direction.fromString(direction),
-                sortBy
-        ).ignoreCase());
+        boolean searching = search != null && !search.isBlank();
+        Sort sort = searching
+                ? Sort.unsorted()
+                : Sort.by(new Sort.Order(Sort.Direction.fromString(direction), sortBy).ignoreCase());
 
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
 
@@ -91,67 +104,105 @@ public class EventService {
                 dateFrom,
                 dateTo,
                 free,
-                available
+                available,
+                search
         );
 
         Page<Event> events = eventRepository.findAll(spec, sortedPageable);
+        return events.map(event -> EventResponseDto.fromEvent(event, false));
+    }
 
-        List<Event> filtered = events.getContent().stream()
-                .filter(event -> event.getReportEvents()
-                        .stream()
-                        .noneMatch(reportEvent -> Boolean.TRUE.equals(reportEvent.getActive())))
-                .toList();
+    public EventFeedDto getFeed(
+            String cursor,
+            int size,
+            String direction,
+            String name,
+            Integer sportTypeId,
+            String city,
+            LocalDate dateFrom,
+            LocalDate dateTo,
+            Boolean free,
+            Boolean available
+    ) {
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        Sort sort = Sort.by(sortDirection, "eventDate").and(Sort.by(sortDirection, "eventId"));
 
-        long totalElements = events.getTotalElements();
-        
-        Page<Event> filteredPage = new PageImpl<>(
-                filtered,
-                sortedPageable,
-                totalElements
+        Specification<Event> spec = EventSpecificationBuilder.build(
+                name,
+                sportTypeId,
+                city,
+                dateFrom,
+                dateTo,
+                free,
+                available
         );
 
-        return filteredPage.map(EventResponseDto::fromEvent);
+        EventCursor after = decodeCursor(cursor);
+        if (after != null) {
+            spec = spec.and(EventSpecificationBuilder.after(
+                    after.eventDate(),
+                    after.eventId(),
+                    sortDirection.isDescending()
+            ));
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        List<Event> events = eventRepository.findSlice(spec, sort, limit + 1);
+        boolean hasMore = events.size() > limit;
+        if (hasMore) {
+            events = events.subList(0, limit);
+        }
+
+        List<EventResponseDto> items = events.stream()
+                .map(event -> EventResponseDto.fromEvent(event, false))
+                .toList();
+
+        String nextCursor = hasMore ? encodeCursor(events.get(events.size() - 1)) : null;
+        return new EventFeedDto(items, nextCursor, hasMore);
+    }
+
+    private record EventCursor(LocalDateTime eventDate, Integer eventId) {
+    }
+
+    private String encodeCursor(Event last) {
+        String raw = last.getEventDate() + CURSOR_SEPARATOR + last.getEventId();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EventCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(CURSOR_SEPARATOR, 2);
+            return new EventCursor(LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENT_DETAILS_CACHE, key = "#id")
     public EventDetailsResponseDto getDetailsById(Integer id) {
-        Event e = eventRepository.findById(id)
+        Event e = eventRepository.findDetailsById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Event " + id + " not found"));
 
-        List<EventTeamResponseDto> teams = e.getEventTeams()
-                .stream()
-                .map(et -> {
-                    Team t = et.getTeam();
-                    return new EventTeamResponseDto(
-                            t.getId(),
-                            t.getName(),
-                            t.getCity(),
-                            t.getPhotoUrl(),
-                            t.getLeader().getId(),
-                            t.getLeader().getName()
-                    );
-                })
+        List<EventTeamSummaryDto> teamSummaries = eventTeamRepository.findSummariesByEventId(id);
+        List<EventTeamResponseDto> teams = teamSummaries.stream()
+                .map(EventTeamSummaryDto::toResponseDto)
                 .toList();
-        int individualCount = (e.getUserEvents() == null) ? 0 : e.getUserEvents().size();
-        int teamCount = (e.getEventTeams() == null) ? 0 :
-                e.getEventTeams().stream()
-                        .map(EventTeam::getTeam)
-                        .mapToInt(t ->
-                                (int) t.getUserTeams()
-                                        .stream()
-                                        .map(ut -> ut.getUser().getId())
-                                        .distinct()
-                                        .count()
-                        )
-
-                        .sum();
-        int bookedParticipants = individualCount + teamCount;
+        int teamCount = teamSummaries.stream()
+                .mapToInt(t -> t.memberCount().intValue())
+                .sum();
 
         return new EventDetailsResponseDto(
                 e.getEventId(),
                 e.getEventName(),
                 e.getNumberOfParticipants(),
-                e.getNumberOfParticipants(),// bookedParticipants
+                e.getBookedParticipants(),
                 teamCount,
                 e.isForTeam(),
 
@@ -308,6 +359,7 @@ public class EventService {
         }
         eventRatingRepository.deleteAll(ratings);
         eventRepository.delete(event);
+        eventPublisher.publishEvent(new EventDetailsChanged(idEvent));
     }
 
     @Transactional
@@ -337,6 +389,8 @@ public class EventService {
         }
 
         refundParticipants(event);
+        waitlistService.clear(eventId);
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
         notificationService.sendEventCanceledNotification(event);
     }
 
@@ -393,26 +447,9 @@ public class EventService {
             throw new IllegalStateException("Team already joined this event");
         }
 
-        int individualCount = (int) event.getUserEvents().stream()
-                .filter(ue -> ue.getAttendanceStatus().getId() == 1)
-                .count();
-
-        int teamCount = event.getEventTeams().stream()
-                .map(EventTeam::getTeam)
-                .mapToInt(t ->
-                        (int) t.getUserTeams()
-                                .stream()
-                                .map(ut -> ut.getUser().getId())
-                                .distinct()
-                                .count()
-                )
-                .sum();
-
-        int bookedParticipants = individualCount + teamCount;
-
         int teamSize = team.getUserTeams().size();
 
-        if (bookedParticipants + teamSize > event.getNumberOfParticipants()) {
+        if (eventRepository.reserveSpots(eventId, teamSize) == 0) {
             throw new IllegalStateException("Not enough free spots for this team");
         }
 
@@ -420,7 +457,9 @@ public class EventService {
         eventTeam.setEvent(event);
         eventTeam.setTeam(team);
         eventTeam.setJoinedAt(LocalDateTime.now());
+        eventTeam.setReservedSpots(teamSize);
         eventTeamRepository.save(eventTeam);
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
     }
     @Transactional
     public void leaveEventAsTeam(
@@ -456,7 +495,10 @@ public class EventService {
                 .findByEvent_EventIdAndTeam_Id(eventId, teamId).orElseThrow(() -> new IllegalStateException("Team is not part of this event"));
 
         // ✅ wypisanie
+        eventRepository.releaseSpots(eventId, eventTeam.getReservedSpots());
         eventTeamRepository.delete(eventTeam);
+        waitlistService.promote(eventId, eventTeam.getReservedSpots());
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
     }
 
 }
@@ -0,0 +1,35 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.model.Message;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MessageIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private long next;
+    private long end;
+
+    public MessageIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(Message.ID_SEQUENCE);
+    }
+
+    // Same pooled-lo blocks as Hibernate's generator for Message, so both paths draw disjoint ranges
+    public synchronized int next() {
+        if (next >= end) {
+            Long low = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            next = low;
+            end = low + Message.ID_ALLOCATION_SIZE;
+        }
+        return (int) next++;
+    }
+}
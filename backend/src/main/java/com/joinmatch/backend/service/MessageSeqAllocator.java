@@ -0,0 +1,69 @@
+package com.joinmatch.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.joinmatch.backend.repository.ConversationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Component
+public class MessageSeqAllocator {
+
+    private final ConversationRepository conversationRepository;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+    private final Cache<Integer, SeqBlock> blocks;
+
+    private static final class SeqBlock {
+        private long next;
+        private long end;
+    }
+
+    public MessageSeqAllocator(ConversationRepository conversationRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${chat.write-behind.seq-block-size:50}") int blockSize,
+                               @Value("${chat.write-behind.seq-block-idle:PT10M}") Duration blockIdle) {
+        this.conversationRepository = conversationRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.blocks = Caffeine.newBuilder()
+                .expireAfterAccess(blockIdle)
+                .build();
+    }
+
+    // Runs in the transaction that inserts the message, the counter row stays locked until that commit,
+    // so seqs handed out here are gap-free and in commit order
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long next(Integer conversationId) {
+        return reserve(conversationId, 1);
+    }
+
+    // Write-behind path: a block is reserved up front per conversation like message ids, so queueing a message
+    // does not wait on the conversation row. Seqs stay unique and increasing, an unused block tail leaves a gap.
+    public long nextReserved(Integer conversationId) {
+        SeqBlock block = blocks.get(conversationId, id -> new SeqBlock());
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long last = requiresNew.execute(status -> reserve(conversationId, blockSize));
+                block.next = last - blockSize + 1;
+                block.end = last + 1;
+            }
+            return block.next++;
+        }
+    }
+
+    private long reserve(Integer conversationId, int count) {
+        if (conversationRepository.incrementLastMessageSeq(conversationId, count) == 0) {
+            throw new EntityNotFoundException("Conversation " + conversationId + " not found");
+        }
+        return conversationRepository.findLastMessageSeq(conversationId);
+    }
+}
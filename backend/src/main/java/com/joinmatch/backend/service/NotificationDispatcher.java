@@ -0,0 +1,313 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.dto.Notification.NotificationResponseDto;
+import com.joinmatch.backend.events.NotificationsCreated;
+import com.joinmatch.backend.model.Notification;
+import com.joinmatch.backend.model.NotificationOutbox;
+import com.joinmatch.backend.repository.NotificationOutboxRepository;
+import com.joinmatch.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    public static final String DESTINATION = "/queue/notifications";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (notification_id, user_id, attempts, created_at, available_at) VALUES (?, ?, 0, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM notification_outbox WHERE notification_id = ?";
+    private static final String CLAIM_SQL =
+            "UPDATE notification_outbox SET available_at = ? WHERE notification_id = ? AND available_at <= ?";
+    private static final String RETRY_SQL =
+            "UPDATE notification_outbox SET attempts = attempts + 1, available_at = ? WHERE notification_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final int sweepBatchSize;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter deferredCounter;
+    private final Counter droppedCounter;
+    private final Timer deliveryLag;
+
+    public record Delivery(
+            Integer notificationId,
+            Integer userId,
+            int attempts,
+            LocalDateTime createdAt,
+            NotificationResponseDto payload
+    ) {
+    }
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  NotificationOutboxRepository outboxRepository,
+                                  NotificationRepository notificationRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.outbox.workers:4}") int workers,
+                                  @Value("${notifications.outbox.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${notifications.outbox.max-attempts:5}") int maxAttempts,
+                                  @Value("${notifications.outbox.retry-delay:PT10S}") Duration retryDelay,
+                                  @Value("${notifications.outbox.sweep-batch-size:200}") int sweepBatchSize,
+                                  @Value("${notifications.outbox.chunk-size:100}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.messagingTemplate = messagingTemplate;
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.sweepBatchSize = sweepBatchSize;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-dispatcher-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.deliveredCounter = meterRegistry.counter("notifications.outbox.delivered");
+        this.failedCounter = meterRegistry.counter("notifications.outbox.failed");
+        this.deferredCounter = meterRegistry.counter("notifications.outbox.deferred");
+        this.droppedCounter = meterRegistry.counter("notifications.outbox.dropped");
+        this.deliveryLag = meterRegistry.timer("notifications.outbox.lag");
+        Gauge.builder("notifications.outbox.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    public void enqueue(Notification notification) {
+        enqueueAll(List.of(notification));
+    }
+
+    // Outbox rows of one transaction go out as a single batch right before commit and are pushed only after it
+    public void enqueueAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new NotificationsCreated(
+                notifications.stream().map(notification -> notification.getUser().getId()).toList()));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Delivery> deliveries = notifications.stream().map(this::toDelivery).toList();
+            insert(deliveries);
+            submit(deliveries);
+            return;
+        }
+
+        OutboxSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(OutboxSynchronization.class::isInstance)
+                .map(OutboxSynchronization.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    OutboxSynchronization created = new OutboxSynchronization();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        synchronization.notifications.addAll(notifications);
+    }
+
+    // Picks up deliveries that failed, were rejected by a full pool or were lost with a restarted node
+    @Scheduled(fixedDelayString = "${notifications.outbox.sweep-interval:PT30S}")
+    public int sweep() {
+        List<Delivery> due = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutbox> rows = outboxRepository.findDue(now, PageRequest.of(0, sweepBatchSize));
+            if (rows.isEmpty()) {
+                return List.<Delivery>of();
+            }
+
+            // A row is leased only while it is still due, a node sweeping at the same time
+            // waits for this commit and then finds the row leased into the future
+            LocalDateTime leaseUntil = now.plus(retryDelay);
+            int[] claims = jdbcTemplate.batchUpdate(CLAIM_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+                ps.setInt(2, row.getNotificationId());
+                ps.setTimestamp(3, Timestamp.valueOf(now));
+            })[0];
+            List<NotificationOutbox> claimed = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (claims[i] > 0) {
+                    claimed.add(rows.get(i));
+                }
+            }
+
+            Map<Integer, Notification> notifications = notificationRepository
+                    .findAllById(claimed.stream().map(NotificationOutbox::getNotificationId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Notification::getId, Function.identity()));
+
+            List<Delivery> deliveries = new ArrayList<>();
+            for (NotificationOutbox row : claimed) {
+                Notification notification = notifications.get(row.getNotificationId());
+                if (notification == null) {
+                    jdbcTemplate.update(DELETE_SQL, row.getNotificationId());
+                    continue;
+                }
+                deliveries.add(new Delivery(row.getNotificationId(), row.getUserId(), row.getAttempts(),
+                        row.getCreatedAt(), NotificationResponseDto.fromNotification(notification)));
+            }
+            return deliveries;
+        });
+
+        if (due != null && !due.isEmpty()) {
+            submit(due);
+        }
+        return due == null ? 0 : due.size();
+    }
+
+    public int pendingCount() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    private Delivery toDelivery(Notification notification) {
+        return new Delivery(notification.getId(), notification.getUser().getId(), 0,
+                LocalDateTime.now(), NotificationResponseDto.fromNotification(notification));
+    }
+
+    private void insert(List<Delivery> deliveries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, deliveries, deliveries.size(), (ps, delivery) -> {
+            ps.setInt(1, delivery.notificationId());
+            ps.setInt(2, delivery.userId());
+            ps.setTimestamp(3, Timestamp.valueOf(delivery.createdAt()));
+            ps.setTimestamp(4, Timestamp.valueOf(delivery.createdAt().plus(retryDelay)));
+        });
+    }
+
+    // Large fan-outs are split so several workers push them in parallel
+    private void submit(List<Delivery> deliveries) {
+        for (int from = 0; from < deliveries.size(); from += chunkSize) {
+            List<Delivery> chunk = deliveries.subList(from, Math.min(from + chunkSize, deliveries.size()));
+            try {
+                executor.execute(() -> deliver(chunk));
+            } catch (RejectedExecutionException e) {
+                // the rows are already committed, the sweep delivers them once the pool has room again
+                deferredCounter.increment(chunk.size());
+                log.warn("Notification dispatcher is saturated, deferring {} deliveries", chunk.size());
+            }
+        }
+    }
+
+    private void deliver(List<Delivery> deliveries) {
+        List<Delivery> delivered = new ArrayList<>(deliveries.size());
+        List<Delivery> failed = new ArrayList<>();
+
+        for (Delivery delivery : deliveries) {
+            try {
+                messagingTemplate.convertAndSendToUser(delivery.userId().toString(), DESTINATION, delivery.payload());
+                delivered.add(delivery);
+                deliveryLag.record(Duration.between(delivery.createdAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                failed.add(delivery);
+                log.warn("Pushing notification {} to user {} failed", delivery.notificationId(), delivery.userId(), e);
+            }
+        }
+
+        List<Delivery> retried = failed.stream().filter(d -> d.attempts() + 1 < maxAttempts).toList();
+        List<Delivery> dropped = failed.stream().filter(d -> d.attempts() + 1 >= maxAttempts).toList();
+        List<Delivery> finished = new ArrayList<>(delivered);
+        finished.addAll(dropped);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!finished.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, finished, finished.size(),
+                            (ps, delivery) -> ps.setInt(1, delivery.notificationId()));
+                }
+                if (!retried.isEmpty()) {
+                    LocalDateTime now = LocalDateTime.now();
+                    jdbcTemplate.batchUpdate(RETRY_SQL, retried, retried.size(), (ps, delivery) -> {
+                        ps.setTimestamp(1, Timestamp.valueOf(now.plus(retryDelay.multipliedBy(1L << delivery.attempts()))));
+                        ps.setInt(2, delivery.notificationId());
+                    });
+                }
+            });
+        } catch (DataAccessException e) {
+            // rows stay in the outbox and are pushed again once the lease runs out, the client drops the repeat by id
+            log.warn("Acknowledging {} notification deliveries failed", deliveries.size(), e);
+        }
+
+        deliveredCounter.increment(delivered.size());
+        failedCounter.increment(failed.size());
+        droppedCounter.increment(dropped.size());
+        if (!dropped.isEmpty()) {
+            log.error("Giving up on {} notification pushes after {} attempts", dropped.size(), maxAttempts);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private class OutboxSynchronization implements TransactionSynchronization {
+
+        private final List<Notification> notifications = new ArrayList<>();
+        private List<Delivery> deliveries = List.of();
+
+        // Notification rows are inserted at flush, the outbox references them and the payload needs createdAt
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            deliveries = notifications.stream().map(NotificationDispatcher.this::toDelivery).toList();
+            insert(deliveries);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                submit(deliveries);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.dto.Notification.ReactionDigestDto;
+import com.joinmatch.backend.enums.NotificationType;
+import com.joinmatch.backend.events.ReactionReceived;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class NotificationReactionAggregator {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final NotificationService notificationService;
+    private final long windowNanos;
+    private final int maxActors;
+    private final int batchSize;
+    private final Map<Target, Window> windows = new ConcurrentHashMap<>();
+    private final Counter receivedCounter;
+    private final Counter sentCounter;
+
+    private record Target(NotificationType type, Integer recipientId, Integer postId, Integer commentId) {
+    }
+
+    // Mutated only inside ConcurrentHashMap.compute/merge, read only after it has been removed from the map
+    private static final class Window {
+        private final long openedAt = System.nanoTime();
+        private final Set<Integer> actorIds = new HashSet<>();
+        private final LinkedHashMap<Integer, String> latestActors = new LinkedHashMap<>();
+        private Integer parentCommentId;
+        private Integer reactionTypeId;
+        private int attempts;
+    }
+
+    public NotificationReactionAggregator(NotificationService notificationService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${notifications.reactions.window:PT1M}") Duration window,
+                                          @Value("${notifications.reactions.max-actors:20}") int maxActors,
+                                          @Value("${notifications.reactions.batch-size:500}") int batchSize) {
+        this.notificationService = notificationService;
+        this.windowNanos = window.toNanos();
+        this.maxActors = maxActors;
+        this.batchSize = batchSize;
+        this.receivedCounter = meterRegistry.counter("notifications.reactions.received");
+        this.sentCounter = meterRegistry.counter("notifications.reactions.sent");
+        Gauge.builder("notifications.reactions.pending", windows, Map::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReactionReceived(ReactionReceived reaction) {
+        Target target = new Target(reaction.type(), reaction.recipientId(), reaction.postId(), reaction.commentId());
+        windows.compute(target, (key, window) -> {
+            if (window == null) {
+                window = new Window();
+            }
+            window.actorIds.add(reaction.actorId());
+            addLatestActor(window, reaction.actorId(), reaction.actorName());
+            window.parentCommentId = reaction.parentCommentId();
+            window.reactionTypeId = reaction.reactionTypeId();
+            return window;
+        });
+        receivedCounter.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.reactions.flush-interval:PT5S}")
+    public int flush() {
+        return flush(false);
+    }
+
+    @PreDestroy
+    public int flushAll() {
+        return flush(true);
+    }
+
+    public int pendingCount() {
+        return windows.size();
+    }
+
+    private int flush(boolean all) {
+        long now = System.nanoTime();
+        List<Map.Entry<Target, Window>> due = new ArrayList<>();
+        for (Map.Entry<Target, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            if ((all || now - window.openedAt >= windowNanos) && windows.remove(entry.getKey(), window)) {
+                due.add(Map.entry(entry.getKey(), window));
+            }
+        }
+
+        int sent = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Map.Entry<Target, Window>> chunk = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                notificationService.sendReactionDigests(chunk.stream()
+                        .map(entry -> toDigest(entry.getKey(), entry.getValue()))
+                        .toList());
+                sent += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Writing {} reaction notifications failed", chunk.size(), e);
+                chunk.forEach(entry -> requeue(entry.getKey(), entry.getValue()));
+            }
+        }
+        sentCounter.increment(sent);
+        return sent;
+    }
+
+    // The failed window goes back under its old open time, so the next flush retries it,
+    // and reactions that arrived in the meantime are folded in as the newer ones
+    private void requeue(Target target, Window failed) {
+        if (++failed.attempts >= MAX_ATTEMPTS) {
+            log.error("Dropping reaction notification for user {} after {} attempts", target.recipientId(), MAX_ATTEMPTS);
+            return;
+        }
+        windows.merge(target, failed, (newer, old) -> {
+            old.actorIds.addAll(newer.actorIds);
+            newer.latestActors.forEach((actorId, actorName) -> addLatestActor(old, actorId, actorName));
+            old.parentCommentId = newer.parentCommentId;
+            old.reactionTypeId = newer.reactionTypeId;
+            return old;
+        });
+    }
+
+    // Re-reacting moves the user to the front, only the newest few names are kept
+    private void addLatestActor(Window window, Integer actorId, String actorName) {
+        window.latestActors.remove(actorId);
+        window.latestActors.put(actorId, actorName);
+        if (window.latestActors.size() > maxActors) {
+            window.latestActors.remove(window.latestActors.keySet().iterator().next());
+        }
+    }
+
+    private ReactionDigestDto toDigest(Target target, Window window) {
+        List<Integer> actorIds = new ArrayList<>(window.latestActors.keySet());
+        List<String> actorNames = new ArrayList<>(window.latestActors.values());
+        Collections.reverse(actorIds);
+        Collections.reverse(actorNames);
+        return new ReactionDigestDto(
+                target.type(),
+                target.recipientId(),
+                target.postId(),
+                target.commentId(),
+                window.parentCommentId,
+                window.reactionTypeId,
+                window.actorIds.size(),
+                actorIds,
+                actorNames
+        );
+    }
+}
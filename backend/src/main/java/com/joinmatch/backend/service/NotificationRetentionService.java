@@ -0,0 +1,83 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    public static final String LOCK_NAME = "notification-retention";
+
+    private final NotificationRepository notificationRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration readRetention;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration pause;
+    private final Duration lease;
+
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+                                        SchedulerLockService schedulerLockService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${notifications.retention.read-retention:P90D}") Duration readRetention,
+                                        @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                        @Value("${notifications.retention.max-batches:100}") int maxBatches,
+                                        @Value("${notifications.retention.pause:PT0.1S}") Duration pause,
+                                        @Value("${notifications.retention.lease:PT1H}") Duration lease) {
+        this.notificationRepository = notificationRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readRetention = readRetention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pause = pause;
+        this.lease = lease;
+    }
+
+    // Every batch is its own short transaction, so row locks never pile up and other writers get in between.
+    // Only one node purges per run, the others skip it.
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public int purgeExpired() {
+        int[] deleted = {0};
+        schedulerLockService.runExclusively(LOCK_NAME, lease, () -> deleted[0] = purge());
+        return deleted[0];
+    }
+
+    private int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(readRetention);
+        int deleted = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer removed = transactionTemplate.execute(status -> {
+                List<Integer> ids = notificationRepository.findReadIdsBefore(cutoff, batchSize);
+                return ids.isEmpty() ? 0 : notificationRepository.deleteByIds(ids);
+            });
+            deleted += removed;
+            if (removed < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("Removed {} read notifications older than {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+}
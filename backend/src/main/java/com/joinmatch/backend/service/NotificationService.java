@@ -4,21 +4,34 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.joinmatch.backend.dto.Notification.*;
 import com.joinmatch.backend.enums.NotificationType;
+import com.joinmatch.backend.events.NotificationsRead;
+import com.joinmatch.backend.events.ReactionReceived;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.NotificationRepository;
+import com.joinmatch.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UserRepository userRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationUnreadService notificationUnreadService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
 
     @Transactional
@@ -42,13 +55,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
             
-            // Wyślij przez WebSocket
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    receiver.getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -75,13 +82,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
             
-            // Wyślij przez WebSocket
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    receiver.getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -108,13 +109,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
             
-            // Wyślij przez WebSocket
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    receiver.getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -127,19 +122,77 @@ public class NotificationService {
                 .toList();
     }
 
+    public NotificationFeedDto getFeed(Integer userId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        FeedCursor before = decodeCursor(cursor);
+
+        List<Notification> notifications = before == null
+                ? notificationRepository.findFirstPage(userId, limit + 1)
+                : notificationRepository.findPageBefore(userId, before.createdAt(), before.id(), limit + 1);
+
+        boolean hasMore = notifications.size() > limit;
+        if (hasMore) {
+            notifications = notifications.subList(0, limit);
+        }
+
+        List<NotificationResponseDto> items = notifications.stream()
+                .map(NotificationResponseDto::fromNotification)
+                .toList();
+
+        String nextCursor = hasMore ? encodeCursor(notifications.get(notifications.size() - 1)) : null;
+        return new NotificationFeedDto(items, nextCursor, hasMore);
+    }
+
+    private record FeedCursor(LocalDateTime createdAt, Integer id) {
+    }
+
+    private String encodeCursor(Notification last) {
+        String raw = last.getCreatedAt() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private FeedCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(CURSOR_SEPARATOR, 2);
+            return new FeedCursor(LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
     public Long getUnreadCount(Integer userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return notificationUnreadService.getUnreadCount(userId);
     }
 
     @Transactional
     public void markAsRead(Integer notificationId) {
         notificationRepository.findById(notificationId)
+                .filter(notification -> !notification.getIsRead())
                 .ifPresent(notification -> {
                     notification.setIsRead(true);
                     notificationRepository.save(notification);
+                    eventPublisher.publishEvent(new NotificationsRead(notification.getUser().getId(), 1));
                 });
     }
 
+    // Without upToId everything is marked, otherwise only notifications at or before that one in feed order
+    @Transactional
+    public int markAllAsRead(Integer userId, Integer upToId) {
+        int updated = upToId == null
+                ? notificationRepository.markAllAsRead(userId)
+                : notificationRepository.markAsReadUpTo(userId, upToId);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new NotificationsRead(userId, updated));
+        }
+        return updated;
+    }
+
     public void sendTeamRequestAcceptedNotification(TeamRequest teamRequest) {
         try {
             TeamRequestNotificationDataDto data = new TeamRequestNotificationDataDto(
@@ -160,13 +213,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
 
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-
-            messagingTemplate.convertAndSendToUser(
-                    teamRequest.getTeam().getLeader().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
@@ -191,13 +238,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
 
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-
-            messagingTemplate.convertAndSendToUser(
-                    userTeam.getTeam().getLeader().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -227,13 +268,7 @@ public class NotificationService {
 
             Notification savedNotification = notificationRepository.save(notification);
 
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-
-            messagingTemplate.convertAndSendToUser(
-                    userTeam.getUser().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -257,12 +292,7 @@ public class NotificationService {
                     .data(dataJson)
                     .build();
             Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    teamRequest.getReceiver().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
@@ -286,58 +316,36 @@ public class NotificationService {
                     .build();
 
             Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    teamRequest.getTeam().getLeader().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
     }
 
+    // The payload is the same for every member, so it is rendered once and the rows go out as one batch
     public void notifyTeamCancellation(Team team, String reason) {
-        team.getUserTeams().forEach(userTeam -> {
-            try {
-                var user = userTeam.getUser();
-                if(user == team.getLeader()) {
-                    return;
-                }
-
-                TeamCancelNotificationDto data = new TeamCancelNotificationDto(
-                        user.getId(),
-                        team.getId(),
-                        reason
-                );
-
-                String dataJson = objectMapper.writeValueAsString(data);
-                String message = "Drużyna " + team.getName() + " została rozwiązana";
-                if (reason != null && !reason.trim().isEmpty()) {
-                    message += ". Powód: " + reason;
-                }
-                
-                Notification notification = Notification.builder()
-                        .user(user)
-                        .type(NotificationType.TEAM_CANCELED)
-                        .title("Drużyna została rozwiązana")
-                        .message(message)
-                        .data(dataJson)
-                        .build();
-
-                Notification savedNotification = notificationRepository.save(notification);
-                NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-                messagingTemplate.convertAndSendToUser(
-                        user.getId().toString(),
-                        "/queue/notifications",
-                        responseDto
-                );
-
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Error serializing notification data", e);
+        try {
+            TeamCancelNotificationDto data = new TeamCancelNotificationDto(
+                    team.getLeader().getId(),
+                    team.getId(),
+                    reason
+            );
+
+            String dataJson = objectMapper.writeValueAsString(data);
+            String message = "Drużyna " + team.getName() + " została rozwiązana";
+            if (reason != null && !reason.trim().isEmpty()) {
+                message += ". Powód: " + reason;
             }
-        });
+
+            List<User> recipients = team.getUserTeams().stream()
+                    .map(UserTeam::getUser)
+                    .filter(user -> !user.getId().equals(team.getLeader().getId()))
+                    .toList();
+            broadcast(recipients, NotificationType.TEAM_CANCELED, "Drużyna została rozwiązana", message, dataJson);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing notification data", e);
+        }
     }
 
     public void sendCommentNotifications(TeamPostComment teamPostComment) {
@@ -356,75 +364,83 @@ public class NotificationService {
                     .data(dataJson)
                     .build();
             Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    teamPostComment.getPost().getAuthor().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
     }
 
+    // Reactions are coalesced per target by NotificationReactionAggregator and written by sendReactionDigests
     public void sendPostReactionNotification(TeamPostReaction reaction) {
-        try {
-            PostReactionNotificationDto data = new PostReactionNotificationDto(
-                    reaction.getUser().getId(),
-                    reaction.getPost().getPostId(),
-                    reaction.getReactionType().getId()
-            );
-            String dataJson = objectMapper.writeValueAsString(data);
-            Notification notification = Notification.builder()
-                    .user(reaction.getPost().getAuthor())
-                    .type(NotificationType.POST_REACTION)
-                    .title("Nowa reakcja do Twojego posta")
-                    .message(reaction.getUser().getName() + " zareagował na Twój post")
-                    .data(dataJson)
-                    .build();
-            Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    reaction.getPost().getAuthor().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
-
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error serializing notification data", e);
-        }
+        eventPublisher.publishEvent(new ReactionReceived(
+                NotificationType.POST_REACTION,
+                reaction.getPost().getAuthor().getId(),
+                reaction.getPost().getPostId(),
+                null,
+                null,
+                reaction.getUser().getId(),
+                reaction.getUser().getName(),
+                reaction.getReactionType() != null ? reaction.getReactionType().getId() : null
+        ));
     }
 
     public void sendCommentReactionNotification(TeamPostCommentReaction reaction) {
-        try {
-            CommentReactionNotificationDto data = new CommentReactionNotificationDto(
-                    reaction.getComment().getPost().getPostId(),
-                    reaction.getComment().getCommentId(),
-                    reaction.getComment().getParentComment() != null
-                            ? reaction.getComment().getParentComment().getCommentId()
-                            : null
-            );
-            String dataJson = objectMapper.writeValueAsString(data);
-            Notification notification = Notification.builder()
-                    .user(reaction.getComment().getAuthor())
-                    .type(NotificationType.COMMENT_REACTION)
-                    .title("Nowa reakcja do Twojego komentarza")
-                    .message(reaction.getUser().getName() + " zareagował na Twój komentarz")
-                    .data(dataJson)
-                    .build();
-            Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    reaction.getComment().getAuthor().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+        TeamPostComment comment = reaction.getComment();
+        eventPublisher.publishEvent(new ReactionReceived(
+                NotificationType.COMMENT_REACTION,
+                comment.getAuthor().getId(),
+                comment.getPost().getPostId(),
+                comment.getCommentId(),
+                comment.getParentComment() != null ? comment.getParentComment().getCommentId() : null,
+                reaction.getUser().getId(),
+                reaction.getUser().getName(),
+                reaction.getReactionType() != null ? reaction.getReactionType().getId() : null
+        ));
+    }
 
+    @Transactional
+    public void sendReactionDigests(List<ReactionDigestDto> digests) {
+        try {
+            List<Notification> notifications = new ArrayList<>(digests.size());
+            for (ReactionDigestDto digest : digests) {
+                boolean post = digest.type() == NotificationType.POST_REACTION;
+                Object data = post
+                        ? new PostReactionNotificationDto(
+                                digest.actorIds().get(0), digest.postId(), digest.reactionTypeId(),
+                                digest.actorIds(), digest.actorCount())
+                        : new CommentReactionNotificationDto(
+                                digest.postId(), digest.commentId(), digest.parentCommentId(),
+                                digest.actorIds(), digest.actorCount());
+                boolean many = digest.actorCount() > 1;
+
+                notifications.add(Notification.builder()
+                        .user(userRepository.getReferenceById(digest.recipientId()))
+                        .type(digest.type())
+                        .title((many ? "Nowe reakcje do Twojego " : "Nowa reakcja do Twojego ") + (post ? "posta" : "komentarza"))
+                        .message(describeActors(digest.actorNames(), digest.actorCount()) + " na Twój " + (post ? "post" : "komentarz"))
+                        .data(objectMapper.writeValueAsString(data))
+                        .build());
+            }
+            notificationDispatcher.enqueueAll(notificationRepository.insertAll(notifications));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
         }
     }
+
+    // "Ola zareagował", "Ola i Jan zareagowali", "Ola i 2 inne osoby zareagowały", "Ola i 14 innych osób zareagowało"
+    private String describeActors(List<String> names, int count) {
+        if (count == 1) {
+            return names.get(0) + " zareagował";
+        }
+        if (count == 2 && names.size() == 2) {
+            return names.get(0) + " i " + names.get(1) + " zareagowali";
+        }
+        int others = count - 1;
+        boolean few = others % 10 >= 2 && others % 10 <= 4 && (others % 100 < 12 || others % 100 > 14);
+        return names.get(0) + " i " + others + (few ? " inne osoby zareagowały" : " innych osób zareagowało");
+    }
+
     public void sendCommentReplyNotification(TeamPostComment reply) {
         try {
             if (reply.getParentComment() == null) {
@@ -445,12 +461,7 @@ public class NotificationService {
                     .data(dataJson)
                     .build();
             Notification savedNotification = notificationRepository.save(notification);
-            NotificationResponseDto responseDto = NotificationResponseDto.fromNotification(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    reply.getParentComment().getAuthor().getId().toString(),
-                    "/queue/notifications",
-                    responseDto
-            );
+            notificationDispatcher.enqueue(savedNotification);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error serializing notification data", e);
@@ -477,11 +488,7 @@ public class NotificationService {
                     .build();
 
             Notification saved = notificationRepository.save(notification);
-            messagingTemplate.convertAndSendToUser(
-                    receiver.getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
@@ -509,11 +516,7 @@ public class NotificationService {
 
             Notification saved = notificationRepository.save(notification);
 
-            messagingTemplate.convertAndSendToUser(
-                    event.getOwner().getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -539,11 +542,7 @@ public class NotificationService {
 
             Notification saved = notificationRepository.save(n);
 
-            messagingTemplate.convertAndSendToUser(
-                    user.getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
@@ -570,11 +569,7 @@ public class NotificationService {
 
             Notification saved = notificationRepository.save(n);
 
-            messagingTemplate.convertAndSendToUser(
-                    user.getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
 
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
@@ -602,11 +597,7 @@ public class NotificationService {
 
             Notification saved = notificationRepository.save(n);
 
-            messagingTemplate.convertAndSendToUser(
-                    event.getOwner().getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -632,11 +623,7 @@ public class NotificationService {
                     .build();
 
             Notification saved = notificationRepository.save(notification);
-            messagingTemplate.convertAndSendToUser(
-                    event.getOwner().getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -662,11 +649,7 @@ public class NotificationService {
                     .build();
 
             Notification saved = notificationRepository.save(notification);
-            messagingTemplate.convertAndSendToUser(
-                    event.getOwner().getId().toString(),
-                    "/queue/notifications",
-                    NotificationResponseDto.fromNotification(saved)
-            );
+            notificationDispatcher.enqueue(saved);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -674,39 +657,26 @@ public class NotificationService {
 
     @Transactional
     public void sendEventCanceledNotification(Event event) {
-        event.getUserEvents().forEach(ue -> {
-            User user = ue.getUser();
-
-            try {
-                EventNotificationDataDto data = new EventNotificationDataDto(
-                        event.getEventId(),
-                        event.getEventName(),
-                        event.getOwner().getId(),
-                        event.getOwner().getName()
-                );
+        try {
+            EventNotificationDataDto data = new EventNotificationDataDto(
+                    event.getEventId(),
+                    event.getEventName(),
+                    event.getOwner().getId(),
+                    event.getOwner().getName()
+            );
 
-                String json = objectMapper.writeValueAsString(data);
+            String json = objectMapper.writeValueAsString(data);
 
-                Notification n = Notification.builder()
-                        .user(user)
-                        .type(NotificationType.EVENT_CANCELED)
-                        .title("Wydarzenie odwołane")
-                        .message("Organizator odwołał wydarzenie: " + event.getEventName())
-                        .data(json)
-                        .build();
-
-                Notification saved = notificationRepository.save(n);
-
-                messagingTemplate.convertAndSendToUser(
-                        user.getId().toString(),
-                        "/queue/notifications",
-                        NotificationResponseDto.fromNotification(saved)
-                );
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+            List<User> recipients = event.getUserEvents().stream()
+                    .map(UserEvent::getUser)
+                    .toList();
+            broadcast(recipients, NotificationType.EVENT_CANCELED, "Wydarzenie odwołane",
+                    "Organizator odwołał wydarzenie: " + event.getEventName(), json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
     }
+
     @Transactional
     public void sendModeratorWarning(User receiver) {
 
@@ -720,13 +690,20 @@ public class NotificationService {
 
         Notification saved = notificationRepository.save(notification);
 
-        messagingTemplate.convertAndSendToUser(
-                receiver.getId().toString(),
-                "/queue/notifications",
-                NotificationResponseDto.fromNotification(saved)
-        );
+        notificationDispatcher.enqueue(saved);
     }
 
+    private void broadcast(List<User> recipients, NotificationType type, String title, String message, String dataJson) {
+        List<Notification> notifications = recipients.stream()
+                .map(user -> Notification.builder()
+                        .user(user)
+                        .type(type)
+                        .title(title)
+                        .message(message)
+                        .data(dataJson)
+                        .build())
+                .toList();
 
-
+        notificationDispatcher.enqueueAll(notificationRepository.insertAll(notifications));
+    }
 }
@@ -0,0 +1,78 @@
+package com.joinmatch.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.joinmatch.backend.dto.Notification.NotificationUnreadCountDto;
+import com.joinmatch.backend.events.NotificationsCreated;
+import com.joinmatch.backend.events.NotificationsRead;
+import com.joinmatch.backend.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationUnreadService {
+
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatPresenceService presenceService;
+    private final Cache<Integer, AtomicLong> counts;
+
+    public NotificationUnreadService(NotificationRepository notificationRepository,
+                                     SimpMessagingTemplate messagingTemplate,
+                                     ChatPresenceService presenceService,
+                                     @Value("${notifications.unread-cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${notifications.unread-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.presenceService = presenceService;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public long getUnreadCount(Integer userId) {
+        return counts.get(userId, id -> new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(id))).get();
+    }
+
+    // Cached badges are bumped in memory. A connected user whose entry expired gets the exact count reloaded,
+    // since the client takes the badge only from these pushes; offline users load it on their next visit.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreated created) {
+        Map<Integer, Long> perUser = created.userIds().stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        perUser.forEach((userId, added) -> {
+            AtomicLong count = counts.getIfPresent(userId);
+            if (count != null) {
+                push(userId, count.addAndGet(added));
+            } else if (presenceService.isOnline(userId)) {
+                push(userId, getUnreadCount(userId));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsRead(NotificationsRead read) {
+        AtomicLong count = counts.getIfPresent(read.userId());
+        if (count != null) {
+            push(read.userId(), count.updateAndGet(value -> Math.max(0, value - read.count())));
+        }
+    }
+
+    private void push(Integer userId, long unreadCount) {
+        messagingTemplate.convertAndSendToUser(
+                userId.toString(),
+                NotificationDispatcher.DESTINATION,
+                new NotificationUnreadCountDto(unreadCount)
+        );
+    }
+}
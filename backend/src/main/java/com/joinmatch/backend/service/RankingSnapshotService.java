@@ -0,0 +1,180 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.enums.RankingType;
+import com.joinmatch.backend.model.RankingSnapshot;
+import com.joinmatch.backend.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RankingSnapshotService {
+
+    private static final List<RankingType> GLOBAL_RANKINGS = List.of(
+            RankingType.USER_RATING, RankingType.USER_ACTIVITY,
+            RankingType.ORGANIZER_RATING, RankingType.ORGANIZER_ACTIVITY,
+            RankingType.BADGES, RankingType.TEAM_MEMBERS,
+            RankingType.EVENT_RATING, RankingType.EVENT_POPULARITY
+    );
+
+    private final RankingSnapshotRepository rankingSnapshotRepository;
+    private final UserRatingRepository userRatingRepository;
+    private final UserEventRepository userEventRepository;
+    private final OrganizerRatingRepository organizerRatingRepository;
+    private final EventRepository eventRepository;
+    private final TeamRepository teamRepository;
+    private final UserBadgeRepository userBadgeRepository;
+    private final SportObjectRepository sportObjectRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String LOCK_NAME = "ranking-snapshot-refresh";
+
+    @Value("${rankings.snapshot-size:500}")
+    private int snapshotSize;
+
+    @Value("${rankings.refresh-lease:PT10M}")
+    private Duration refreshLease;
+
+    @Scheduled(fixedDelayString = "${rankings.refresh-interval:PT5M}")
+    public void refresh() {
+        schedulerLockService.runExclusively(LOCK_NAME, refreshLease,
+                () -> transactionTemplate.executeWithoutResult(status -> rebuild()));
+    }
+
+    // The snapshot keeps only the top snapshotSize rows of each ranking, reads that may reach past them go live.
+    // No stored rows means the ranking was not built yet (first start, a city added since the last refresh),
+    // so that is not taken as an empty ranking either.
+    public List<RankingSnapshot> find(RankingType type, String city, int minCount, int limit) {
+        List<RankingSnapshot> rows = city == null
+                ? rankingSnapshotRepository.findGlobalRanking(type, minCount, limit)
+                : rankingSnapshotRepository.findLocalRanking(type, city, minCount, limit);
+        if (rows.size() >= limit) {
+            return rows;
+        }
+
+        long stored = city == null
+                ? rankingSnapshotRepository.countByRankingTypeAndCityIsNull(type)
+                : rankingSnapshotRepository.countByRankingTypeAndCity(type, city.toLowerCase());
+        return stored > 0 && stored < snapshotSize ? rows : compute(type, city, minCount, limit, LocalDateTime.now());
+    }
+
+    // A full rebuild rather than an incremental one: every ranking is an aggregate (averages, counts) over all
+    // ratings and participations, and one new rating can reorder a whole list, so keeping rows current would
+    // mean tracking changes across all of those tables. The snapshot is bounded by snapshotSize per ranking,
+    // is written as batched inserts in one transaction, and readers keep seeing the previous rows until commit.
+    private void rebuild() {
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        List<RankingSnapshot> rows = new ArrayList<>();
+
+        for (RankingType type : GLOBAL_RANKINGS) {
+            rows.addAll(compute(type, null, 0, snapshotSize, refreshedAt));
+        }
+        for (String city : sportObjectRepository.findDistinctCitiesFromEvents()) {
+            rows.addAll(compute(RankingType.USER_LOCAL_ACTIVITY, city, 0, snapshotSize, refreshedAt));
+            rows.addAll(compute(RankingType.ORGANIZER_LOCAL_ACTIVITY, city, 0, snapshotSize, refreshedAt));
+            rows.addAll(compute(RankingType.EVENT_LOCAL_RATING, city, 0, snapshotSize, refreshedAt));
+        }
+        for (String city : teamRepository.findDistinctCitiesFromTeams()) {
+            rows.addAll(compute(RankingType.TEAM_LOCAL_MEMBERS, city, 0, snapshotSize, refreshedAt));
+        }
+
+        rankingSnapshotRepository.deleteAllInBatch();
+        rankingSnapshotRepository.insertAll(rows);
+    }
+
+    private List<RankingSnapshot> compute(RankingType type, String city, int minCount, int limit, LocalDateTime refreshedAt) {
+        String key = city == null ? null : city.toLowerCase();
+        List<RankingSnapshot> rows = new ArrayList<>();
+        switch (type) {
+            case USER_RATING -> addUserRows(rows, type, key, userRatingRepository.findTopUsersByRating(limit, minCount), true, refreshedAt);
+            case USER_ACTIVITY -> addUserRows(rows, type, key, userEventRepository.findTopUsersByActivity(limit), false, refreshedAt);
+            case USER_LOCAL_ACTIVITY -> addUserRows(rows, type, key, userEventRepository.findTopUsersByLocalActivity(city, limit), false, refreshedAt);
+            case ORGANIZER_RATING -> addUserRows(rows, type, key, organizerRatingRepository.findTopOrganizersByRating(limit, minCount), true, refreshedAt);
+            case ORGANIZER_ACTIVITY -> addUserRows(rows, type, key, eventRepository.findTopOrganizersByActivity(limit), false, refreshedAt);
+            case ORGANIZER_LOCAL_ACTIVITY -> addUserRows(rows, type, key, eventRepository.findTopOrganizersByLocalActivity(city, limit), false, refreshedAt);
+            case BADGES -> addUserRows(rows, type, key, userBadgeRepository.findTopUsersByBadgeCount(limit), false, refreshedAt);
+            case TEAM_MEMBERS -> addTeamRows(rows, type, key, teamRepository.findTopTeamsByMemberCount(limit), refreshedAt);
+            case TEAM_LOCAL_MEMBERS -> addTeamRows(rows, type, key, teamRepository.findTopTeamsByLocalMemberCount(city, limit), refreshedAt);
+            case EVENT_RATING -> addEventRows(rows, type, key, eventRepository.findTopEventsByRating(limit, minCount), refreshedAt);
+            case EVENT_POPULARITY -> addEventRows(rows, type, key, eventRepository.findTopEventsByPopularity(limit), refreshedAt);
+            case EVENT_LOCAL_RATING -> addEventRows(rows, type, key, eventRepository.findTopEventsByLocalRating(city, limit, minCount), refreshedAt);
+        }
+        return rows;
+    }
+
+    private RankingSnapshot newRow(RankingType type, String city, int rankOrder, LocalDateTime refreshedAt) {
+        RankingSnapshot row = new RankingSnapshot();
+        row.setRankingType(type);
+        row.setCity(city);
+        row.setRankOrder(rankOrder);
+        row.setRefreshedAt(refreshedAt);
+        return row;
+    }
+
+    private void addUserRows(List<RankingSnapshot> rows, RankingType type, String city,
+                             List<Object[]> results, boolean withRating, LocalDateTime refreshedAt) {
+        int rankOrder = 1;
+        for (Object[] result : results) {
+            RankingSnapshot row = newRow(type, city, rankOrder++, refreshedAt);
+            row.setSubjectId((Integer) result[0]);
+            row.setSubjectName((String) result[1]);
+            row.setSubjectEmail((String) result[2]);
+            row.setSubjectImageUrl((String) result[3]);
+            if (withRating) {
+                row.setAverageRating(((Number) result[4]).doubleValue());
+                row.setTotalCount(((Number) result[5]).intValue());
+            } else {
+                row.setTotalCount(((Number) result[4]).intValue());
+            }
+            rows.add(row);
+        }
+    }
+
+    private void addTeamRows(List<RankingSnapshot> rows, RankingType type, String city,
+                             List<Object[]> results, LocalDateTime refreshedAt) {
+        int rankOrder = 1;
+        for (Object[] result : results) {
+            RankingSnapshot row = newRow(type, city, rankOrder++, refreshedAt);
+            row.setSubjectId((Integer) result[0]);
+            row.setSubjectName((String) result[1]);
+            row.setSubjectCity((String) result[2]);
+            row.setSubjectImageUrl((String) result[3]);
+            row.setOwnerId((Integer) result[4]);
+            row.setOwnerName((String) result[5]);
+            row.setOwnerEmail((String) result[6]);
+            row.setOwnerAvatarUrl((String) result[7]);
+            row.setTotalCount(((Number) result[8]).intValue());
+            rows.add(row);
+        }
+    }
+
+    private void addEventRows(List<RankingSnapshot> rows, RankingType type, String city,
+                              List<Object[]> results, LocalDateTime refreshedAt) {
+        int rankOrder = 1;
+        for (Object[] result : results) {
+            RankingSnapshot row = newRow(type, city, rankOrder++, refreshedAt);
+            row.setSubjectId((Integer) result[0]);
+            row.setSubjectName((String) result[1]);
+            row.setSubjectImageUrl((String) result[2]);
+            row.setSubjectCity((String) result[3]);
+            row.setSportTypeName((String) result[4]);
+            row.setOwnerId((Integer) result[5]);
+            row.setOwnerName((String) result[6]);
+            row.setOwnerEmail((String) result[7]);
+            row.setOwnerAvatarUrl((String) result[8]);
+            row.setAverageRating(((Number) result[9]).doubleValue());
+            row.setTotalCount(((Number) result[10]).intValue());
+            row.setParticipantCount(((Number) result[11]).intValue());
+            rows.add(row);
+        }
+    }
+}
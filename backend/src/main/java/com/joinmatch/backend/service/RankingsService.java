@@ -4,16 +4,15 @@ import com.joinmatch.backend.dto.Rankings.UserRankingResponseDto;
 import com.joinmatch.backend.dto.Rankings.TeamRankingResponseDto;
 import com.joinmatch.backend.dto.Rankings.EventRankingResponseDto;
 import com.joinmatch.backend.dto.Rankings.BadgeRankingResponseDto;
-import com.joinmatch.backend.repository.UserRatingRepository;
-import com.joinmatch.backend.repository.UserEventRepository;
+import com.joinmatch.backend.enums.RankingType;
+import com.joinmatch.backend.model.RankingSnapshot;
+import com.joinmatch.backend.repository.RankingSnapshotRepository;
 import com.joinmatch.backend.repository.SportObjectRepository;
-import com.joinmatch.backend.repository.OrganizerRatingRepository;
-import com.joinmatch.backend.repository.EventRepository;
 import com.joinmatch.backend.repository.TeamRepository;
-import com.joinmatch.backend.repository.UserBadgeRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,57 +20,21 @@ import java.util.List;
 @AllArgsConstructor
 public class RankingsService {
 
-    private final UserRatingRepository userRatingRepository;
-    private final UserEventRepository userEventRepository;
+    private final RankingSnapshotRepository rankingSnapshotRepository;
+    private final RankingSnapshotService rankingSnapshotService;
     private final SportObjectRepository sportObjectRepository;
-    private final OrganizerRatingRepository organizerRatingRepository;
-    private final EventRepository eventRepository;
     private final TeamRepository teamRepository;
-    private final UserBadgeRepository userBadgeRepository;
 
-    public List<UserRankingResponseDto> getGeneralUserRanking(Integer limit, Integer minRatings) {
-        List<Object[]> results = userRatingRepository.findTopUsersByRating(limit, minRatings);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            Double avgRating = ((Number) row[4]).doubleValue();
-            long totalRatings = ((Number) row[5]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    avgRating, (int) totalRatings, position++
-            ));
-        }
+    public LocalDateTime getLastRefreshedAt() {
+        return rankingSnapshotRepository.findLastRefreshedAt();
+    }
 
-        return ranking;
+    public List<UserRankingResponseDto> getGeneralUserRanking(Integer limit, Integer minRatings) {
+        return toUserRanking(rankingSnapshotService.find(RankingType.USER_RATING, null, minRatings, limit), true);
     }
 
     public List<UserRankingResponseDto> getActivityUserRanking(Integer limit) {
-        List<Object[]> results = userEventRepository.findTopUsersByActivity(limit);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            long eventCount = ((Number) row[4]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    null, (int) eventCount, position++
-            ));
-        }
-
-        return ranking;
+        return toUserRanking(rankingSnapshotService.find(RankingType.USER_ACTIVITY, null, 0, limit), false);
     }
 
     public List<String> getAvailableCities() {
@@ -79,146 +42,27 @@ public class RankingsService {
     }
 
     public List<UserRankingResponseDto> getLocalUserRanking(String city, Integer limit) {
-        List<Object[]> results = userEventRepository.findTopUsersByLocalActivity(city, limit);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            long eventCount = ((Number) row[4]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    null, (int) eventCount, position++
-            ));
-        }
-
-        return ranking;
+        return toUserRanking(rankingSnapshotService.find(RankingType.USER_LOCAL_ACTIVITY, city, 0, limit), false);
     }
 
     public List<UserRankingResponseDto> getGeneralOrganizerRanking(Integer limit, Integer minRatings) {
-        List<Object[]> results = organizerRatingRepository.findTopOrganizersByRating(limit, minRatings);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            Double avgRating = ((Number) row[4]).doubleValue();
-            long totalRatings = ((Number) row[5]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    avgRating, (int) totalRatings, position++
-            ));
-        }
-
-        return ranking;
+        return toUserRanking(rankingSnapshotService.find(RankingType.ORGANIZER_RATING, null, minRatings, limit), true);
     }
 
     public List<UserRankingResponseDto> getActivityOrganizerRanking(Integer limit) {
-        List<Object[]> results = eventRepository.findTopOrganizersByActivity(limit);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            long eventCount = ((Number) row[4]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    null, (int) eventCount, position++
-            ));
-        }
-
-        return ranking;
+        return toUserRanking(rankingSnapshotService.find(RankingType.ORGANIZER_ACTIVITY, null, 0, limit), false);
     }
 
     public List<UserRankingResponseDto> getLocalOrganizerRanking(String city, Integer limit) {
-        List<Object[]> results = eventRepository.findTopOrganizersByLocalActivity(city, limit);
-
-        List<UserRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            long eventCount = ((Number) row[4]).longValue();
-
-            ranking.add(new UserRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    null, (int) eventCount, position++
-            ));
-        }
-
-        return ranking;
+        return toUserRanking(rankingSnapshotService.find(RankingType.ORGANIZER_LOCAL_ACTIVITY, city, 0, limit), false);
     }
 
     public List<TeamRankingResponseDto> getGeneralTeamRanking(Integer limit) {
-        List<Object[]> results = teamRepository.findTopTeamsByMemberCount(limit);
-
-        List<TeamRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer teamId = (Integer) row[0];
-            String teamName = (String) row[1];
-            String teamCity = (String) row[2];
-            String teamPhotoUrl = (String) row[3];
-            Integer leaderId = (Integer) row[4];
-            String leaderName = (String) row[5];
-            String leaderEmail = (String) row[6];
-            String leaderAvatarUrl = (String) row[7];
-            long memberCount = ((Number) row[8]).longValue();
-
-            ranking.add(new TeamRankingResponseDto(
-                    teamId, teamName, teamCity, teamPhotoUrl,
-                    leaderId, leaderName, leaderEmail, leaderAvatarUrl,
-                    (int) memberCount, position++
-            ));
-        }
-
-        return ranking;
+        return toTeamRanking(rankingSnapshotService.find(RankingType.TEAM_MEMBERS, null, 0, limit));
     }
 
     public List<TeamRankingResponseDto> getLocalTeamRanking(String city, Integer limit) {
-        List<Object[]> results = teamRepository.findTopTeamsByLocalMemberCount(city, limit);
-
-        List<TeamRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
-
-        for (Object[] row : results) {
-            Integer teamId = (Integer) row[0];
-            String teamName = (String) row[1];
-            String teamCity = (String) row[2];
-            String teamPhotoUrl = (String) row[3];
-            Integer leaderId = (Integer) row[4];
-            String leaderName = (String) row[5];
-            String leaderEmail = (String) row[6];
-            String leaderAvatarUrl = (String) row[7];
-            long memberCount = ((Number) row[8]).longValue();
-
-            ranking.add(new TeamRankingResponseDto(
-                    teamId, teamName, teamCity, teamPhotoUrl,
-                    leaderId, leaderName, leaderEmail, leaderAvatarUrl,
-                    (int) memberCount, position++
-            ));
-        }
-
-        return ranking;
+        return toTeamRanking(rankingSnapshotService.find(RankingType.TEAM_LOCAL_MEMBERS, city, 0, limit));
     }
 
     public List<String> getAvailableTeamCities() {
@@ -226,111 +70,69 @@ public class RankingsService {
     }
 
     public List<EventRankingResponseDto> getRatingEventRanking(Integer limit, Integer minRatings) {
-        List<Object[]> results = eventRepository.findTopEventsByRating(limit, minRatings);
+        return toEventRanking(rankingSnapshotService.find(RankingType.EVENT_RATING, null, minRatings, limit));
+    }
 
-        List<EventRankingResponseDto> ranking = new ArrayList<>();
-        int position = 1;
+    public List<EventRankingResponseDto> getPopularityEventRanking(Integer limit) {
+        return toEventRanking(rankingSnapshotService.find(RankingType.EVENT_POPULARITY, null, 0, limit));
+    }
 
-        for (Object[] row : results) {
-            Integer eventId = (Integer) row[0];
-            String eventName = (String) row[1];
-            String eventImageUrl = (String) row[2];
-            String eventCity = (String) row[3];
-            String sportTypeName = (String) row[4];
-            Integer ownerId = (Integer) row[5];
-            String ownerName = (String) row[6];
-            String ownerEmail = (String) row[7];
-            String ownerAvatarUrl = (String) row[8];
-            Double avgRating = ((Number) row[9]).doubleValue();
-            long totalRatings = ((Number) row[10]).longValue();
-            long participantCount = ((Number) row[11]).longValue();
+    public List<EventRankingResponseDto> getLocalEventRanking(String city, Integer limit, Integer minRatings) {
+        return toEventRanking(rankingSnapshotService.find(RankingType.EVENT_LOCAL_RATING, city, minRatings, limit));
+    }
 
-            ranking.add(new EventRankingResponseDto(
-                    eventId, eventName, eventImageUrl, eventCity, sportTypeName,
-                    ownerId, ownerName, ownerEmail, ownerAvatarUrl,
-                    avgRating, (int) totalRatings, (int) participantCount, position++
+    public List<BadgeRankingResponseDto> getGeneralBadgeRanking(Integer limit) {
+        List<BadgeRankingResponseDto> ranking = new ArrayList<>();
+        int position = 1;
+
+        for (RankingSnapshot row : rankingSnapshotService.find(RankingType.BADGES, null, 0, limit)) {
+            ranking.add(new BadgeRankingResponseDto(
+                    row.getSubjectId(), row.getSubjectName(), row.getSubjectEmail(), row.getSubjectImageUrl(),
+                    row.getTotalCount(), position++
             ));
         }
 
         return ranking;
     }
 
-    public List<EventRankingResponseDto> getPopularityEventRanking(Integer limit) {
-        List<Object[]> results = eventRepository.findTopEventsByPopularity(limit);
-
-        List<EventRankingResponseDto> ranking = new ArrayList<>();
+    private List<UserRankingResponseDto> toUserRanking(List<RankingSnapshot> rows, boolean withRating) {
+        List<UserRankingResponseDto> ranking = new ArrayList<>();
         int position = 1;
 
-        for (Object[] row : results) {
-            Integer eventId = (Integer) row[0];
-            String eventName = (String) row[1];
-            String eventImageUrl = (String) row[2];
-            String eventCity = (String) row[3];
-            String sportTypeName = (String) row[4];
-            Integer ownerId = (Integer) row[5];
-            String ownerName = (String) row[6];
-            String ownerEmail = (String) row[7];
-            String ownerAvatarUrl = (String) row[8];
-            Double avgRating = ((Number) row[9]).doubleValue();
-            long totalRatings = ((Number) row[10]).longValue();
-            long participantCount = ((Number) row[11]).longValue();
-
-            ranking.add(new EventRankingResponseDto(
-                    eventId, eventName, eventImageUrl, eventCity, sportTypeName,
-                    ownerId, ownerName, ownerEmail, ownerAvatarUrl,
-                    avgRating, (int) totalRatings, (int) participantCount, position++
+        for (RankingSnapshot row : rows) {
+            ranking.add(new UserRankingResponseDto(
+                    row.getSubjectId(), row.getSubjectName(), row.getSubjectEmail(), row.getSubjectImageUrl(),
+                    withRating ? row.getAverageRating() : null, row.getTotalCount(), position++
             ));
         }
 
         return ranking;
     }
 
-    public List<EventRankingResponseDto> getLocalEventRanking(String city, Integer limit, Integer minRatings) {
-        List<Object[]> results = eventRepository.findTopEventsByLocalRating(city, limit, minRatings);
-
-        List<EventRankingResponseDto> ranking = new ArrayList<>();
+    private List<TeamRankingResponseDto> toTeamRanking(List<RankingSnapshot> rows) {
+        List<TeamRankingResponseDto> ranking = new ArrayList<>();
         int position = 1;
 
-        for (Object[] row : results) {
-            Integer eventId = (Integer) row[0];
-            String eventName = (String) row[1];
-            String eventImageUrl = (String) row[2];
-            String eventCity = (String) row[3];
-            String sportTypeName = (String) row[4];
-            Integer ownerId = (Integer) row[5];
-            String ownerName = (String) row[6];
-            String ownerEmail = (String) row[7];
-            String ownerAvatarUrl = (String) row[8];
-            Double avgRating = ((Number) row[9]).doubleValue();
-            long totalRatings = ((Number) row[10]).longValue();
-            long participantCount = ((Number) row[11]).longValue();
-
-            ranking.add(new EventRankingResponseDto(
-                    eventId, eventName, eventImageUrl, eventCity, sportTypeName,
-                    ownerId, ownerName, ownerEmail, ownerAvatarUrl,
-                    avgRating, (int) totalRatings, (int) participantCount, position++
+        for (RankingSnapshot row : rows) {
+            ranking.add(new TeamRankingResponseDto(
+                    row.getSubjectId(), row.getSubjectName(), row.getSubjectCity(), row.getSubjectImageUrl(),
+                    row.getOwnerId(), row.getOwnerName(), row.getOwnerEmail(), row.getOwnerAvatarUrl(),
+                    row.getTotalCount(), position++
             ));
         }
 
         return ranking;
     }
 
-    public List<BadgeRankingResponseDto> getGeneralBadgeRanking(Integer limit) {
-        List<Object[]> results = userBadgeRepository.findTopUsersByBadgeCount(limit);
-
-        List<BadgeRankingResponseDto> ranking = new ArrayList<>();
+    private List<EventRankingResponseDto> toEventRanking(List<RankingSnapshot> rows) {
+        List<EventRankingResponseDto> ranking = new ArrayList<>();
         int position = 1;
 
-        for (Object[] row : results) {
-            Integer userId = (Integer) row[0];
-            String name = (String) row[1];
-            String email = (String) row[2];
-            String avatarUrl = (String) row[3];
-            long badgeCount = ((Number) row[4]).longValue();
-
-            ranking.add(new BadgeRankingResponseDto(
-                    userId, name, email, avatarUrl,
-                    (int) badgeCount, position++
+        for (RankingSnapshot row : rows) {
+            ranking.add(new EventRankingResponseDto(
+                    row.getSubjectId(), row.getSubjectName(), row.getSubjectImageUrl(), row.getSubjectCity(), row.getSportTypeName(),
+                    row.getOwnerId(), row.getOwnerName(), row.getOwnerEmail(), row.getOwnerAvatarUrl(),
+                    row.getAverageRating(), row.getTotalCount(), row.getParticipantCount(), position++
             ));
         }
 
@@ -9,10 +9,12 @@ import com.joinmatch.backend.dto.Reports.EventRatingReportDto;
 import com.joinmatch.backend.dto.Reports.UserRatingReportDto;
 import com.joinmatch.backend.dto.UserRating.UserRatingRequestDto;
 import com.joinmatch.backend.dto.UserRating.UserRatingResponseDto;
+import com.joinmatch.backend.events.EventDetailsChanged;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +33,7 @@ public class RatingService {
     private final OrganizerRatingRepository organizerRatingRepository;
     private final ReportEventRatingRepository reportEventRatingRepository;
     private final ReportUserRatingRepository reportUserRatingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserRatingResponseDto addUserRating(UserRatingRequestDto request) {
@@ -112,6 +115,7 @@ public class RatingService {
                 .build();
 
         eventRatingRepository.save(rating);
+        eventPublisher.publishEvent(new EventDetailsChanged(event.getEventId()));
 
         return new EventRatingResponseDto(
                 rating.getEventRatingId(),
@@ -194,6 +198,7 @@ public class RatingService {
         existingRating.setComment(request.comment());
 
         eventRatingRepository.save(existingRating);
+        eventPublisher.publishEvent(new EventDetailsChanged(existingRating.getEvent().getEventId()));
 
         return new EventRatingResponseDto(
                 existingRating.getEventRatingId(),
@@ -214,6 +219,7 @@ public class RatingService {
         }
 
         eventRatingRepository.delete(rating);
+        eventPublisher.publishEvent(new EventDetailsChanged(rating.getEvent().getEventId()));
     }
     @Transactional
     public OrganizerRatingResponseDto addOrganizerRating(OrganizerRatingRequestDto request) {
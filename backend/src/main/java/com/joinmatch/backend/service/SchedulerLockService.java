@@ -0,0 +1,78 @@
+package com.joinmatch.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO scheduler_lock (name, locked_until, locked_by)
+            SELECT ?, ?, NULL
+            WHERE NOT EXISTS (SELECT 1 FROM scheduler_lock WHERE name = ?)
+            """;
+    private static final String ACQUIRE_SQL =
+            "UPDATE scheduler_lock SET locked_until = ?, locked_by = ? WHERE name = ? AND locked_until <= ?";
+    private static final String RELEASE_SQL =
+            "UPDATE scheduler_lock SET locked_until = ? WHERE name = ? AND locked_by = ?";
+    private static final Timestamp NEVER_LOCKED = Timestamp.valueOf("2000-01-01 00:00:00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    private final Set<String> knownLocks = ConcurrentHashMap.newKeySet();
+
+    public SchedulerLockService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Runs the job only if no other node holds the lease, a crashed holder's lease simply runs out
+    public boolean runExclusively(String name, Duration lease, Runnable job) {
+        if (!tryLock(name, lease)) {
+            log.debug("Skipping {}, another node holds the lock", name);
+            return false;
+        }
+        try {
+            job.run();
+        } finally {
+            unlock(name);
+        }
+        return true;
+    }
+
+    private boolean tryLock(String name, Duration lease) {
+        if (knownLocks.add(name)) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(INSERT_SQL, name, NEVER_LOCKED, name));
+            } catch (DuplicateKeyException e) {
+                // another node created the row first
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(ACQUIRE_SQL,
+                Timestamp.valueOf(now.plus(lease)), nodeId, name, Timestamp.valueOf(now)));
+        return updated != null && updated == 1;
+    }
+
+    private void unlock(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(RELEASE_SQL, Timestamp.valueOf(LocalDateTime.now()), name, nodeId));
+    }
+}
@@ -4,10 +4,15 @@ import com.joinmatch.backend.dto.Notification.EventInviteRequestDto;
 import com.joinmatch.backend.dto.UserEvent.UserEventRequestDto;
 import com.joinmatch.backend.dto.UserEvent.UserEventResponseDto;
 import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.events.EventDetailsChanged;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +27,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserEventService {
 
+    private static final String UNIQUE_PARTICIPATION_CONSTRAINT = "uk_user_event_user_event";
+
     private final UserEventRepository userEventRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
@@ -30,6 +37,8 @@ public class UserEventService {
     private final NotificationService notificationService;
     private final BadgeAwardService badgeAwardService;
     private final UserRatingRepository userRatingRepository;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<UserEventResponseDto> getAllUserEvent() {
         return userEventRepository.findAll()
@@ -54,12 +63,34 @@ public class UserEventService {
             );
         }
 
-        UserEvent userEvent = new UserEvent();
-        userEvent.setUser(user);
-        userEvent.setEvent(event);
-        userEvent.setAttendanceStatus(status);
+        Optional<UserEvent> existing = userEventRepository.findByEvent_EventIdAndUser_Id(event.getEventId(), user.getId());
+        if (existing.isPresent()) {
+            return UserEventResponseDto.fromUserEvent(existing.get());
+        }
 
-        UserEvent saved = userEventRepository.save(userEvent);
+        UserEvent saved;
+        try {
+            if (status.getId() == 1 && eventRepository.reserveSpots(event.getEventId(), 1) == 0) {
+                saved = waitlistService.enqueue(user, event);
+                if (saved.getWaitlistPosition() != null) {
+                    return UserEventResponseDto.fromUserEvent(saved);
+                }
+            } else {
+                UserEvent userEvent = new UserEvent();
+                userEvent.setUser(user);
+                userEvent.setEvent(event);
+                userEvent.setAttendanceStatus(status);
+
+                saved = userEventRepository.saveAndFlush(userEvent);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A parallel request for the same user and event won the insert, the transaction rolls back
+            if (isDuplicateParticipation(e)) {
+                throw new DuplicateKeyException("Użytkownik jest już zapisany na to wydarzenie", e);
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(new EventDetailsChanged(event.getEventId()));
 
         if (status.getId() == 1) {
             chatService.addUserToEventChat(event.getEventId(), user.getId());
@@ -71,6 +102,13 @@ public class UserEventService {
         return responseDto;
     }
 
+    private boolean isDuplicateParticipation(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        return constraint != null && constraint.toLowerCase().contains(UNIQUE_PARTICIPATION_CONSTRAINT);
+    }
+
     @Transactional
     public void approveUser(Integer eventId, Integer userId) {
 
@@ -84,8 +122,13 @@ public class UserEventService {
         AttendanceStatus accepted = attendanceStatusRepository.findById(1)
                 .orElseThrow();
 
+        if (ue.getAttendanceStatus().getId() != 1) {
+            reserveSpot(eventId);
+        }
         ue.setAttendanceStatus(accepted);
+        ue.setWaitlistPosition(null);
         userEventRepository.save(ue);
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
 
         chatService.addUserToEventChat(eventId, userId);
 
@@ -123,8 +166,14 @@ public class UserEventService {
         AttendanceStatus rejected = attendanceStatusRepository.findById(3)
                 .orElseThrow();
 
+        if (ue.getAttendanceStatus().getId() == 1) {
+            eventRepository.releaseSpots(eventId, 1);
+            waitlistService.promote(eventId, 1);
+        }
         ue.setAttendanceStatus(rejected);
+        ue.setWaitlistPosition(null);
         userEventRepository.save(ue);
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
 
         notificationService.sendEventJoinRejected(user, event);
     }
@@ -143,8 +192,18 @@ public class UserEventService {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
 
+        boolean wasAccepted = userEventRepository.findByEvent_EventIdAndUser_Id(eventId, user.getId())
+                .filter(ue -> ue.getAttendanceStatus().getId() == 1)
+                .isPresent();
+
         userEventRepository.deleteByUserAndEvent(user, event);
         chatService.removeUserFromEventChat(eventId, user.getId());
+
+        if (wasAccepted) {
+            eventRepository.releaseSpots(eventId, 1);
+            waitlistService.promote(eventId, 1);
+        }
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
     }
     @Transactional
     public void inviteUserToEvent(EventInviteRequestDto dto) {
@@ -191,8 +250,10 @@ public class UserEventService {
         AttendanceStatus accepted = attendanceStatusRepository.findById(1)
                 .orElseThrow(() -> new RuntimeException("Brak statusu ACCEPTED"));
 
+        reserveSpot(eventId);
         userEvent.setAttendanceStatus(accepted);
         userEventRepository.save(userEvent);
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
 
         chatService.addUserToEventChat(eventId, user.getId());
 
@@ -254,6 +315,12 @@ public class UserEventService {
         return create(new UserEventRequestDto(userEmail, eventId, 4));
     }
 
+    private void reserveSpot(Integer eventId) {
+        if (eventRepository.reserveSpots(eventId, 1) == 0) {
+            throw new IllegalStateException("Brak wolnych miejsc na wydarzeniu");
+        }
+    }
+
     @Transactional
     public void togglePaymentStatus(Integer eventId, Integer participantId, String requesterEmail) {
         Event event = eventRepository.findById(eventId)
@@ -317,5 +384,6 @@ public class UserEventService {
                 System.out.println("KARA DLA UŻYTKOWNIKA ID: " + ue.getUser().getId());
             }
         }
+        eventPublisher.publishEvent(new EventDetailsChanged(eventId));
     }
 }
@@ -0,0 +1,37 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.events.WaitlistPromotion;
+import com.joinmatch.backend.model.Event;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.EventRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class WaitlistPromotionListener {
+
+    private final ChatService chatService;
+    private final NotificationService notificationService;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPromotion(WaitlistPromotion promotion) {
+        User user = userRepository.findById(promotion.userId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        Event event = eventRepository.findById(promotion.eventId())
+                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+
+        chatService.addUserToEventChat(event.getEventId(), user.getId());
+        notificationService.sendEventJoinAccepted(user, event);
+    }
+}
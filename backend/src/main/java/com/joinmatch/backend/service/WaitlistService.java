@@ -0,0 +1,80 @@
+package com.joinmatch.backend.service;
+
+import com.joinmatch.backend.events.WaitlistPromotion;
+import com.joinmatch.backend.model.AttendanceStatus;
+import com.joinmatch.backend.model.Event;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.model.UserEvent;
+import com.joinmatch.backend.repository.AttendanceStatusRepository;
+import com.joinmatch.backend.repository.EventRepository;
+import com.joinmatch.backend.repository.UserEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private final UserEventRepository userEventRepository;
+    private final EventRepository eventRepository;
+    private final AttendanceStatusRepository attendanceStatusRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Enqueue and promote serialize on the event row, so positions are unique and a head is promoted once.
+    // A spot freed between the caller's failed reservation and the lock is taken here instead of queueing
+    // behind an empty waitlist, the returned row then has no position.
+    @Transactional
+    public UserEvent enqueue(User user, Event event) {
+        eventRepository.lockById(event.getEventId());
+
+        UserEvent userEvent = new UserEvent();
+        userEvent.setUser(user);
+        userEvent.setEvent(event);
+
+        if (eventRepository.reserveSpots(event.getEventId(), 1) > 0) {
+            userEvent.setAttendanceStatus(attendanceStatusRepository.findById(1).orElseThrow());
+            return userEventRepository.saveAndFlush(userEvent);
+        }
+
+        AttendanceStatus waitlisted = attendanceStatusRepository.findById(AttendanceStatus.WAITLISTED_ID)
+                .orElseThrow(() -> new IllegalStateException("Brak statusu LISTA OCZEKUJĄCYCH"));
+        userEvent.setAttendanceStatus(waitlisted);
+        userEvent.setWaitlistPosition(userEventRepository.findLastWaitlistPosition(event.getEventId()) + 1);
+
+        return userEventRepository.saveAndFlush(userEvent);
+    }
+
+    @Transactional
+    public void promote(Integer eventId, int freedSpots) {
+        eventRepository.lockById(eventId);
+        AttendanceStatus accepted = null;
+
+        for (int i = 0; i < freedSpots; i++) {
+            Optional<UserEvent> head = userEventRepository
+                    .findFirstByEvent_EventIdAndAttendanceStatus_IdAndWaitlistPositionNotNullOrderByWaitlistPositionAscIdAsc(
+                            eventId, AttendanceStatus.WAITLISTED_ID);
+            if (head.isEmpty() || eventRepository.reserveSpots(eventId, 1) == 0) {
+                return;
+            }
+
+            if (accepted == null) {
+                accepted = attendanceStatusRepository.findById(1).orElseThrow();
+            }
+            UserEvent ue = head.get();
+            ue.setAttendanceStatus(accepted);
+            ue.setWaitlistPosition(null);
+            userEventRepository.save(ue);
+
+            eventPublisher.publishEvent(new WaitlistPromotion(eventId, ue.getUser().getId()));
+        }
+    }
+
+    @Transactional
+    public void clear(Integer eventId) {
+        userEventRepository.deleteWaitlist(eventId);
+    }
+}
@@ -1,9 +1,14 @@
 package com.joinmatch.backend.specification;
 
+import com.joinmatch.backend.config.TextSearchFunctionContributor;
 import com.joinmatch.backend.model.Event;
+import com.joinmatch.backend.model.ReportEvent;
+import jakarta.persistence.criteria.Expression;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class EventSpecificationBuilder {
 
@@ -16,7 +21,24 @@ public class EventSpecificationBuilder {
             Boolean free,
             Boolean available
     ) {
-        Specification<Event> spec = Specification.where(null);
+        return build(name, sportTypeId, city, dateFrom, dateTo, free, available, null);
+    }
+
+    public static Specification<Event> build(
+            String name,
+            Integer sportTypeId,
+            String city,
+            LocalDate dateFrom,
+            LocalDate dateTo,
+            Boolean free,
+            Boolean available,
+            String search
+    ) {
+        Specification<Event> spec = Specification.where(notActivelyReported());
+
+        if (search != null && !search.isBlank()) {
+            spec = spec.and(matchesSearch(search.trim()));
+        }
 
         if (name != null && !name.isBlank()) {
             spec = spec.and(nameContains(name));
@@ -49,6 +71,52 @@ public class EventSpecificationBuilder {
         return spec;
     }
 
+    public static Specification<Event> after(LocalDateTime eventDate, Integer eventId, boolean descending) {
+        return (root, query, cb) -> {
+            var datePath = root.<LocalDateTime>get("eventDate");
+            var idPath = root.<Integer>get("eventId");
+
+            if (descending) {
+                return cb.or(
+                        cb.lessThan(datePath, eventDate),
+                        cb.and(cb.equal(datePath, eventDate), cb.lessThan(idPath, eventId))
+                );
+            }
+            return cb.or(
+                    cb.greaterThan(datePath, eventDate),
+                    cb.and(cb.equal(datePath, eventDate), cb.greaterThan(idPath, eventId))
+            );
+        };
+    }
+
+    private static Specification<Event> notActivelyReported() {
+        return (root, query, cb) -> {
+            var subquery = query.subquery(Integer.class);
+            var reportRoot = subquery.from(ReportEvent.class);
+            subquery.select(reportRoot.get("id"));
+            subquery.where(
+                    cb.equal(reportRoot.get("reportedEvent"), root),
+                    cb.isTrue(reportRoot.get("active"))
+            );
+
+            return cb.not(cb.exists(subquery));
+        };
+    }
+
+    private static Specification<Event> matchesSearch(String search) {
+        return (root, query, cb) -> {
+            Expression<Integer> eventId = root.get("eventId");
+            Expression<String> term = ((HibernateCriteriaBuilder) cb).value(search);
+
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<Double> rank = cb.function(TextSearchFunctionContributor.RANK, Double.class, eventId, term);
+                query.orderBy(cb.desc(rank), cb.asc(root.get("eventDate")));
+            }
+
+            return cb.isTrue(cb.function(TextSearchFunctionContributor.MATCH, Boolean.class, eventId, term));
+        };
+    }
+
     private static Specification<Event> nameContains(String name) {
         return (root, query, cb) ->
                 cb.like(cb.lower(root.get("eventName")), "%" + name.toLowerCase() + "%");
@@ -80,16 +148,8 @@ public class EventSpecificationBuilder {
     }
 
     private static Specification<Event> isAvailable() {
-        return (root, query, cb) -> {
-            query.distinct(true);
-
-            var subquery = query.subquery(Long.class);
-            var subRoot = subquery.from(com.joinmatch.backend.model.UserEvent.class);
-            subquery.select(cb.count(subRoot));
-            subquery.where(cb.equal(subRoot.get("event"), root));
-
-            return cb.greaterThan(root.get("numberOfParticipants").as(Long.class), subquery);
-        };
+        return (root, query, cb) ->
+                cb.greaterThan(root.get("numberOfParticipants"), root.get("bookedParticipants"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+-- Message ids come from a pooled-lo sequence so the chat write-behind queue can assign them before insert
+CREATE SEQUENCE IF NOT EXISTS message_seq INCREMENT BY 50;
+
+SELECT setval('message_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM message), false);
@@ -0,0 +1,15 @@
+-- Participants are added and removed one row at a time, the key keeps the join table free of duplicates
+DELETE FROM conversation_participants a
+USING conversation_participants b
+WHERE a.ctid < b.ctid
+  AND a.conversation_id = b.conversation_id
+  AND a.user_id = b.user_id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'pk_conversation_participants') THEN
+        ALTER TABLE conversation_participants
+            ADD CONSTRAINT pk_conversation_participants PRIMARY KEY (conversation_id, user_id);
+    END IF;
+END
+$$;
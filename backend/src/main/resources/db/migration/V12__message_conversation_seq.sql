@@ -0,0 +1,19 @@
+-- Per-conversation message sequence, clients resume after a reconnect from the last seq they saw
+ALTER TABLE conversation ADD COLUMN IF NOT EXISTS last_message_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE message ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+UPDATE message m
+SET seq = numbered.seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY conversation_id ORDER BY id) AS seq
+    FROM message
+) numbered
+WHERE numbered.id = m.id;
+
+UPDATE conversation c
+SET last_message_seq = COALESCE((SELECT MAX(m.seq) FROM message m WHERE m.conversation_id = c.id), 0);
+
+ALTER TABLE message ALTER COLUMN seq SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_message_conversation_seq
+    ON message (conversation_id, seq);
@@ -0,0 +1,11 @@
+-- Pending WebSocket deliveries, written with the notification and removed once pushed
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    notification_id INTEGER   PRIMARY KEY REFERENCES notification (id) ON DELETE CASCADE,
+    user_id         INTEGER   NOT NULL,
+    attempts        INTEGER   NOT NULL DEFAULT 0,
+    created_at      TIMESTAMP NOT NULL,
+    available_at    TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_available_at
+    ON notification_outbox (available_at);
@@ -0,0 +1,4 @@
+-- Notification ids come from a pooled-lo sequence so broadcast fan-out can insert its rows in one JDBC batch
+CREATE SEQUENCE IF NOT EXISTS notification_seq INCREMENT BY 100;
+
+SELECT setval('notification_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM notification), false);
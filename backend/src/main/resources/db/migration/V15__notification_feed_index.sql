@@ -0,0 +1,8 @@
+-- Cursor-paged notification feed seeks on (user_id, created_at DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_notification_user_created_id
+    ON notification (user_id, created_at DESC, id DESC);
+
+-- Unread badge is loaded once per user and then kept in memory, this keeps the cold COUNT cheap
+CREATE INDEX IF NOT EXISTS idx_notification_user_unread
+    ON notification (user_id)
+    WHERE is_read = false;
@@ -0,0 +1,4 @@
+-- Retention job walks read notifications by age in small batches
+CREATE INDEX IF NOT EXISTS idx_notification_read_created_at
+    ON notification (created_at)
+    WHERE is_read = true;
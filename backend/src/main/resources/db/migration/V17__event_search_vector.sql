@@ -0,0 +1,64 @@
+-- One weighted document per event so search is a single GIN lookup on event instead of an OR across joins.
+-- Sport name and city are copied in by triggers; TextSearchFunctionContributor queries search_vector.
+ALTER TABLE event ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION event_search_document(p_name TEXT, p_description TEXT, p_sport_id INTEGER, p_object_id INTEGER)
+RETURNS tsvector
+LANGUAGE sql STABLE AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_description, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce((SELECT name FROM sport WHERE id = p_sport_id), '')), 'C')
+        || setweight(to_tsvector('simple', coalesce((SELECT city FROM sport_object WHERE object_id = p_object_id), '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION event_search_vector_refresh() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := event_search_document(NEW.event_name, NEW.description, NEW.sport_type_id, NEW.sport_object_object_id);
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_event_search_vector ON event;
+CREATE TRIGGER trg_event_search_vector
+    BEFORE INSERT OR UPDATE OF event_name, description, sport_type_id, sport_object_object_id ON event
+    FOR EACH ROW EXECUTE FUNCTION event_search_vector_refresh();
+
+CREATE OR REPLACE FUNCTION event_search_vector_refresh_related() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'sport' THEN
+        UPDATE event e
+        SET search_vector = event_search_document(e.event_name, e.description, e.sport_type_id, e.sport_object_object_id)
+        WHERE e.sport_type_id = NEW.id;
+    ELSE
+        UPDATE event e
+        SET search_vector = event_search_document(e.event_name, e.description, e.sport_type_id, e.sport_object_object_id)
+        WHERE e.sport_object_object_id = NEW.object_id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_sport_search_vector ON sport;
+CREATE TRIGGER trg_sport_search_vector
+    AFTER UPDATE OF name ON sport
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION event_search_vector_refresh_related();
+
+DROP TRIGGER IF EXISTS trg_sport_object_search_vector ON sport_object;
+CREATE TRIGGER trg_sport_object_search_vector
+    AFTER UPDATE OF city ON sport_object
+    FOR EACH ROW WHEN (OLD.city IS DISTINCT FROM NEW.city)
+    EXECUTE FUNCTION event_search_vector_refresh_related();
+
+UPDATE event
+SET search_vector = event_search_document(event_name, description, sport_type_id, sport_object_object_id);
+
+CREATE INDEX IF NOT EXISTS idx_event_search_vector ON event USING gin (search_vector);
+
+-- Superseded by idx_event_search_vector
+DROP INDEX IF EXISTS idx_event_name_tsv;
+DROP INDEX IF EXISTS idx_event_description_tsv;
+DROP INDEX IF EXISTS idx_sport_name_tsv;
+DROP INDEX IF EXISTS idx_sport_object_city_tsv;
@@ -0,0 +1,13 @@
+-- Lease per scheduled job so that only one node runs it, see SchedulerLockService
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name         VARCHAR(64)  PRIMARY KEY,
+    locked_until TIMESTAMP    NOT NULL,
+    locked_by    VARCHAR(255)
+);
+
+-- Snapshot rows take pooled ids so a rebuild is written as batched INSERTs
+CREATE SEQUENCE IF NOT EXISTS ranking_snapshot_seq INCREMENT BY 500;
+
+SELECT setval('ranking_snapshot_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM ranking_snapshot), false);
+
+ALTER TABLE ranking_snapshot ALTER COLUMN id SET DEFAULT nextval('ranking_snapshot_seq');
@@ -0,0 +1,11 @@
+-- Chat messages the write-behind queue could not insert after retrying row by row
+CREATE TABLE IF NOT EXISTS message_dead_letter (
+    message_id      INTEGER   PRIMARY KEY,
+    conversation_id INTEGER   NOT NULL,
+    sender_id       INTEGER   NOT NULL,
+    seq             BIGINT    NOT NULL,
+    content         TEXT      NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    failed_at       TIMESTAMP NOT NULL,
+    error           TEXT
+);
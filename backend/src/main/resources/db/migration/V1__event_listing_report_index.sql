@@ -0,0 +1,7 @@
+-- Listing filters out events with an active report through a NOT EXISTS subquery
+CREATE INDEX IF NOT EXISTS idx_report_event_active_event
+    ON report_event (event_id)
+    WHERE active = true;
+
+CREATE INDEX IF NOT EXISTS idx_user_event_event
+    ON user_event (event_id);
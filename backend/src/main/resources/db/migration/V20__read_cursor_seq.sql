@@ -0,0 +1,11 @@
+-- Message ids come from pooled-lo blocks and are not in send order across nodes, read state follows seq instead
+ALTER TABLE conversation_read_cursor ADD COLUMN IF NOT EXISTS last_read_seq BIGINT NOT NULL DEFAULT 0;
+
+UPDATE conversation_read_cursor rc
+SET last_read_seq = COALESCE((
+    SELECT MAX(m.seq) FROM message m
+    WHERE m.conversation_id = rc.conversation_id AND m.id <= rc.last_read_message_id
+), 0);
+
+ALTER TABLE conversation_read_cursor ALTER COLUMN last_read_seq DROP DEFAULT;
+ALTER TABLE conversation_read_cursor DROP COLUMN IF EXISTS last_read_message_id;
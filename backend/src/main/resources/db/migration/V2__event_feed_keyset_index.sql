@@ -0,0 +1,3 @@
+-- Keyset pagination of the event feed seeks on (event_date, event_id)
+CREATE INDEX IF NOT EXISTS idx_event_date_id
+    ON event (event_date, event_id);
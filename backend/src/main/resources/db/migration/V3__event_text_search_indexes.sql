@@ -0,0 +1,12 @@
+-- Expressions must match TextSearchFunctionContributor so the planner can use the GIN indexes
+CREATE INDEX IF NOT EXISTS idx_event_name_tsv
+    ON event USING gin (to_tsvector('simple', event_name));
+
+CREATE INDEX IF NOT EXISTS idx_event_description_tsv
+    ON event USING gin (to_tsvector('simple', description));
+
+CREATE INDEX IF NOT EXISTS idx_sport_name_tsv
+    ON sport USING gin (to_tsvector('simple', name));
+
+CREATE INDEX IF NOT EXISTS idx_sport_object_city_tsv
+    ON sport_object USING gin (to_tsvector('simple', city));
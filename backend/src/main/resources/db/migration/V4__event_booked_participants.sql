@@ -0,0 +1,23 @@
+-- Denormalized participant counter maintained by UserEventService / EventService,
+-- guarded by an optimistic lock version on event
+ALTER TABLE event_team ADD COLUMN IF NOT EXISTS reserved_spots INTEGER NOT NULL DEFAULT 0;
+
+UPDATE event_team et
+SET reserved_spots = (
+    SELECT COUNT(DISTINCT ut.user_id)
+    FROM user_team ut
+    WHERE ut.team_id = et.team_id
+);
+
+ALTER TABLE event ADD COLUMN IF NOT EXISTS booked_participants INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE event ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE event e
+SET booked_participants =
+        (SELECT COUNT(*)
+         FROM user_event ue
+         WHERE ue.event_id = e.event_id
+           AND ue.attendance_status_id = 1)
+      + (SELECT COALESCE(SUM(et.reserved_spots), 0)
+         FROM event_team et
+         WHERE et.event_id = e.event_id);
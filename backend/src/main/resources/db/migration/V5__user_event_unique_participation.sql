@@ -0,0 +1,25 @@
+-- Keep a single participation row per (user, event) before enforcing uniqueness
+DELETE FROM user_event ue
+USING user_event dup
+WHERE ue.user_id = dup.user_id
+  AND ue.event_id = dup.event_id
+  AND ue.id > dup.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_user_event_user_event') THEN
+        ALTER TABLE user_event
+            ADD CONSTRAINT uk_user_event_user_event UNIQUE (user_id, event_id);
+    END IF;
+END
+$$;
+
+UPDATE event e
+SET booked_participants =
+        (SELECT COUNT(*)
+         FROM user_event ue
+         WHERE ue.event_id = e.event_id
+           AND ue.attendance_status_id = 1)
+      + (SELECT COALESCE(SUM(et.reserved_spots), 0)
+         FROM event_team et
+         WHERE et.event_id = e.event_id);
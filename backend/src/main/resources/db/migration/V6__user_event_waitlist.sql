@@ -0,0 +1,10 @@
+-- FIFO waitlist: waiting rows carry a position, the queue head is read through the index
+INSERT INTO attendance_status (id, name)
+VALUES (6, 'Lista oczekujących')
+ON CONFLICT (id) DO NOTHING;
+
+ALTER TABLE user_event ADD COLUMN IF NOT EXISTS waitlist_position BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_user_event_waitlist
+    ON user_event (event_id, waitlist_position)
+    WHERE waitlist_position IS NOT NULL;
@@ -0,0 +1,27 @@
+-- Precomputed top-N rankings, rebuilt periodically by RankingSnapshotService
+CREATE TABLE IF NOT EXISTS ranking_snapshot (
+    id                BIGSERIAL PRIMARY KEY,
+    ranking_type      VARCHAR(40)  NOT NULL,
+    city              VARCHAR(100),
+    rank_order        INTEGER      NOT NULL,
+    subject_id        INTEGER      NOT NULL,
+    subject_name      VARCHAR(255),
+    subject_email     VARCHAR(255),
+    subject_image_url TEXT,
+    subject_city      VARCHAR(100),
+    sport_type_name   VARCHAR(50),
+    owner_id          INTEGER,
+    owner_name        VARCHAR(255),
+    owner_email       VARCHAR(255),
+    owner_avatar_url  TEXT,
+    average_rating    DOUBLE PRECISION,
+    total_count       INTEGER      NOT NULL,
+    participant_count INTEGER,
+    refreshed_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ranking_snapshot_lookup
+    ON ranking_snapshot (ranking_type, city, rank_order);
+
+CREATE INDEX IF NOT EXISTS idx_ranking_snapshot_refreshed_at
+    ON ranking_snapshot (refreshed_at);
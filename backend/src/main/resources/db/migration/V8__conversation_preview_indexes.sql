@@ -0,0 +1,6 @@
+-- Inbox preview: conversations of a user and the newest message of each conversation
+CREATE INDEX IF NOT EXISTS idx_conversation_participants_user
+    ON conversation_participants (user_id, conversation_id);
+
+CREATE INDEX IF NOT EXISTS idx_message_conversation_id
+    ON message (conversation_id, id);
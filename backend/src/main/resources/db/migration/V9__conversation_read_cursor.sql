@@ -0,0 +1,19 @@
+-- Read state as one cursor per (conversation, user) instead of one row per read message
+CREATE TABLE IF NOT EXISTS conversation_read_cursor (
+    id                   SERIAL PRIMARY KEY,
+    conversation_id      INTEGER   NOT NULL REFERENCES conversation (id),
+    user_id              INTEGER   NOT NULL REFERENCES join_match_user (id),
+    last_read_message_id INTEGER   NOT NULL,
+    read_at              TIMESTAMP NOT NULL,
+    CONSTRAINT uk_conversation_read_cursor_conversation_user UNIQUE (conversation_id, user_id)
+);
+
+-- Messages were always marked read up to a given id, so the highest read id is the cursor
+INSERT INTO conversation_read_cursor (conversation_id, user_id, last_read_message_id, read_at)
+SELECT m.conversation_id, mr.user_id, MAX(m.id), MAX(mr.read_at)
+FROM message_read mr
+JOIN message m ON m.id = mr.message_id
+GROUP BY m.conversation_id, mr.user_id
+ON CONFLICT (conversation_id, user_id) DO NOTHING;
+
+DROP TABLE IF EXISTS message_read;
@@ -0,0 +1,179 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.BackendApplication;
+import com.joinmatch.backend.config.JwtService;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatMembershipBroadcaster;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import com.joinmatch.backend.service.ChatPresenceBroadcaster;
+import com.joinmatch.backend.service.ChatPresenceService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrokerRelayMultiNodeTest {
+
+    private static InProcessStompBroker broker;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        broker = new InProcessStompBroker();
+        nodeA = startNode("relay-node-a");
+        nodeB = startNode("relay-node-b");
+        awaitTrue(() -> nodeA.getBean(StompBrokerRelayMessageHandler.class).isBrokerAvailable()
+                && nodeB.getBean(StompBrokerRelayMessageHandler.class).isBrokerAvailable());
+    }
+
+    @AfterAll
+    static void stopNodes() throws Exception {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+        if (broker != null) broker.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String name) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + name,
+                        "--spring.jmx.enabled=false",
+                        "--chat.broker.relay.enabled=true",
+                        "--chat.broker.relay.host=127.0.0.1",
+                        "--chat.broker.relay.port=" + broker.getPort()
+                );
+    }
+
+    private static int port(ConfigurableApplicationContext node) {
+        return ((WebServerApplicationContext) node).getWebServer().getPort();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within timeout");
+            Thread.sleep(50);
+        }
+    }
+
+    private static User saveUser(ConfigurableApplicationContext node) {
+        User u = new User();
+        u.setName("Anna");
+        u.setEmail("relay-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return node.getBean(UserRepository.class).save(u);
+    }
+
+    @Test
+    void messagePublishedOnOneNode_shouldReachSubscriberOfAnotherNode() throws Exception {
+        User member = saveUser(nodeB);
+        Conversation conversation = nodeB.getBean(ConversationRepository.class).save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(member)))
+                .build());
+        String destination = "/topic/conversation/" + conversation.getId();
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + nodeB.getBean(JwtService.class).generateToken(member));
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new StringMessageConverter());
+        StompSession session = client
+                .connectAsync("ws://localhost:" + port(nodeB) + "/ws/websocket", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        });
+        awaitTrue(() -> broker.hasSubscription(destination));
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend(destination, "Cześć z węzła A");
+
+        assertEquals("Cześć z węzła A", received.poll(10, TimeUnit.SECONDS));
+        session.disconnect();
+        client.stop();
+    }
+
+    @Test
+    void membershipRemovedOnOneNode_shouldReachCacheOfAnotherNode() throws Exception {
+        User member = saveUser(nodeB);
+        Conversation conversation = nodeB.getBean(ConversationRepository.class).save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(member)))
+                .build());
+        ChatMembershipCache cacheOfB = nodeB.getBean(ChatMembershipCache.class);
+        assertTrue(cacheOfB.isMember(conversation.getId(), member.getId()));
+        awaitTrue(() -> broker.hasSubscription(ChatMembershipBroadcaster.DESTINATION));
+
+        nodeA.publishEvent(ChatMembershipChanged.removed(conversation.getId(), member.getId()));
+
+        awaitTrue(() -> !cacheOfB.isMember(conversation.getId(), member.getId()));
+    }
+
+    @Test
+    void userConnectedToOneNode_shouldBeOnlineOnAnotherNode() throws Exception {
+        User member = saveUser(nodeB);
+        ChatPresenceService presenceOfA = nodeA.getBean(ChatPresenceService.class);
+        awaitTrue(() -> broker.hasSubscription(ChatPresenceBroadcaster.DESTINATION));
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + nodeB.getBean(JwtService.class).generateToken(member));
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        StompSession session = client
+                .connectAsync("ws://localhost:" + port(nodeB) + "/ws/websocket", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+
+        awaitTrue(() -> presenceOfA.isOnline(member.getId()));
+        assertFalse(presenceOfA.localOnlineUserIds().contains(member.getId()));
+
+        session.disconnect();
+        awaitTrue(() -> !presenceOfA.isOnline(member.getId()));
+        client.stop();
+    }
+}
@@ -0,0 +1,159 @@
+package com.joinmatch.backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joinmatch.backend.config.ChatChannelInterceptor;
+import com.joinmatch.backend.config.JwtService;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatMembershipBroadcaster;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChatChannelInterceptorTest {
+
+    private ConversationRepository conversationRepository;
+    private UserRepository userRepository;
+    private JwtService jwtService;
+    private ChatMembershipCache membershipCache;
+    private ChatChannelInterceptor interceptor;
+    private MessageChannel channel;
+    private Map<String, Object> session;
+
+    @BeforeEach
+    void setup() {
+        conversationRepository = mock(ConversationRepository.class);
+        userRepository = mock(UserRepository.class);
+        jwtService = mock(JwtService.class);
+        channel = mock(MessageChannel.class);
+        membershipCache = new ChatMembershipCache(conversationRepository, 100, Duration.ofMinutes(10));
+        interceptor = new ChatChannelInterceptor(membershipCache, userRepository, jwtService, new ObjectMapper());
+        session = new HashMap<>();
+
+        Conversation conversation = Conversation.builder().id(7).type(ConversationType.EVENT).build();
+        when(conversationRepository.findById(7)).thenReturn(Optional.of(conversation));
+        when(conversationRepository.findParticipants(7)).thenReturn(List.of(
+                new ParticipantDto(1, "Anna", null),
+                new ParticipantDto(2, "Jan", null)
+        ));
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination, String body) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionAttributes(session);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private void connectAs(Integer userId, String email) {
+        User user = new User();
+        user.setId(userId);
+        when(jwtService.extractUsername("token")).thenReturn(email);
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionAttributes(session);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+    }
+
+    @Test
+    void connect_shouldResolveUserOnceForSession() {
+        connectAs(1, "anna@test.pl");
+
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/conversation/7", ""), channel);
+        interceptor.preSend(frame(StompCommand.SEND, "/app/chat.sendMessage",
+                "{\"conversationId\":7,\"senderId\":1,\"content\":\"Cześć\"}"), channel);
+
+        assertEquals(1, session.get(ChatChannelInterceptor.USER_ID_ATTRIBUTE));
+        verify(userRepository, times(1)).findByEmail("anna@test.pl");
+        verify(conversationRepository, times(1)).findParticipants(7);
+    }
+
+    @Test
+    void subscribe_shouldReject_whenUserIsNotMember() {
+        connectAs(3, "obcy@test.pl");
+
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/conversation/7", ""), channel));
+    }
+
+    @Test
+    void subscribe_shouldReject_whenSessionIsNotAuthenticated() {
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/conversation/7", ""), channel));
+    }
+
+    @Test
+    void send_shouldReject_whenSenderIdIsSpoofed() {
+        connectAs(1, "anna@test.pl");
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(frame(StompCommand.SEND,
+                "/app/chat.sendMessage", "{\"conversationId\":7,\"senderId\":2,\"content\":\"hej\"}"), channel));
+    }
+
+    @Test
+    void systemDestinations_shouldBeClosedToClients() {
+        connectAs(1, "anna@test.pl");
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(
+                frame(StompCommand.SUBSCRIBE, ChatMembershipBroadcaster.DESTINATION, ""), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(frame(StompCommand.SEND,
+                ChatMembershipBroadcaster.DESTINATION, "{\"conversationId\":7,\"userId\":1}"), channel));
+    }
+
+    @Test
+    void send_shouldReject_whenClientPublishesToBrokerDestination() {
+        connectAs(1, "anna@test.pl");
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(frame(StompCommand.SEND,
+                "/topic/conversation/7", "{\"conversationId\":7,\"senderId\":1,\"content\":\"hej\"}"), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(frame(StompCommand.SEND,
+                "/queue/notifications", "{}"), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(frame(StompCommand.SEND,
+                "/user/2/queue/notifications", "{}"), channel));
+    }
+
+    @Test
+    void membershipChanges_shouldApplyWithoutReloadingParticipants() {
+        connectAs(3, "obcy@test.pl");
+        assertFalse(membershipCache.isMember(7, 3));
+
+        membershipCache.onMembershipChanged(ChatMembershipChanged.added(7, new ParticipantDto(3, "Obcy", null)));
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/conversation/7", ""), channel);
+
+        membershipCache.onMembershipChanged(ChatMembershipChanged.removed(7, 3));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/conversation/7", ""), channel));
+
+        verify(conversationRepository, times(1)).findParticipants(7);
+    }
+
+    @Test
+    void otherDestinations_shouldPassThrough() {
+        Message<byte[]> message = frame(StompCommand.SUBSCRIBE, "/user/queue/notifications", "");
+
+        assertSame(message, interceptor.preSend(message, channel));
+    }
+}
@@ -0,0 +1,233 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Message.ChatMessageDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatMessageWriteBehind;
+import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.MessageIdAllocator;
+import com.joinmatch.backend.service.MessageSeqAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "chat.write-behind.enabled=true")
+@ActiveProfiles("test")
+class ChatMessageWriteBehindTest {
+
+    @Autowired private ChatService chatService;
+    @Autowired private ChatMessageWriteBehind chatMessageWriteBehind;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MessageIdAllocator idAllocator;
+    @Autowired private MessageSeqAllocator seqAllocator;
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail("write-behind-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private Conversation saveConversation(User... participants) {
+        return conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(participants)))
+                .build());
+    }
+
+    private ChatMessageDto message(Integer conversationId, Integer senderId, String content) {
+        return new ChatMessageDto(null, conversationId, senderId, null, null, content,
+                null, null, null, null, null);
+    }
+
+    private void awaitFlushed(List<Integer> conversationIds, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (chatMessageWriteBehind.pendingCount() == 0 && countMessages(conversationIds) == expected) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Expected " + expected + " persisted messages, got " + countMessages(conversationIds));
+    }
+
+    private int countMessages(List<Integer> conversationIds) {
+        int total = 0;
+        for (Integer id : conversationIds) {
+            total += jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM message WHERE conversation_id = ?", Integer.class, id);
+        }
+        return total;
+    }
+
+    @Test
+    void postMessage_shouldPersistAllMessagesInPerConversationOrder() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        List<Conversation> conversations = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            conversations.add(saveConversation(anna, jan));
+        }
+        List<Integer> conversationIds = conversations.stream().map(Conversation::getId).toList();
+
+        int perConversation = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(conversationIds.size());
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (Integer conversationId : conversationIds) {
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < perConversation; i++) {
+                    Integer sender = i % 2 == 0 ? anna.getId() : jan.getId();
+                    ids.add(chatService.postMessage(message(conversationId, sender, "msg" + i)).messageId());
+                }
+                return ids;
+            }));
+        }
+        List<List<Integer>> returnedIds = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            returnedIds.add(future.get());
+        }
+        executor.shutdown();
+
+        awaitFlushed(conversationIds, conversationIds.size() * perConversation);
+
+        for (int c = 0; c < conversationIds.size(); c++) {
+            List<Integer> ids = returnedIds.get(c);
+            assertEquals(ids.stream().sorted().toList(), ids);
+            List<String> contents = jdbcTemplate.queryForList(
+                    "SELECT content FROM message WHERE conversation_id = ? ORDER BY id", String.class, conversationIds.get(c));
+            assertEquals("msg0", contents.get(0));
+            assertEquals("msg" + (perConversation - 1), contents.get(perConversation - 1));
+            List<Long> seqs = jdbcTemplate.queryForList(
+                    "SELECT seq FROM message WHERE conversation_id = ? ORDER BY id", Long.class, conversationIds.get(c));
+            assertEquals(LongStream.rangeClosed(1, perConversation).boxed().toList(), seqs);
+        }
+    }
+
+    @Test
+    void postMessage_shouldNotCollideWithSynchronousInserts() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = saveConversation(anna, jan);
+
+        for (int i = 0; i < 60; i++) {
+            chatService.postMessage(message(conversation.getId(), anna.getId(), "queued" + i));
+            chatService.saveMessage(message(conversation.getId(), jan.getId(), "direct" + i));
+        }
+
+        awaitFlushed(List.of(conversation.getId()), 120);
+        assertEquals(120, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT seq) FROM message WHERE conversation_id = ?", Integer.class, conversation.getId()));
+    }
+
+    @Test
+    void seqAllocator_shouldRequireTheInsertTransaction() {
+        Conversation conversation = saveConversation(saveUser("Anna"), saveUser("Jan"));
+
+        assertThrows(IllegalTransactionStateException.class, () -> seqAllocator.next(conversation.getId()));
+    }
+
+    @Test
+    void postMessage_shouldReject_whenSenderIsNotMember() {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        User stranger = saveUser("Obcy");
+        Conversation conversation = saveConversation(anna, jan);
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> chatService.postMessage(message(conversation.getId(), stranger.getId(), "hej")));
+
+        assertEquals("User is not a member of this conversation", ex.getMessage());
+    }
+
+    @Test
+    void postMessage_shouldReturnAssignedIdAndSenderDetails() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = saveConversation(anna, jan);
+
+        ChatMessageDto sent = chatService.postMessage(message(conversation.getId(), anna.getId(), "Cześć"));
+
+        assertNotNull(sent.messageId());
+        assertEquals("Anna", sent.senderName());
+        assertEquals("PRIVATE", sent.conversationType());
+        awaitFlushed(List.of(conversation.getId()), 1);
+        assertEquals(sent.messageId(), jdbcTemplate.queryForObject(
+                "SELECT id FROM message WHERE conversation_id = ?", Integer.class, conversation.getId()));
+    }
+
+    @Test
+    void postMessage_shouldParkOnlyTheFailingRow_whenBatchInsertFails() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = saveConversation(anna, jan);
+
+        for (int i = 0; i < 5; i++) {
+            chatService.postMessage(message(conversation.getId(), anna.getId(), "ok" + i));
+        }
+        // longer than the content column, so this row can never be inserted
+        ChatMessageDto poison = chatService.postMessage(message(conversation.getId(), jan.getId(), "x".repeat(300)));
+        for (int i = 5; i < 10; i++) {
+            chatService.postMessage(message(conversation.getId(), anna.getId(), "ok" + i));
+        }
+
+        awaitFlushed(List.of(conversation.getId()), 10);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (countDeadLetters(poison.messageId()) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, countDeadLetters(poison.messageId()));
+        assertEquals(poison.content(), jdbcTemplate.queryForObject(
+                "SELECT content FROM message_dead_letter WHERE message_id = ?", String.class, poison.messageId()));
+    }
+
+    @Test
+    void shutdown_shouldWriteQueuedMessages_whenWorkersDoNotFinishInTime() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = saveConversation(anna, jan);
+        ChatMessageWriteBehind writeBehind = new ChatMessageWriteBehind(jdbcTemplate, transactionManager,
+                idAllocator, seqAllocator, true, 1, 1000, 10, Duration.ofSeconds(2), Duration.ofMillis(1));
+
+        for (int i = 0; i < 200; i++) {
+            writeBehind.enqueue(conversation.getId(), anna.getId(), "msg" + i);
+        }
+        writeBehind.shutdown();
+
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(200, countMessages(List.of(conversation.getId())));
+        assertThrows(IllegalStateException.class,
+                () -> writeBehind.enqueue(conversation.getId(), anna.getId(), "too late"));
+    }
+
+    private int countDeadLetters(Integer messageId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM message_dead_letter WHERE message_id = ?", Integer.class, messageId);
+    }
+}
@@ -0,0 +1,169 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Message.ChatTypingDto;
+import com.joinmatch.backend.dto.Message.ConversationMembersDto;
+import com.joinmatch.backend.dto.Message.NodePresenceDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import com.joinmatch.backend.service.ChatPresenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChatPresenceServiceTest {
+
+    private static final int SESSIONS = 10_000;
+    private static final int USERS = 2_500;
+    private static final int THREADS = 16;
+
+    private ConversationRepository conversationRepository;
+    private ChatMembershipCache membershipCache;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatPresenceService presenceService;
+
+    @BeforeEach
+    void setup() {
+        conversationRepository = mock(ConversationRepository.class);
+        membershipCache = mock(ChatMembershipCache.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        presenceService = new ChatPresenceService(conversationRepository, membershipCache, messagingTemplate,
+                mock(ApplicationEventPublisher.class), Duration.ofSeconds(2), Duration.ofSeconds(30));
+        when(membershipCache.get(7)).thenReturn(new ConversationMembersDto(7, ConversationType.TEAM, 3, null, Map.of(
+                1, new ParticipantDto(1, "Anna", null),
+                2, new ParticipantDto(2, "Jan", null),
+                3, new ParticipantDto(3, "Ola", null)
+        )));
+    }
+
+    @Test
+    void connect_shouldReportTransitionOnlyForFirstAndLastSession() {
+        assertTrue(presenceService.connect("s1", 1));
+        assertFalse(presenceService.connect("s2", 1));
+
+        assertFalse(presenceService.disconnect("s1"));
+        assertTrue(presenceService.isOnline(1));
+        assertTrue(presenceService.disconnect("s2"));
+        assertFalse(presenceService.isOnline(1));
+        assertFalse(presenceService.disconnect("unknown"));
+    }
+
+    @Test
+    void getOnlineParticipants_shouldReturnOnlyConnectedMembers() {
+        presenceService.connect("s1", 1);
+        presenceService.connect("s3", 3);
+        presenceService.connect("s9", 9);
+
+        assertEquals(List.of(1, 3), presenceService.getOnlineParticipants(7, 2));
+        assertThrows(SecurityException.class, () -> presenceService.getOnlineParticipants(7, 9));
+    }
+
+    @Test
+    void applyRemote_shouldCountUsersConnectedToOtherNodes() {
+        presenceService.connect("s1", 1);
+        presenceService.applyRemote(new NodePresenceDto("node-b", false, List.of(2, 3), List.of()));
+        presenceService.applyRemote(new NodePresenceDto("node-b", false, List.of(), List.of(3)));
+
+        assertEquals(List.of(1, 2), presenceService.getOnlineParticipants(7, 1));
+        assertEquals(List.of(1), presenceService.localOnlineUserIds());
+
+        // a snapshot drops users whose offline delta was lost
+        presenceService.applyRemote(new NodePresenceDto("node-b", true, List.of(3), List.of()));
+        assertEquals(List.of(1, 3), presenceService.getOnlineParticipants(7, 1));
+    }
+
+    @Test
+    void throttleTyping_shouldForwardStartOncePerWindowAndAlwaysForwardStop() {
+        ChatTypingDto started = new ChatTypingDto(7, 2, null, true);
+
+        assertEquals("Jan", presenceService.throttleTyping(started).orElseThrow().senderName());
+        assertTrue(presenceService.throttleTyping(started).isEmpty());
+        assertFalse(presenceService.throttleTyping(new ChatTypingDto(7, 2, null, false)).orElseThrow().typing());
+        assertTrue(presenceService.throttleTyping(started).isPresent());
+        assertTrue(presenceService.throttleTyping(new ChatTypingDto(7, 1, null, true)).isPresent());
+    }
+
+    @Test
+    void presence_shouldStayConsistentUnderTenThousandConcurrentSessions() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger cameOnline = new AtomicInteger();
+        AtomicInteger wentOffline = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Future<?>> connects = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            connects.add(executor.submit(() -> {
+                for (int s = thread; s < SESSIONS; s += THREADS) {
+                    if (presenceService.connect("session-" + s, s % USERS)) {
+                        cameOnline.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : connects) {
+            future.get();
+        }
+        long connectNanos = System.nanoTime() - start;
+
+        assertEquals(SESSIONS, presenceService.sessionCount());
+        assertEquals(USERS, presenceService.onlineUserCount());
+        assertEquals(USERS, cameOnline.get());
+
+        List<Future<?>> typing = new ArrayList<>();
+        AtomicInteger forwarded = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            typing.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (presenceService.throttleTyping(new ChatTypingDto(7, 2, null, true)).isPresent()) {
+                        forwarded.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : typing) {
+            future.get();
+        }
+        assertEquals(1, forwarded.get());
+
+        start = System.nanoTime();
+        List<Future<?>> disconnects = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            disconnects.add(executor.submit(() -> {
+                for (int s = thread; s < SESSIONS; s += THREADS) {
+                    if (presenceService.disconnect("session-" + s)) {
+                        wentOffline.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : disconnects) {
+            future.get();
+        }
+        long disconnectNanos = System.nanoTime() - start;
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(0, presenceService.sessionCount());
+        assertEquals(0, presenceService.onlineUserCount());
+        assertEquals(USERS, wentOffline.get());
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(connectNanos + disconnectNanos) < 5,
+                "10k sessions took " + TimeUnit.NANOSECONDS.toMillis(connectNanos + disconnectNanos) + " ms");
+    }
+}
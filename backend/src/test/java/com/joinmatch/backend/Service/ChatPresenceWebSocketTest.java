@@ -0,0 +1,164 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.config.JwtService;
+import com.joinmatch.backend.dto.Message.ChatPresenceDto;
+import com.joinmatch.backend.dto.Message.ChatTypingDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatPresenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ChatPresenceWebSocketTest {
+
+    @LocalServerPort private int port;
+    @Autowired private JwtService jwtService;
+    @Autowired private ChatPresenceService presenceService;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private UserRepository userRepository;
+
+    private final List<WebSocketStompClient> clients = new ArrayList<>();
+
+    @AfterEach
+    void stopClients() {
+        clients.forEach(WebSocketStompClient::stop);
+    }
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail("presence-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private StompSession connect(User user) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtService.generateToken(user));
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        clients.add(client);
+        return client
+                .connectAsync("ws://localhost:" + port + "/ws/websocket", new WebSocketHttpHeaders(),
+                        connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private <T> BlockingQueue<T> subscribe(StompSession session, String destination, Class<T> type) {
+        BlockingQueue<T> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return type;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add(type.cast(payload));
+            }
+        });
+        return received;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within timeout");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void typingAndPresence_shouldReachOnlyConversationMembers() throws Exception {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(anna, jan)))
+                .build());
+        String topic = "/topic/conversation/" + conversation.getId();
+
+        StompSession annaSession = connect(anna);
+        awaitTrue(() -> presenceService.isOnline(anna.getId()));
+        BlockingQueue<ChatTypingDto> typing = subscribe(annaSession, topic + "/typing", ChatTypingDto.class);
+        BlockingQueue<ChatPresenceDto> presence = subscribe(annaSession, topic + "/presence", ChatPresenceDto.class);
+        Thread.sleep(200);
+
+        StompSession janSession = connect(jan);
+        ChatPresenceDto online = presence.poll(10, TimeUnit.SECONDS);
+        assertEquals(new ChatPresenceDto(jan.getId(), true), online);
+        assertEquals(List.of(anna.getId(), jan.getId()), presenceService.getOnlineParticipants(conversation.getId(), anna.getId()));
+
+        for (int i = 0; i < 5; i++) {
+            janSession.send("/app/chat.typing", new ChatTypingDto(conversation.getId(), jan.getId(), null, true));
+        }
+        janSession.send("/app/chat.typing", new ChatTypingDto(conversation.getId(), jan.getId(), null, false));
+
+        ChatTypingDto started = typing.poll(10, TimeUnit.SECONDS);
+        assertNotNull(started);
+        assertTrue(started.typing());
+        assertEquals("Jan", started.senderName());
+        ChatTypingDto stopped = typing.poll(10, TimeUnit.SECONDS);
+        assertNotNull(stopped);
+        assertFalse(stopped.typing());
+        assertNull(typing.poll(300, TimeUnit.MILLISECONDS));
+
+        janSession.disconnect();
+        assertEquals(new ChatPresenceDto(jan.getId(), false), presence.poll(10, TimeUnit.SECONDS));
+        assertFalse(presenceService.isOnline(jan.getId()));
+    }
+
+    @Test
+    void typing_shouldNotReachNonMember() throws Exception {
+        User anna = saveUser("Anna");
+        User stranger = saveUser("Obcy");
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(anna)))
+                .build());
+        String topic = "/topic/conversation/" + conversation.getId() + "/typing";
+
+        StompSession annaSession = connect(anna);
+        BlockingQueue<ChatTypingDto> annaTyping = subscribe(annaSession, topic, ChatTypingDto.class);
+        BlockingQueue<ChatTypingDto> strangerTyping = subscribe(connect(stranger), topic, ChatTypingDto.class);
+        Thread.sleep(200);
+
+        annaSession.send("/app/chat.typing", new ChatTypingDto(conversation.getId(), anna.getId(), null, true));
+
+        assertNotNull(annaTyping.poll(10, TimeUnit.SECONDS));
+        assertNull(strangerTyping.poll(300, TimeUnit.MILLISECONDS));
+    }
+}
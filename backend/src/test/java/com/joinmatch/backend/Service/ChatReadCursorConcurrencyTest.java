@@ -0,0 +1,97 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.MessageSeqAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ChatReadCursorConcurrencyTest {
+
+    @Autowired private ChatService chatService;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private ConversationReadCursorRepository readCursorRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private MessageSeqAllocator seqAllocator;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail("cursor-" + System.nanoTime() + "-" + name + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    @Test
+    void markMessagesAsRead_shouldKeepSingleCursor_whenFirstReadsRace() throws Exception {
+        User reader = saveUser("Ja");
+        User sender = saveUser("Marek");
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(reader, sender)))
+                .build());
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String content = "Wiadomość " + i;
+            seqs.add(new TransactionTemplate(transactionManager).execute(status -> messageRepository.save(Message.builder()
+                    .conversation(conversation)
+                    .seq(seqAllocator.next(conversation.getId()))
+                    .sender(sender)
+                    .content(content)
+                    .createdAt(LocalDateTime.now())
+                    .build())).getSeq());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Long seq : seqs) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    chatService.markMessagesAsRead(conversation.getId(), reader.getId(), seq);
+                    return null;
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        ConversationReadCursor cursor = readCursorRepository
+                .findByConversationIdAndUserId(conversation.getId(), reader.getId())
+                .orElseThrow();
+        assertEquals(seqs.get(seqs.size() - 1), cursor.getLastReadSeq());
+    }
+}
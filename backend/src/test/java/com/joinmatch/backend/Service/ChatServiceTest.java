@@ -2,15 +2,28 @@ package com.joinmatch.backend.Service;
 import com.joinmatch.backend.dto.Message.ChatMessageDto;
 import com.joinmatch.backend.dto.Message.ConversationDto;
 import com.joinmatch.backend.dto.Message.ConversationPreviewDto;
+import com.joinmatch.backend.dto.Message.ConversationPreviewRowDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
 import com.joinmatch.backend.enums.ConversationType;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.events.ChatMessagesRead;
 import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import com.joinmatch.backend.service.ChatMessageWriteBehind;
+import com.joinmatch.backend.service.ChatUnreadService;
+import com.joinmatch.backend.service.MessageSeqAllocator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -28,7 +41,13 @@ class ChatServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private EventRepository eventRepository;
     @Mock private TeamRepository teamRepository;
-    @Mock private MessageReadRepository messageReadRepository;
+    @Mock private ConversationReadCursorRepository readCursorRepository;
+    @Mock private ChatUnreadService chatUnreadService;
+    @Mock private ChatMembershipCache membershipCache;
+    @Mock private ChatMessageWriteBehind chatMessageWriteBehind;
+    @Mock private MessageSeqAllocator seqAllocator;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private ChatService chatService;
@@ -59,6 +78,7 @@ class ChatServiceTest {
                 null,
                 null,
                 null,
+                null,
                 null
         );
 
@@ -67,6 +87,7 @@ class ChatServiceTest {
 
         when(userRepository.findById(5))
                 .thenReturn(Optional.of(sender));
+        when(seqAllocator.next(10)).thenReturn(7L);
 
         Message saved = Message.builder()
                 .id(99)
@@ -93,10 +114,20 @@ class ChatServiceTest {
         assertEquals(5, out.senderId());
         assertEquals("Kuba", out.senderName());
         assertEquals("Hello!", out.content());
+        assertEquals(7L, out.seq());
 
         verify(messageRepository).save(any());
     }
 
+    @Test
+    void postMessage_shouldNotSaveSynchronously_whenWriteBehindDisabled() {
+        ChatMessageDto dto = new ChatMessageDto(null, 10, 5, null, null, "Hello!",
+                null, null, null, null, null);
+
+        assertThrows(IllegalStateException.class, () -> chatService.postMessage(dto));
+        verify(messageRepository, never()).save(any());
+    }
+
     // ============================================================
     // 2) getMessagesByConversation()
     // ============================================================
@@ -127,16 +158,26 @@ class ChatServiceTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(77))
-                .thenReturn(List.of(m1, m2));
+        when(messageRepository.findPageBefore(77, Long.MAX_VALUE, 50))
+                .thenReturn(List.of(m2, m1));
 
-        List<ChatMessageDto> out = chatService.getMessagesByConversation(77);
+        List<ChatMessageDto> out = chatService.getMessagesByConversation(77, null, 50);
 
         assertEquals(2, out.size());
         assertEquals("msg1", out.get(0).content());
         assertEquals("msg2", out.get(1).content());
     }
 
+    @Test
+    void getMessagesByConversation_shouldCapPageSize() {
+        when(messageRepository.findPageBefore(77, 500L, 200)).thenReturn(List.of());
+
+        List<ChatMessageDto> out = chatService.getMessagesByConversation(77, 500L, 10_000);
+
+        assertTrue(out.isEmpty());
+        verify(messageRepository).findPageBefore(77, 500L, 200);
+    }
+
     // ============================================================
     // 3) createDirectConversation()
     // ============================================================
@@ -238,43 +279,20 @@ class ChatServiceTest {
 
     @Test
     void getUserConversationPreviews_shouldReturnPreviewForPrivateChat() {
+        Pageable pageable = PageRequest.of(0, 50);
+        LocalDateTime lastAt = LocalDateTime.now();
 
-        // ========== USERS ==========
-        User owner = new User();
-        owner.setId(10);
-        owner.setName("Owner");
-
-        User other = new User();
-        other.setId(20);
-        other.setName("Marek");
-        other.setUrlOfPicture("photo.png");
-
-        // ========== CONVERSATION ==========
-        Conversation c = new Conversation();
-        c.setId(111);
-        c.setType(ConversationType.PRIVATE);
-        c.setParticipants(List.of(owner, other));
-
-        when(conversationRepository.findByParticipantId(10))
-                .thenReturn(List.of(c));
-
-        // ========== LAST MESSAGE ==========
-        Message lastMsg = Message.builder()
-                .id(55)
-                .conversation(c)
-                .sender(other)
-                .content("Siema!")
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(messageRepository.findTopByConversationIdOrderByCreatedAtDesc(111))
-                .thenReturn(Optional.of(lastMsg));
-
-        when(messageRepository.countUnreadMessages(111, 10))
-                .thenReturn(3L);
+        when(conversationRepository.findPreviewsByParticipantId(10, pageable))
+                .thenReturn(List.of(new ConversationPreviewRowDto(
+                        111, ConversationType.PRIVATE,
+                        null, null,
+                        null, null,
+                        "Marek", "photo.png",
+                        "Marek", "Siema!", lastAt,
+                        3L
+                )));
 
-        // ========== RUN ==========
-        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(10);
+        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(10, 0, 50);
 
         assertEquals(1, out.size());
         ConversationPreviewDto preview = out.get(0);
@@ -284,33 +302,25 @@ class ChatServiceTest {
         assertEquals("photo.png", preview.avatarUrl());
         assertEquals("Marek: Siema!", preview.lastMessage());
         assertEquals(3, preview.unreadCount());
+        assertEquals(lastAt, preview.lastMessageAt());
+        verifyNoInteractions(messageRepository);
     }
 
     @Test
     void getUserConversationPreviews_shouldReturnPreviewForTeamChat() {
+        Pageable pageable = PageRequest.of(0, 50);
 
-        // ========== TEAM ==========
-        Team t = new Team();
-        t.setId(77);
-        t.setName("Dzikie Koty");
-        t.setPhotoUrl("team.png");
-
-        // ========== CONVERSATION ==========
-        Conversation c = new Conversation();
-        c.setId(222);
-        c.setType(ConversationType.TEAM);
-        c.setTeam(t);
-
-        when(conversationRepository.findByParticipantId(5))
-                .thenReturn(List.of(c));
-
-        when(messageRepository.findTopByConversationIdOrderByCreatedAtDesc(222))
-                .thenReturn(Optional.empty());
-
-        when(messageRepository.countUnreadMessages(222, 5))
-                .thenReturn(0L);
+        when(conversationRepository.findPreviewsByParticipantId(5, pageable))
+                .thenReturn(List.of(new ConversationPreviewRowDto(
+                        222, ConversationType.TEAM,
+                        null, null,
+                        "Dzikie Koty", "team.png",
+                        null, null,
+                        null, null, null,
+                        0L
+                )));
 
-        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(5);
+        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(5, 0, 50);
 
         assertEquals(1, out.size());
         ConversationPreviewDto preview = out.get(0);
@@ -324,29 +334,19 @@ class ChatServiceTest {
 
     @Test
     void getUserConversationPreviews_shouldReturnPreviewForEventChat() {
+        Pageable pageable = PageRequest.of(0, 50);
 
-        // ========== EVENT ==========
-        Event event = new Event();
-        event.setEventId(33);
-        event.setEventName("Turniej Siatkówki");
-        event.setImageUrl("event.png");
-
-        // ========== CONVERSATION ==========
-        Conversation c = new Conversation();
-        c.setId(333);
-        c.setType(ConversationType.EVENT);
-        c.setEvent(event);
-
-        when(conversationRepository.findByParticipantId(8))
-                .thenReturn(List.of(c));
-
-        when(messageRepository.findTopByConversationIdOrderByCreatedAtDesc(333))
-                .thenReturn(Optional.empty());
-
-        when(messageRepository.countUnreadMessages(333, 8))
-                .thenReturn(10L);
+        when(conversationRepository.findPreviewsByParticipantId(8, pageable))
+                .thenReturn(List.of(new ConversationPreviewRowDto(
+                        333, ConversationType.EVENT,
+                        "Turniej Siatkówki", "event.png",
+                        null, null,
+                        null, null,
+                        null, null, null,
+                        10L
+                )));
 
-        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(8);
+        List<ConversationPreviewDto> out = chatService.getUserConversationPreviews(8, 0, 50);
 
         assertEquals(1, out.size());
         ConversationPreviewDto preview = out.get(0);
@@ -358,6 +358,15 @@ class ChatServiceTest {
         assertEquals(10, preview.unreadCount());
     }
 
+    @Test
+    void getUserConversationPreviews_shouldClampPageAndSize() {
+        chatService.getUserConversationPreviews(8, -3, 0);
+        chatService.getUserConversationPreviews(8, 2, 10_000);
+
+        verify(conversationRepository).findPreviewsByParticipantId(8, PageRequest.of(0, 1));
+        verify(conversationRepository).findPreviewsByParticipantId(8, PageRequest.of(2, 100));
+    }
+
     // ============================================================
     // 7) createTeamConversation()
     // ============================================================
@@ -501,49 +510,49 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void addUserToEventChat_shouldAddUserIfNotPresent() {
+    void addUserToEventChat_shouldInsertSingleRowAndPublish() {
+        when(conversationRepository.findIdByEventId(44)).thenReturn(Optional.of(200));
+        when(userRepository.findParticipantById(77))
+                .thenReturn(Optional.of(new ParticipantDto(77, "Anna", "a.png")));
+        when(conversationRepository.addParticipant(200, 77)).thenReturn(1);
 
-        // Conversation
-        Conversation conv = new Conversation();
-        conv.setId(200);
-        conv.setType(ConversationType.EVENT);
-        conv.setParticipants(new java.util.ArrayList<>());
-
-        when(conversationRepository.findByEventEventId(44))
-                .thenReturn(Optional.of(conv));
+        chatService.addUserToEventChat(44, 77);
 
-        // User
-        User user = new User();
-        user.setId(77);
+        verify(conversationRepository).addParticipant(200, 77);
+        verify(conversationRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(
+                ChatMembershipChanged.added(200, new ParticipantDto(77, "Anna", "a.png")));
+    }
 
-        when(userRepository.findById(77)).thenReturn(Optional.of(user));
+    @Test
+    void addUserToEventChat_shouldNotPublishIfAlreadyPresent() {
+        when(conversationRepository.findIdByEventId(44)).thenReturn(Optional.of(200));
+        when(userRepository.findParticipantById(77))
+                .thenReturn(Optional.of(new ParticipantDto(77, "Anna", null)));
+        when(conversationRepository.addParticipant(200, 77)).thenReturn(0);
 
         chatService.addUserToEventChat(44, 77);
 
-        assertEquals(1, conv.getParticipants().size());
-        assertEquals(77, conv.getParticipants().get(0).getId());
-        verify(conversationRepository).save(conv);
+        verify(eventPublisher, never()).publishEvent(any(ChatMembershipChanged.class));
     }
 
     @Test
-    void addUserToEventChat_shouldDoNothingIfAlreadyPresent() {
-
-        User user = new User();
-        user.setId(77);
-
-        Conversation conv = new Conversation();
-        conv.setParticipants(new java.util.ArrayList<>(List.of(user)));
+    void addUserToEventChat_shouldThrow_whenUserMissing() {
+        when(conversationRepository.findIdByEventId(44)).thenReturn(Optional.of(200));
+        when(userRepository.findParticipantById(77)).thenReturn(Optional.empty());
 
-        when(conversationRepository.findByEventEventId(44))
-                .thenReturn(Optional.of(conv));
+        assertThrows(RuntimeException.class, () -> chatService.addUserToEventChat(44, 77));
+        verify(conversationRepository, never()).addParticipant(any(), any());
+    }
 
-        when(userRepository.findById(77))
-                .thenReturn(Optional.of(user));
+    @Test
+    void addUserToEventChat_shouldDoNothing_whenEventHasNoChat() {
+        when(conversationRepository.findIdByEventId(44)).thenReturn(Optional.empty());
 
         chatService.addUserToEventChat(44, 77);
 
-        assertEquals(1, conv.getParticipants().size());
-        verify(conversationRepository, never()).save(any());
+        verifyNoInteractions(userRepository);
+        verify(conversationRepository, never()).addParticipant(any(), any());
     }
 
     // ============================================================
@@ -551,25 +560,15 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void removeUserFromEventChat_shouldRemoveUserAndSave() {
-
-        User u1 = new User();
-        u1.setId(1);
-
-        User u2 = new User();
-        u2.setId(2);
-
-        Conversation conv = new Conversation();
-        conv.setParticipants(new java.util.ArrayList<>(List.of(u1, u2)));
-
-        when(conversationRepository.findByEventEventId(99))
-                .thenReturn(Optional.of(conv));
+    void removeUserFromEventChat_shouldDeleteSingleRowAndPublish() {
+        when(conversationRepository.findIdByEventId(99)).thenReturn(Optional.of(300));
+        when(conversationRepository.removeParticipant(300, 2)).thenReturn(1);
 
         chatService.removeUserFromEventChat(99, 2);
 
-        assertEquals(1, conv.getParticipants().size());
-        assertEquals(1, conv.getParticipants().get(0).getId());
-        verify(conversationRepository).save(conv);
+        verify(conversationRepository).removeParticipant(300, 2);
+        verify(conversationRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(ChatMembershipChanged.removed(300, 2));
     }
 
     // ============================================================
@@ -577,42 +576,17 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void addUserToTeamChat_shouldAddUserIfNotPresent() {
-        User user = new User();
-        user.setId(10);
-
-        Conversation conv = new Conversation();
-        conv.setParticipants(new ArrayList<>());
-
-        when(conversationRepository.findByTeamId(5))
-                .thenReturn(Optional.of(conv));
-        when(userRepository.findById(10))
-                .thenReturn(Optional.of(user));
-
-        chatService.addUserToTeamChat(5, 10);
-
-        assertEquals(1, conv.getParticipants().size());
-        assertEquals(10, conv.getParticipants().get(0).getId());
-        verify(conversationRepository).save(conv);
-    }
-
-    @Test
-    void addUserToTeamChat_shouldNotSaveWhenAlreadyParticipant() {
-        User user = new User();
-        user.setId(10);
-
-        Conversation conv = new Conversation();
-        conv.setParticipants(new ArrayList<>(List.of(user)));
-
-        when(conversationRepository.findByTeamId(5))
-                .thenReturn(Optional.of(conv));
-        when(userRepository.findById(10))
-                .thenReturn(Optional.of(user));
+    void addUserToTeamChat_shouldInsertSingleRowAndPublish() {
+        when(conversationRepository.findIdByTeamId(5)).thenReturn(Optional.of(400));
+        when(userRepository.findParticipantById(10))
+                .thenReturn(Optional.of(new ParticipantDto(10, "Jan", null)));
+        when(conversationRepository.addParticipant(400, 10)).thenReturn(1);
 
         chatService.addUserToTeamChat(5, 10);
 
-        assertEquals(1, conv.getParticipants().size());
-        verify(conversationRepository, never()).save(any());
+        verify(conversationRepository).addParticipant(400, 10);
+        verify(eventPublisher).publishEvent(
+                ChatMembershipChanged.added(400, new ParticipantDto(10, "Jan", null)));
     }
 
     // ============================================================
@@ -620,23 +594,13 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void removeUserFromTeamChat_shouldRemoveUserAndSave() {
-        User u1 = new User();
-        u1.setId(1);
-        User u2 = new User();
-        u2.setId(2);
-
-        Conversation conv = new Conversation();
-        conv.setParticipants(new ArrayList<>(List.of(u1, u2)));
-
-        when(conversationRepository.findByTeamId(9))
-                .thenReturn(Optional.of(conv));
+    void removeUserFromTeamChat_shouldNotPublish_whenUserWasNotParticipant() {
+        when(conversationRepository.findIdByTeamId(9)).thenReturn(Optional.of(500));
+        when(conversationRepository.removeParticipant(500, 2)).thenReturn(0);
 
         chatService.removeUserFromTeamChat(9, 2);
 
-        assertEquals(1, conv.getParticipants().size());
-        assertEquals(1, conv.getParticipants().get(0).getId());
-        verify(conversationRepository).save(conv);
+        verify(eventPublisher, never()).publishEvent(any(ChatMembershipChanged.class));
     }
 
     // ============================================================
@@ -644,26 +608,65 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void markMessagesAsRead_shouldSaveReadForUnreadMessages() {
-        Message m1 = Message.builder().id(1).build();
-        Message m2 = Message.builder().id(2).build();
+    void markMessagesAsRead_shouldCreateCursorOnFirstRead() {
+        when(membershipCache.isMember(100, 7)).thenReturn(true);
+        when(conversationRepository.findLastMessageSeq(100)).thenReturn(60L);
+        when(readCursorRepository.lockByConversationIdAndUserId(100, 7))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(ConversationReadCursor.builder().lastReadSeq(0L).build()));
+        when(messageRepository.countInRange(100, 0L, 50L)).thenReturn(12L);
+
+        chatService.markMessagesAsRead(100, 7, 50L);
+
+        verify(readCursorRepository).insertIfAbsent(eq(100), eq(7), any(LocalDateTime.class));
+        ArgumentCaptor<ConversationReadCursor> captor = ArgumentCaptor.forClass(ConversationReadCursor.class);
+        verify(readCursorRepository).save(captor.capture());
+        assertEquals(50L, captor.getValue().getLastReadSeq());
+        assertNotNull(captor.getValue().getReadAt());
+        verify(eventPublisher).publishEvent(new ChatMessagesRead(7, 12L));
+    }
+
+    @Test
+    void markMessagesAsRead_shouldNotMoveCursorBackwards() {
+        ConversationReadCursor cursor = ConversationReadCursor.builder()
+                .lastReadSeq(80L)
+                .build();
+        when(membershipCache.isMember(100, 7)).thenReturn(true);
+        when(conversationRepository.findLastMessageSeq(100)).thenReturn(90L);
+        when(readCursorRepository.lockByConversationIdAndUserId(100, 7))
+                .thenReturn(Optional.of(cursor));
+
+        chatService.markMessagesAsRead(100, 7, 50L);
+
+        assertEquals(80L, cursor.getLastReadSeq());
+        verify(readCursorRepository, never()).save(any());
+    }
+
+    @Test
+    void markMessagesAsRead_shouldCapCursorAtLastMessageSeq() {
+        ConversationReadCursor cursor = ConversationReadCursor.builder()
+                .lastReadSeq(10L)
+                .build();
+        when(membershipCache.isMember(100, 7)).thenReturn(true);
+        when(conversationRepository.findLastMessageSeq(100)).thenReturn(20L);
+        when(readCursorRepository.lockByConversationIdAndUserId(100, 7))
+                .thenReturn(Optional.of(cursor));
+        when(messageRepository.countInRange(100, 10L, 20L)).thenReturn(10L);
 
-        when(messageRepository.findUnreadMessages(100, 7, 50))
-                .thenReturn(List.of(m1, m2));
+        chatService.markMessagesAsRead(100, 7, Long.MAX_VALUE);
 
-        User user = new User();
-        user.setId(7);
-        when(userRepository.findById(7)).thenReturn(Optional.of(user));
+        assertEquals(20L, cursor.getLastReadSeq());
+        verify(eventPublisher).publishEvent(new ChatMessagesRead(7, 10L));
+    }
 
-        when(messageReadRepository.existsByMessageIdAndUserId(1, 7))
-                .thenReturn(false);
-        when(messageReadRepository.existsByMessageIdAndUserId(2, 7))
-                .thenReturn(true); // drugi już przeczytany
+    @Test
+    void markMessagesAsRead_shouldReject_whenUserIsNotMember() {
+        when(membershipCache.isMember(100, 7)).thenReturn(false);
 
-        chatService.markMessagesAsRead(100, 7, 50);
+        assertThrows(SecurityException.class, () -> chatService.markMessagesAsRead(100, 7, 50L));
 
-        // tylko dla pierwszej wiadomości powinno być save
-        verify(messageReadRepository, times(1)).save(any(MessageRead.class));
+        verify(readCursorRepository, never()).insertIfAbsent(anyInt(), anyInt(), any());
+        verify(readCursorRepository, never()).save(any());
     }
 
     // ============================================================
@@ -671,23 +674,12 @@ class ChatServiceTest {
     // ============================================================
 
     @Test
-    void countTotalUnread_shouldSumUnreadFromAllConversations() {
-        Conversation c1 = new Conversation();
-        c1.setId(1);
-        Conversation c2 = new Conversation();
-        c2.setId(2);
-
-        when(conversationRepository.findByParticipantId(10))
-                .thenReturn(List.of(c1, c2));
-
-        when(messageRepository.countUnreadMessages(1, 10))
-                .thenReturn(3L);
-        when(messageRepository.countUnreadMessages(2, 10))
-                .thenReturn(5L);
+    void countTotalUnread_shouldUseCachedTotal() {
+        when(chatUnreadService.getTotal(10)).thenReturn(8L);
 
         long total = chatService.countTotalUnread(10);
 
         assertEquals(8L, total);
+        verifyNoInteractions(conversationRepository, messageRepository);
     }
 }
-
@@ -0,0 +1,86 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Message.ChatUnreadCountDto;
+import com.joinmatch.backend.dto.Message.ConversationMembersDto;
+import com.joinmatch.backend.dto.Message.ParticipantDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.events.ChatMembershipChanged;
+import com.joinmatch.backend.events.ChatMessageSaved;
+import com.joinmatch.backend.events.ChatMessagesRead;
+import com.joinmatch.backend.repository.MessageRepository;
+import com.joinmatch.backend.service.ChatMembershipCache;
+import com.joinmatch.backend.service.ChatUnreadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatUnreadServiceTest {
+
+    private MessageRepository messageRepository;
+    private ChatMembershipCache membershipCache;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatUnreadService chatUnreadService;
+
+    @BeforeEach
+    void setup() {
+        messageRepository = mock(MessageRepository.class);
+        membershipCache = mock(ChatMembershipCache.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        chatUnreadService = new ChatUnreadService(messageRepository, membershipCache, messagingTemplate,
+                100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void getTotal_shouldLoadFromDatabaseOnlyOnMiss() {
+        when(messageRepository.countTotalUnread(1)).thenReturn(4L);
+
+        assertEquals(4, chatUnreadService.getTotal(1));
+        assertEquals(4, chatUnreadService.getTotal(1));
+
+        verify(messageRepository, times(1)).countTotalUnread(1);
+    }
+
+    @Test
+    void onMessageSaved_shouldIncrementAndPushOnlyCachedParticipants() {
+        when(messageRepository.countTotalUnread(1)).thenReturn(4L);
+        chatUnreadService.getTotal(1);
+        when(membershipCache.get(50)).thenReturn(new ConversationMembersDto(50, ConversationType.PRIVATE, null, null, Map.of(
+                1, new ParticipantDto(1, "Anna", null),
+                2, new ParticipantDto(2, "Jan", null)
+        )));
+
+        chatUnreadService.onMessageSaved(new ChatMessageSaved(50, 900));
+
+        assertEquals(5, chatUnreadService.getTotal(1));
+        verify(messagingTemplate).convertAndSendToUser("1", "/queue/chat-unread", new ChatUnreadCountDto(5));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("2"), anyString(), any(Object.class));
+    }
+
+    @Test
+    void onMessagesRead_shouldDecrementWithoutGoingNegative() {
+        when(messageRepository.countTotalUnread(1)).thenReturn(3L);
+        chatUnreadService.getTotal(1);
+
+        chatUnreadService.onMessagesRead(new ChatMessagesRead(1, 10));
+
+        assertEquals(0, chatUnreadService.getTotal(1));
+        verify(messagingTemplate).convertAndSendToUser("1", "/queue/chat-unread", new ChatUnreadCountDto(0));
+    }
+
+    @Test
+    void onMembershipChanged_shouldRebuildTotalOnNextRead() {
+        when(messageRepository.countTotalUnread(1)).thenReturn(3L, 7L);
+        chatUnreadService.getTotal(1);
+
+        chatUnreadService.onMembershipChanged(ChatMembershipChanged.removed(50, 1));
+
+        assertEquals(7, chatUnreadService.getTotal(1));
+    }
+}
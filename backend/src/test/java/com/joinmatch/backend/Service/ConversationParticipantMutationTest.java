@@ -0,0 +1,94 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.Team;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.TeamRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ConversationParticipantMutationTest {
+
+    @Autowired private ChatService chatService;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail("participant-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private int countParticipants(Integer conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM conversation_participants WHERE conversation_id = ?", Integer.class, conversationId);
+    }
+
+    @Test
+    void joinAndLeave_shouldTouchSingleRowOfLargeTeamConversation() {
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            members.add(saveUser("Member " + i));
+        }
+        User newcomer = saveUser("Nowy");
+
+        Team team = new Team();
+        team.setName("Drużyna");
+        team.setCity("Kraków");
+        team.setLeader(members.get(0));
+        team.setCreatedAt(LocalDateTime.now());
+        team = teamRepository.save(team);
+
+        Integer id = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.TEAM)
+                .team(team)
+                .participants(members)
+                .build()).getId();
+        Integer leaverId = members.get(100).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        chatService.addUserToTeamChat(team.getId(), newcomer.getId());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        chatService.removeUserFromTeamChat(team.getId(), leaverId);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        chatService.addUserToTeamChat(team.getId(), newcomer.getId());
+
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(200, countParticipants(id));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM conversation_participants WHERE conversation_id = ? AND user_id = ?",
+                Integer.class, id, leaverId));
+    }
+}
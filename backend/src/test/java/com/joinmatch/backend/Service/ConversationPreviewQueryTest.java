@@ -0,0 +1,128 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Message.ConversationPreviewDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.MessageSeqAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ConversationPreviewQueryTest {
+
+    @Autowired private ChatService chatService;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private MessageSeqAllocator seqAllocator;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private final String prefix = "preview-" + System.nanoTime() + "-";
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail(prefix + name + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        u.setUrlOfPicture(name + ".png");
+        return userRepository.save(u);
+    }
+
+    private Message saveMessage(Conversation conversation, User sender, String content, LocalDateTime createdAt) {
+        return new TransactionTemplate(transactionManager).execute(status -> messageRepository.save(Message.builder()
+                .conversation(conversation)
+                .seq(seqAllocator.next(conversation.getId()))
+                .sender(sender)
+                .content(content)
+                .createdAt(createdAt)
+                .build()));
+    }
+
+    @Test
+    void getUserConversationPreviews_shouldLoadInboxInSingleStatement() {
+        User me = saveUser("Ja");
+        User other = saveUser("Marek");
+        LocalDateTime now = LocalDateTime.now();
+
+        Conversation direct = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(me, other)))
+                .build());
+        Message read = saveMessage(direct, other, "Cześć", now.minusHours(2));
+        saveMessage(direct, other, "Grasz jutro?", now.minusHours(1));
+        chatService.markMessagesAsRead(direct.getId(), me.getId(), read.getSeq());
+
+        Team team = new Team();
+        team.setName("Dzikie Koty");
+        team.setCity("Warszawa");
+        team.setLeader(other);
+        team.setPhotoUrl("team.png");
+        team.setCreatedAt(now);
+        team = teamRepository.save(team);
+        Conversation teamChat = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.TEAM)
+                .team(team)
+                .participants(new ArrayList<>(List.of(me, other)))
+                .build());
+        saveMessage(teamChat, me, "Jestem", now);
+
+        Conversation empty = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(me, saveUser("Ola"))))
+                .build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ConversationPreviewDto> inbox = chatService.getUserConversationPreviews(me.getId(), 0, 50);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(teamChat.getId(), direct.getId(), empty.getId()),
+                inbox.stream().map(ConversationPreviewDto::id).toList());
+
+        ConversationPreviewDto teamPreview = inbox.get(0);
+        assertEquals("Dzikie Koty", teamPreview.name());
+        assertEquals("team.png", teamPreview.avatarUrl());
+        assertEquals("Ja: Jestem", teamPreview.lastMessage());
+
+        ConversationPreviewDto directPreview = inbox.get(1);
+        assertEquals("Marek", directPreview.name());
+        assertEquals("Marek.png", directPreview.avatarUrl());
+        assertEquals("Marek: Grasz jutro?", directPreview.lastMessage());
+        assertEquals(1, directPreview.unreadCount());
+
+        ConversationPreviewDto emptyPreview = inbox.get(2);
+        assertEquals("Ola", emptyPreview.name());
+        assertEquals("Brak wiadomości", emptyPreview.lastMessage());
+        assertEquals(0, emptyPreview.unreadCount());
+
+        assertEquals(2, chatService.countTotalUnread(me.getId()));
+
+        assertEquals(List.of(direct.getId()),
+                chatService.getUserConversationPreviews(me.getId(), 1, 1).stream()
+                        .map(ConversationPreviewDto::id).toList());
+    }
+}
@@ -0,0 +1,157 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Event.EventDetailsResponseDto;
+import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.events.EventDetailsChanged;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.EventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventDetailsQueryCountTest {
+
+    @Autowired private EventService eventService;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SportRepository sportRepository;
+    @Autowired private SportObjectRepository sportObjectRepository;
+    @Autowired private EventVisibilityRepository eventVisibilityRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private UserTeamRepository userTeamRepository;
+    @Autowired private EventTeamRepository eventTeamRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private User saveUser(String email) {
+        User u = new User();
+        u.setName("User");
+        u.setEmail(email);
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private Event saveTeamEvent() {
+        String prefix = "details-" + System.nanoTime() + "-";
+        User owner = saveUser(prefix + "owner@test.pl");
+
+        Sport sport = new Sport();
+        sport.setName("Football");
+        sport.setURL("football.png");
+        sport = sportRepository.save(sport);
+
+        SportObject sportObject = new SportObject();
+        sportObject.setName("Hall");
+        sportObject.setCity("Warszawa");
+        sportObject.setStreet("Main");
+        sportObject.setNumber(1);
+        sportObject.setLatitude(52.0);
+        sportObject.setLongitude(21.0);
+        sportObject = sportObjectRepository.save(sportObject);
+
+        Event e = new Event();
+        e.setEventName("Team event");
+        e.setNumberOfParticipants(40);
+        e.setCost(BigDecimal.TEN);
+        e.setOwner(owner);
+        e.setSportObject(sportObject);
+        e.setSportEv(sport);
+        e.setEventVisibility(eventVisibilityRepository.save(new EventVisibility(null, "Publiczne")));
+        e.setEventDate(LocalDateTime.now().plusDays(7));
+        e.setMinLevel(1);
+        e.setStatus(EventStatus.PLANNED);
+        e.setForTeam(true);
+        e.setPaymentMethods(List.of("Gotówka", "BLIK"));
+        Event event = eventRepository.save(e);
+
+        for (int t = 0; t < 5; t++) {
+            User leader = saveUser(prefix + "leader" + t + "@test.pl");
+            Team team = new Team();
+            team.setName("Team " + t);
+            team.setCity("Warszawa");
+            team.setLeader(leader);
+            team.setCreatedAt(LocalDateTime.now());
+            team = teamRepository.save(team);
+
+            for (int m = 0; m < 4; m++) {
+                UserTeam userTeam = new UserTeam();
+                userTeam.setTeam(team);
+                userTeam.setUser(saveUser(prefix + "t" + t + "m" + m + "@test.pl"));
+                userTeam.setCreatedAt(LocalDateTime.now());
+                userTeamRepository.save(userTeam);
+            }
+
+            EventTeam eventTeam = new EventTeam();
+            eventTeam.setEvent(event);
+            eventTeam.setTeam(team);
+            eventTeam.setJoinedAt(LocalDateTime.now());
+            eventTeam.setReservedSpots(4);
+            eventTeamRepository.save(eventTeam);
+        }
+        return event;
+    }
+
+    @Test
+    void getDetailsById_shouldLoadPageInAtMostThreeStatements() {
+        Event event = saveTeamEvent();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled());
+        statistics.clear();
+
+        EventDetailsResponseDto dto = eventService.getDetailsById(event.getEventId());
+
+        assertEquals(5, dto.teams().size());
+        assertEquals(20, dto.teamParticipants());
+        assertEquals("Gotówka, BLIK", dto.paymentMethod());
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getDetailsById_shouldServeRepeatedReadsFromCache() {
+        Event event = saveTeamEvent();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        eventService.getDetailsById(event.getEventId());
+        statistics.clear();
+        eventService.getDetailsById(event.getEventId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "eventDetails").tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    void getDetailsById_shouldReload_whenDetailsChanged() {
+        Event event = saveTeamEvent();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        eventService.getDetailsById(event.getEventId());
+        eventPublisher.publishEvent(new EventDetailsChanged(event.getEventId()));
+        statistics.clear();
+        eventService.getDetailsById(event.getEventId());
+
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventRankingQueryTest {
+
+    @Autowired private EventRepository eventRepository;
+    @Autowired private EventRatingRepository eventRatingRepository;
+    @Autowired private UserEventRepository userEventRepository;
+    @Autowired private AttendanceStatusRepository attendanceStatusRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SportRepository sportRepository;
+    @Autowired private SportObjectRepository sportObjectRepository;
+    @Autowired private EventVisibilityRepository eventVisibilityRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+    private String city;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("MERGE INTO attendance_status (id, name) KEY (id) VALUES (1, 'Zaakceptowany')");
+        prefix = "ranking-" + System.nanoTime() + "-";
+        city = "Miasto" + System.nanoTime();
+    }
+
+    private User saveUser(String email) {
+        User u = new User();
+        u.setName("User");
+        u.setEmail(prefix + email);
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        u.setIsVerified(true);
+        return userRepository.save(u);
+    }
+
+    private Event saveEvent(int ratings, int participants) {
+        Sport sport = new Sport();
+        sport.setName("Football");
+        sport.setURL("football.png");
+        sport = sportRepository.save(sport);
+
+        SportObject sportObject = new SportObject();
+        sportObject.setName("Hall");
+        sportObject.setCity(city);
+        sportObject.setStreet("Main");
+        sportObject.setNumber(1);
+        sportObject.setLatitude(52.0);
+        sportObject.setLongitude(21.0);
+        sportObject = sportObjectRepository.save(sportObject);
+
+        Event e = new Event();
+        e.setEventName("Ranked event");
+        e.setNumberOfParticipants(20);
+        e.setCost(BigDecimal.ZERO);
+        e.setOwner(saveUser("owner@test.pl"));
+        e.setSportObject(sportObject);
+        e.setSportEv(sport);
+        e.setEventVisibility(eventVisibilityRepository.save(new EventVisibility(null, "Publiczne")));
+        e.setEventDate(LocalDateTime.now().minusDays(1));
+        e.setMinLevel(1);
+        e.setStatus(EventStatus.PLANNED);
+        Event event = eventRepository.save(e);
+
+        AttendanceStatus accepted = attendanceStatusRepository.findById(1).orElseThrow();
+        for (int i = 0; i < participants; i++) {
+            UserEvent ue = new UserEvent();
+            ue.setUser(saveUser("p" + i + "@test.pl"));
+            ue.setEvent(event);
+            ue.setAttendanceStatus(accepted);
+            userEventRepository.save(ue);
+        }
+        for (int i = 0; i < ratings; i++) {
+            EventRating rating = new EventRating();
+            rating.setEvent(event);
+            rating.setUser(saveUser("r" + i + "@test.pl"));
+            rating.setRating(i % 2 == 0 ? 5 : 4);
+            eventRatingRepository.save(rating);
+        }
+        return event;
+    }
+
+    private Object[] rowFor(List<Object[]> rows, Event event) {
+        return rows.stream()
+                .filter(row -> event.getEventId().equals(row[0]))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void findTopEventsByLocalRating_shouldNotMultiplyRatingsByParticipants() {
+        Event event = saveEvent(3, 4);
+
+        Object[] row = rowFor(eventRepository.findTopEventsByLocalRating(city, 10, 0), event);
+
+        assertEquals(14.0 / 3, ((Number) row[9]).doubleValue(), 0.0001);
+        assertEquals(3, ((Number) row[10]).intValue());
+        assertEquals(4, ((Number) row[11]).intValue());
+    }
+
+    @Test
+    void findTopEventsByRating_shouldApplyMinRatingsToRealCount() {
+        Event event = saveEvent(2, 5);
+
+        assertTrue(eventRepository.findTopEventsByRating(1000, 3).stream()
+                .noneMatch(row -> event.getEventId().equals(row[0])));
+        Object[] row = rowFor(eventRepository.findTopEventsByRating(1000, 2), event);
+        assertEquals(2, ((Number) row[10]).intValue());
+    }
+
+    @Test
+    void findTopEventsByPopularity_shouldCountEachParticipantOnce() {
+        Event event = saveEvent(6, 3);
+
+        Object[] row = rowFor(eventRepository.findTopEventsByPopularity(1000), event);
+
+        assertEquals(6, ((Number) row[10]).intValue());
+        assertEquals(3, ((Number) row[11]).intValue());
+    }
+}
@@ -0,0 +1,97 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Event.EventResponseDto;
+import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventSearchQueryTest {
+
+    @Autowired private EventService eventService;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SportRepository sportRepository;
+    @Autowired private SportObjectRepository sportObjectRepository;
+    @Autowired private EventVisibilityRepository eventVisibilityRepository;
+
+    private Event saveEvent(String name, String description, String sportName, String city) {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("search-" + System.nanoTime() + "@test.pl");
+        owner.setPassword("password");
+        owner.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        owner.setRole(Role.USER);
+        owner.setIsBlocked(false);
+        owner = userRepository.save(owner);
+
+        Sport sport = new Sport();
+        sport.setName(sportName);
+        sport.setURL("sport.png");
+        sport = sportRepository.save(sport);
+
+        SportObject sportObject = new SportObject();
+        sportObject.setName("Hall");
+        sportObject.setCity(city);
+        sportObject.setStreet("Main");
+        sportObject.setNumber(1);
+        sportObject.setLatitude(52.0);
+        sportObject.setLongitude(21.0);
+        sportObject = sportObjectRepository.save(sportObject);
+
+        Event e = new Event();
+        e.setEventName(name);
+        e.setDescription(description);
+        e.setNumberOfParticipants(10);
+        e.setCost(BigDecimal.ZERO);
+        e.setOwner(owner);
+        e.setSportObject(sportObject);
+        e.setSportEv(sport);
+        e.setEventVisibility(eventVisibilityRepository.save(new EventVisibility(null, "Publiczne")));
+        e.setEventDate(LocalDateTime.now().plusDays(3));
+        e.setMinLevel(1);
+        e.setStatus(EventStatus.PLANNED);
+        e.setPaymentMethods(List.of("Gotówka"));
+        return eventRepository.save(e);
+    }
+
+    private List<Integer> search(String term) {
+        Page<EventResponseDto> page = eventService.getAll(PageRequest.of(0, 20), "eventDate", "ASC",
+                null, null, null, null, null, null, null, term);
+        return page.getContent().stream().map(EventResponseDto::eventId).toList();
+    }
+
+    @Test
+    void getAll_shouldMatchNameDescriptionSportAndCity_rankingNameFirst() {
+        String token = "q" + System.nanoTime();
+        Event byDescription = saveEvent("Wieczorne granie", "Mecz " + token, "Siatkówka", "Gdańsk");
+        Event byName = saveEvent("Turniej " + token, null, "Siatkówka", "Gdańsk");
+        Event bySport = saveEvent("Granie", null, "Padel" + token, "Gdańsk");
+        Event byCity = saveEvent("Granie", null, "Siatkówka", "Miasto" + token);
+        saveEvent("Inne", "Nic wspólnego", "Siatkówka", "Gdańsk");
+
+        List<Integer> found = search(token);
+
+        assertEquals(4, found.size());
+        assertEquals(byName.getEventId(), found.get(0));
+        assertTrue(found.containsAll(List.of(byDescription.getEventId(), bySport.getEventId(), byCity.getEventId())));
+        assertEquals(4, eventService.getAll(PageRequest.of(0, 2), "eventDate", "ASC",
+                null, null, null, null, null, null, null, token).getTotalElements());
+    }
+}
@@ -2,18 +2,23 @@ package com.joinmatch.backend.Service;
 
 import com.joinmatch.backend.config.CookieUtil;
 import com.joinmatch.backend.dto.Event.EventDetailsResponseDto;
+import com.joinmatch.backend.dto.Event.EventFeedDto;
 import com.joinmatch.backend.dto.Event.EventRequestDto;
 import com.joinmatch.backend.dto.Event.EventResponseDto;
+import com.joinmatch.backend.dto.EventTeam.EventTeamSummaryDto;
 import com.joinmatch.backend.dto.Reports.EventReportDto;
 import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.events.EventDetailsChanged;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
 import com.joinmatch.backend.service.EventService;
+import com.joinmatch.backend.service.WaitlistService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
@@ -32,6 +37,11 @@ public class EventServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private EventVisibilityRepository eventVisibilityRepository;
     @Mock private ReportEventRepository reportEventRepository;
+    @Mock private UserEventRepository userEventRepository;
+    @Mock private EventTeamRepository eventTeamRepository;
+    @Mock private TeamRepository teamRepository;
+    @Mock private WaitlistService waitlistService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EventService eventService;
@@ -112,6 +122,7 @@ public class EventServiceTest {
     @Test
     void getAll_shouldReturnMappedEvents() {
         Event e = mockEvent();
+        e.setBookedParticipants(4);
         Page<Event> page = new PageImpl<>(List.of(e));
 
         when(eventRepository.findAll(
@@ -129,11 +140,138 @@ public class EventServiceTest {
                 LocalDateTime.now().toLocalDate(),
                 LocalDateTime.now().toLocalDate(),
                 false,
-                true
+                true,
+                null
         );
 
         assertEquals(1, result.getTotalElements());
         assertEquals("Test Event", result.getContent().get(0).eventName());
+        assertEquals(4, result.getContent().get(0).bookedParticipants());
+        assertFalse(result.getContent().get(0).isBanned());
+    }
+
+    @Test
+    void getAll_shouldReadParticipantsFromCounter() {
+        when(eventRepository.findAll(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Pageable.class)
+        )).thenReturn(new PageImpl<>(List.of(mockEvent())));
+
+        Page<EventResponseDto> result = eventService.getAll(
+                PageRequest.of(0, 10),
+                "eventDate",
+                "ASC",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        assertEquals(0, result.getContent().get(0).bookedParticipants());
+        verifyNoInteractions(userEventRepository);
+    }
+
+
+    @Test
+    void getAll_shouldLeaveOrderingToRelevance_whenSearching() {
+        when(eventRepository.findAll(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Pageable.class)
+        )).thenReturn(Page.empty());
+
+        eventService.getAll(
+                PageRequest.of(0, 10),
+                "eventDate",
+                "ASC",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                "piłka warszawa"
+        );
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(eventRepository).findAll(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                pageableCaptor.capture()
+        );
+        assertTrue(pageableCaptor.getValue().getSort().isUnsorted());
+    }
+
+    @Test
+    void getFeed_shouldReturnCursor_whenMoreEventsExist() {
+        Event first = mockEvent();
+        Event second = mockEvent();
+        second.setEventId(2);
+
+        when(eventRepository.findSlice(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Sort.class),
+                eq(2)
+        )).thenReturn(List.of(first, second));
+
+        EventFeedDto feed = eventService.getFeed(null, 1, "ASC", null, null, null, null, null, null, null);
+
+        assertEquals(1, feed.items().size());
+        assertTrue(feed.hasMore());
+        assertNotNull(feed.nextCursor());
+    }
+
+    @Test
+    void getFeed_shouldResumeFromCursor() {
+        Event first = mockEvent();
+        Event second = mockEvent();
+        second.setEventId(2);
+
+        when(eventRepository.findSlice(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Sort.class),
+                anyInt()
+        )).thenReturn(List.of(first, second), List.of(second));
+
+        EventFeedDto firstPage = eventService.getFeed(null, 1, "ASC", null, null, null, null, null, null, null);
+        EventFeedDto secondPage = eventService.getFeed(firstPage.nextCursor(), 1, "ASC", null, null, null, null, null, null, null);
+
+        assertEquals(2, secondPage.items().get(0).eventId());
+        assertFalse(secondPage.hasMore());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void getFeed_shouldClampPageSize() {
+        Event first = mockEvent();
+        Event second = mockEvent();
+        second.setEventId(2);
+
+        when(eventRepository.findSlice(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Sort.class),
+                anyInt()
+        )).thenReturn(List.of(first, second));
+
+        EventFeedDto feed = eventService.getFeed(null, 0, "ASC", null, null, null, null, null, null, null);
+        eventService.getFeed(null, 10_000, "ASC", null, null, null, null, null, null, null);
+
+        assertEquals(1, feed.items().size());
+        assertTrue(feed.hasMore());
+        verify(eventRepository).findSlice(
+                ArgumentMatchers.<org.springframework.data.jpa.domain.Specification<Event>>any(),
+                any(Sort.class),
+                eq(101)
+        );
+    }
+
+    @Test
+    void getFeed_shouldThrow_whenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getFeed("not-a-cursor", 10, "ASC", null, null, null, null, null, null, null));
     }
 
 
@@ -145,7 +283,7 @@ public class EventServiceTest {
     void getDetailsById_shouldReturnDetails() {
         Event e = mockEvent();
 
-        when(eventRepository.findById(1)).thenReturn(Optional.of(e));
+        when(eventRepository.findDetailsById(1)).thenReturn(Optional.of(e));
 
         EventDetailsResponseDto dto = eventService.getDetailsById(1);
 
@@ -155,6 +293,37 @@ public class EventServiceTest {
         assertEquals("Sport Hall", dto.sportObjectName());
     }
 
+    @Test
+    void getDetailsById_shouldReturnBookedParticipantsFromCounter() {
+        Event e = mockEvent();
+        e.setBookedParticipants(6);
+
+        when(eventRepository.findDetailsById(1)).thenReturn(Optional.of(e));
+
+        EventDetailsResponseDto dto = eventService.getDetailsById(1);
+
+        assertEquals(10, dto.numberOfParticipants());
+        assertEquals(6, dto.bookedParticipants());
+    }
+
+    @Test
+    void getDetailsById_shouldSumTeamMembersFromSummaries() {
+        Event e = mockEvent();
+        e.setForTeam(true);
+
+        when(eventRepository.findDetailsById(1)).thenReturn(Optional.of(e));
+        when(eventTeamRepository.findSummariesByEventId(1)).thenReturn(List.of(
+                new EventTeamSummaryDto(1, "Orły", "Warszawa", null, 7, "Leader", 4L),
+                new EventTeamSummaryDto(2, "Sokoły", "Kraków", null, 8, "Leader 2", 3L)
+        ));
+
+        EventDetailsResponseDto dto = eventService.getDetailsById(1);
+
+        assertEquals(7, dto.teamParticipants());
+        assertEquals(2, dto.teams().size());
+        assertEquals("Orły", dto.teams().get(0).name());
+    }
+
 
     // ----------------------------------------------------------------------
     //  3) create()
@@ -252,4 +421,81 @@ public class EventServiceTest {
 
         verify(reportEventRepository, times(1)).save(any(ReportEvent.class));
     }
+
+    // ----------------------------------------------------------------------
+    //  joinEventAsTeam() / leaveEventAsTeam()
+    // ----------------------------------------------------------------------
+
+    private Team mockTeam(User leader, int members) {
+        Team team = new Team();
+        team.setId(3);
+        team.setLeader(leader);
+        for (int i = 0; i < members; i++) {
+            UserTeam ut = new UserTeam();
+            ut.setUser(mockUser(100 + i));
+            ut.setTeam(team);
+            team.getUserTeams().add(ut);
+        }
+        return team;
+    }
+
+    @Test
+    void joinEventAsTeam_shouldReserveSpotsForWholeTeam() {
+        Event e = mockEvent();
+        e.setForTeam(true);
+        User leader = mockUser(7);
+        HttpServletRequest request = mockRequestWithToken("token");
+
+        when(userRepository.findByTokenValue("token")).thenReturn(Optional.of(leader));
+        when(eventRepository.findById(1)).thenReturn(Optional.of(e));
+        when(teamRepository.findById(3)).thenReturn(Optional.of(mockTeam(leader, 3)));
+        when(eventRepository.reserveSpots(1, 3)).thenReturn(1);
+
+        eventService.joinEventAsTeam(1, 3, request);
+
+        ArgumentCaptor<EventTeam> captor = ArgumentCaptor.forClass(EventTeam.class);
+        verify(eventTeamRepository).save(captor.capture());
+        assertEquals(3, captor.getValue().getReservedSpots());
+    }
+
+    @Test
+    void joinEventAsTeam_shouldThrow_whenTeamDoesNotFit() {
+        Event e = mockEvent();
+        e.setForTeam(true);
+        User leader = mockUser(7);
+        HttpServletRequest request = mockRequestWithToken("token");
+
+        when(userRepository.findByTokenValue("token")).thenReturn(Optional.of(leader));
+        when(eventRepository.findById(1)).thenReturn(Optional.of(e));
+        when(teamRepository.findById(3)).thenReturn(Optional.of(mockTeam(leader, 3)));
+        when(eventRepository.reserveSpots(1, 3)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> eventService.joinEventAsTeam(1, 3, request));
+        verify(eventTeamRepository, never()).save(any());
+    }
+
+    @Test
+    void leaveEventAsTeam_shouldReleaseReservedSpots() {
+        Event e = mockEvent();
+        e.setForTeam(true);
+        User leader = mockUser(7);
+        Team team = mockTeam(leader, 4);
+        EventTeam eventTeam = new EventTeam();
+        eventTeam.setEvent(e);
+        eventTeam.setTeam(team);
+        eventTeam.setReservedSpots(3);
+        HttpServletRequest request = mockRequestWithToken("token");
+
+        when(userRepository.findByTokenValue("token")).thenReturn(Optional.of(leader));
+        when(eventRepository.findById(1)).thenReturn(Optional.of(e));
+        when(teamRepository.findById(3)).thenReturn(Optional.of(team));
+        when(eventTeamRepository.findByEvent_EventIdAndTeam_Id(1, 3)).thenReturn(Optional.of(eventTeam));
+
+        eventService.leaveEventAsTeam(1, 3, request);
+
+        verify(eventRepository).releaseSpots(1, 3);
+        verify(eventTeamRepository).delete(eventTeam);
+        verify(waitlistService).promote(1, 3);
+        verify(eventPublisher).publishEvent(new EventDetailsChanged(1));
+    }
 }
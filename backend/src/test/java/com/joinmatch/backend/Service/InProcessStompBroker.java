@@ -0,0 +1,193 @@
+package com.joinmatch.backend.Service;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal STOMP broker standing in for RabbitMQ/ActiveMQ: exact destination matching, no acks or heart-beats
+class InProcessStompBroker implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    InProcessStompBroker() throws IOException {
+        serverSocket = new ServerSocket(0);
+        executor.submit(this::acceptLoop);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    boolean hasSubscription(String destination) {
+        return connections.stream().anyMatch(c -> c.subscriptions.containsValue(destination));
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                executor.submit(connection::readLoop);
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void deliver(Map<String, String> headers, byte[] body) {
+        String destination = headers.get("destination");
+        for (Connection connection : connections) {
+            connection.subscriptions.forEach((id, subscribed) -> {
+                if (subscribed.equals(destination)) {
+                    Map<String, String> out = new LinkedHashMap<>();
+                    out.put("subscription", id);
+                    out.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                    out.put("destination", destination);
+                    if (headers.containsKey("content-type")) {
+                        out.put("content-type", headers.get("content-type"));
+                    }
+                    connection.write("MESSAGE", out, body);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private class Connection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        void readLoop() {
+            try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                while (true) {
+                    String command = readCommand(in);
+                    if (command == null) {
+                        break;
+                    }
+                    Map<String, String> headers = readHeaders(in);
+                    byte[] body = readBody(in, headers);
+                    if (!handle(command, headers, body)) {
+                        break;
+                    }
+                }
+            } catch (IOException ignored) {
+            } finally {
+                close();
+            }
+        }
+
+        private boolean handle(String command, Map<String, String> headers, byte[] body) {
+            switch (command) {
+                case "CONNECT", "STOMP" -> write("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+                case "SUBSCRIBE" -> subscriptions.put(headers.get("id"), headers.get("destination"));
+                case "UNSUBSCRIBE" -> subscriptions.remove(headers.get("id"));
+                case "SEND" -> deliver(headers, body);
+                case "DISCONNECT" -> {
+                    if (headers.containsKey("receipt")) {
+                        write("RECEIPT", Map.of("receipt-id", headers.get("receipt")), new byte[0]);
+                    }
+                    return false;
+                }
+                default -> {
+                }
+            }
+            return true;
+        }
+
+        synchronized void write(String command, Map<String, String> headers, byte[] body) {
+            try {
+                StringBuilder frame = new StringBuilder(command).append('\n');
+                headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+                frame.append("content-length:").append(body.length).append("\n\n");
+                out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+                out.write(body);
+                out.write(0);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private String readCommand(InputStream in) throws IOException {
+            String line;
+            do {
+                line = readLine(in);
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isEmpty());
+            return line;
+        }
+
+        private Map<String, String> readHeaders(InputStream in) throws IOException {
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+            return headers;
+        }
+
+        private byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (headers.containsKey("content-length")) {
+                body.write(in.readNBytes(Integer.parseInt(headers.get("content-length"))));
+                in.read();
+            } else {
+                int b;
+                while ((b = in.read()) > 0) {
+                    body.write(b);
+                }
+            }
+            return body.toByteArray();
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    String value = line.toString(StandardCharsets.UTF_8);
+                    return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+                }
+                line.write(b);
+            }
+            return null;
+        }
+    }
+}
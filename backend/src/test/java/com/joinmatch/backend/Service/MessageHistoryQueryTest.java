@@ -0,0 +1,173 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Message.ChatCatchUpDto;
+import com.joinmatch.backend.dto.Message.ChatCatchUpRequestDto;
+import com.joinmatch.backend.dto.Message.ChatMessageDto;
+import com.joinmatch.backend.enums.ConversationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.Conversation;
+import com.joinmatch.backend.model.Message;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.ConversationRepository;
+import com.joinmatch.backend.repository.MessageRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.MessageSeqAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class MessageHistoryQueryTest {
+
+    @Autowired private ChatService chatService;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private MessageSeqAllocator seqAllocator;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User saveUser(String name) {
+        User u = new User();
+        u.setName(name);
+        u.setEmail("history-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        u.setUrlOfPicture(name + ".png");
+        return userRepository.save(u);
+    }
+
+    @Test
+    void getMessagesByConversation_shouldPageBackwardsInSingleStatement() {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(anna, jan)))
+                .build());
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            int n = i;
+            ids.add(new TransactionTemplate(transactionManager).execute(status -> messageRepository.save(Message.builder()
+                    .conversation(conversation)
+                    .seq(seqAllocator.next(conversation.getId()))
+                    .sender(n % 2 == 0 ? anna : jan)
+                    .content("msg" + n)
+                    .createdAt(LocalDateTime.now())
+                    .build())).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ChatMessageDto> latest = chatService.getMessagesByConversation(conversation.getId(), null, 10);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(ids.subList(20, 30), latest.stream().map(ChatMessageDto::messageId).toList());
+        assertEquals("Jan", latest.get(9).senderName());
+        assertEquals("Jan.png", latest.get(9).senderAvatarUrl());
+        assertEquals("PRIVATE", latest.get(9).conversationType());
+
+        List<ChatMessageDto> older = chatService.getMessagesByConversation(conversation.getId(), latest.get(0).seq(), 25);
+
+        assertEquals(ids.subList(0, 20), older.stream().map(ChatMessageDto::messageId).toList());
+    }
+
+    @Test
+    void catchUp_shouldReturnOnlyMissedMessagesOfMemberConversationsInSingleStatement() {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        User ola = saveUser("Ola");
+        List<Conversation> joined = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            joined.add(conversationRepository.save(Conversation.builder()
+                    .type(ConversationType.PRIVATE)
+                    .participants(new ArrayList<>(List.of(anna, jan)))
+                    .build()));
+        }
+        Conversation foreign = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(jan, ola)))
+                .build());
+
+        for (Conversation conversation : List.of(joined.get(0), joined.get(1), joined.get(2), foreign)) {
+            for (int i = 0; i < 5; i++) {
+                chatService.saveMessage(new ChatMessageDto(null, conversation.getId(), jan.getId(), null, null,
+                        "msg" + i, null, null, null, null, null));
+            }
+        }
+
+        Map<Integer, Long> lastSeen = new HashMap<>();
+        lastSeen.put(joined.get(0).getId(), 3L);
+        lastSeen.put(joined.get(1).getId(), 5L);
+        lastSeen.put(joined.get(2).getId(), 0L);
+        lastSeen.put(foreign.getId(), 0L);
+        chatService.catchUp(new ChatCatchUpRequestDto(anna.getId(), lastSeen));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ChatCatchUpDto result = chatService.catchUp(new ChatCatchUpRequestDto(anna.getId(), lastSeen));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(result.complete());
+        assertEquals(List.of(4L, 5L), result.messages().stream()
+                .filter(m -> m.conversationId().equals(joined.get(0).getId()))
+                .map(ChatMessageDto::seq)
+                .toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.messages().stream()
+                .filter(m -> m.conversationId().equals(joined.get(2).getId()))
+                .map(ChatMessageDto::seq)
+                .toList());
+        assertEquals(7, result.messages().size());
+        assertEquals("Jan", result.messages().get(0).senderName());
+    }
+
+    @Test
+    void getMessagesByConversation_shouldFollowSeq_whenIdsAreOutOfOrder() {
+        User anna = saveUser("Anna");
+        User jan = saveUser("Jan");
+        Conversation conversation = conversationRepository.save(Conversation.builder()
+                .type(ConversationType.PRIVATE)
+                .participants(new ArrayList<>(List.of(anna, jan)))
+                .build());
+
+        // another node may hand out a lower id block for a later message
+        List<String> contents = new ArrayList<>();
+        for (long seq = 6; seq >= 1; seq--) {
+            contents.add(0, "msg" + seq);
+            messageRepository.save(Message.builder()
+                    .conversation(conversation)
+                    .seq(seq)
+                    .sender(anna)
+                    .content("msg" + seq)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+
+        List<ChatMessageDto> latest = chatService.getMessagesByConversation(conversation.getId(), null, 3);
+        List<ChatMessageDto> older = chatService.getMessagesByConversation(conversation.getId(), latest.get(0).seq(), 3);
+
+        assertEquals(contents.subList(3, 6), latest.stream().map(ChatMessageDto::content).toList());
+        assertEquals(contents.subList(0, 3), older.stream().map(ChatMessageDto::content).toList());
+    }
+}
@@ -0,0 +1,189 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.NotificationDispatcher;
+import com.joinmatch.backend.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "notifications.outbox.retry-delay=PT1S")
+@ActiveProfiles("test")
+class NotificationDispatcherTest {
+
+    @MockitoBean private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private NotificationDispatcher notificationDispatcher;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private User saveUser() {
+        User u = new User();
+        u.setName("Receiver");
+        u.setEmail("outbox-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private int outboxRows(Integer userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_outbox WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private int notificationRows(Integer userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private void awaitOutboxDrained(Integer userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (notificationDispatcher.pendingCount() == 0 && outboxRows(userId) == 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Outbox still holds " + outboxRows(userId) + " rows");
+    }
+
+    @Test
+    void send_shouldWriteOutboxInTransactionAndPushOnlyAfterCommit() throws Exception {
+        User receiver = saveUser();
+        User sender = saveUser();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.sendModeratorWarning(receiver);
+            notificationService.sendFriendRequestNotification(receiver, sender, 7);
+            verifyNoInteractions(messagingTemplate);
+        });
+
+        verify(messagingTemplate, timeout(5_000).times(2))
+                .convertAndSendToUser(eq(receiver.getId().toString()), eq(NotificationDispatcher.DESTINATION), any());
+        awaitOutboxDrained(receiver.getId());
+        assertEquals(2, notificationRows(receiver.getId()));
+        assertNotNull(notificationService.getUserNotifications(receiver.getId()).stream()
+                .filter(n -> n.data() != null).findFirst().orElseThrow().data());
+        assertTrue(meterRegistry.counter("notifications.outbox.delivered").count() >= 2);
+    }
+
+    @Test
+    void send_shouldNotPush_whenTransactionRollsBack() throws Exception {
+        User receiver = saveUser();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.sendModeratorWarning(receiver);
+            status.setRollbackOnly();
+        });
+
+        Thread.sleep(200);
+        verify(messagingTemplate, never()).convertAndSendToUser(eq(receiver.getId().toString()), any(), any());
+        assertEquals(0, outboxRows(receiver.getId()));
+        assertEquals(0, notificationRows(receiver.getId()));
+    }
+
+    @Test
+    void sweep_shouldRetryFailedPush() throws Exception {
+        User receiver = saveUser();
+        String userId = receiver.getId().toString();
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .doNothing()
+                .when(messagingTemplate).convertAndSendToUser(eq(userId), any(), any());
+
+        notificationService.sendModeratorWarning(receiver);
+
+        verify(messagingTemplate, timeout(5_000)).convertAndSendToUser(eq(userId), any(), any());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (notificationDispatcher.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT attempts FROM notification_outbox WHERE user_id = ?", Integer.class, receiver.getId()));
+
+        jdbcTemplate.update("UPDATE notification_outbox SET available_at = ? WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), receiver.getId());
+        assertTrue(notificationDispatcher.sweep() >= 1);
+
+        verify(messagingTemplate, timeout(5_000).times(2)).convertAndSendToUser(eq(userId), any(), any());
+        awaitOutboxDrained(receiver.getId());
+    }
+
+    @Test
+    void sweep_shouldSkipRowsClaimedByAnotherNode() throws Exception {
+        User receiver = saveUser();
+        String userId = receiver.getId().toString();
+        doThrow(new MessageDeliveryException("broker unavailable"))
+                .doNothing()
+                .when(messagingTemplate).convertAndSendToUser(eq(userId), any(), any());
+
+        notificationService.sendModeratorWarning(receiver);
+        verify(messagingTemplate, timeout(5_000)).convertAndSendToUser(eq(userId), any(), any());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (notificationDispatcher.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        jdbcTemplate.update("UPDATE notification_outbox SET available_at = ? WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), receiver.getId());
+
+        // another node leases the row and commits while this sweep is already waiting for it
+        CountDownLatch leased = new CountDownLatch(1);
+        Thread otherNode = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE notification_outbox SET available_at = ? WHERE user_id = ?",
+                    Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)), receiver.getId());
+            leased.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        otherNode.start();
+        assertTrue(leased.await(5, TimeUnit.SECONDS));
+
+        notificationDispatcher.sweep();
+        otherNode.join();
+
+        Thread.sleep(200);
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq(userId), any(), any());
+
+        jdbcTemplate.update("UPDATE notification_outbox SET available_at = ? WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), receiver.getId());
+        assertTrue(notificationDispatcher.sweep() >= 1);
+        verify(messagingTemplate, timeout(5_000).times(2)).convertAndSendToUser(eq(userId), any(), any());
+        awaitOutboxDrained(receiver.getId());
+    }
+}
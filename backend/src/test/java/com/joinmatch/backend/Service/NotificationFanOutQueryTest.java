@@ -0,0 +1,120 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.Team;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.model.UserTeam;
+import com.joinmatch.backend.repository.TeamRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.repository.UserTeamRepository;
+import com.joinmatch.backend.service.NotificationDispatcher;
+import com.joinmatch.backend.service.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class NotificationFanOutQueryTest {
+
+    private static final int MEMBERS = 1000;
+
+    @MockitoBean private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private NotificationDispatcher notificationDispatcher;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserTeamRepository userTeamRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User newUser(String prefix, int i) {
+        User u = new User();
+        u.setName("Member " + i);
+        u.setEmail(prefix + i + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return u;
+    }
+
+    private Team saveTeam(int memberCount) {
+        String prefix = "fan-out-" + System.nanoTime() + "-";
+        User leader = userRepository.save(newUser(prefix + "leader", 0));
+
+        Team team = new Team();
+        team.setName("Big team");
+        team.setCity("Warszawa");
+        team.setLeader(leader);
+        team.setCreatedAt(LocalDateTime.now());
+        team = teamRepository.save(team);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            users.add(newUser(prefix, i));
+        }
+        users.add(leader);
+
+        List<UserTeam> userTeams = new ArrayList<>();
+        for (User user : userRepository.saveAll(users)) {
+            UserTeam userTeam = new UserTeam();
+            userTeam.setTeam(team);
+            userTeam.setUser(user);
+            userTeam.setCreatedAt(LocalDateTime.now());
+            userTeams.add(userTeam);
+        }
+        userTeamRepository.saveAll(userTeams);
+        return team;
+    }
+
+    @Test
+    void notifyTeamCancellation_shouldFanOutToThousandMembersInBoundedStatements() throws Exception {
+        Integer teamId = saveTeam(MEMBERS).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long statements = new TransactionTemplate(transactionManager).execute(status -> {
+            Team team = teamRepository.findById(teamId).orElseThrow();
+            statistics.clear();
+            notificationService.notifyTeamCancellation(team, "Koniec sezonu");
+            return statistics.getPrepareStatementCount();
+        });
+
+        assertTrue(statements <= 20, "Expected at most 20 statements, got " + statements);
+        assertEquals(MEMBERS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification WHERE type = 'TEAM_CANCELED' AND message LIKE 'Drużyna Big team%' "
+                        + "AND user_id IN (SELECT user_id FROM user_team WHERE team_id = ?)",
+                Integer.class, teamId));
+
+        verify(messagingTemplate, timeout(10_000).times(MEMBERS))
+                .convertAndSendToUser(any(), eq(NotificationDispatcher.DESTINATION), any());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (notificationDispatcher.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_outbox o JOIN user_team ut ON ut.user_id = o.user_id WHERE ut.team_id = ?",
+                Integer.class, teamId));
+    }
+}
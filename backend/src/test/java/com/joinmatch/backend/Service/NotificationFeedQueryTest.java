@@ -0,0 +1,122 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Notification.NotificationFeedDto;
+import com.joinmatch.backend.dto.Notification.NotificationResponseDto;
+import com.joinmatch.backend.dto.Notification.NotificationUnreadCountDto;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.NotificationDispatcher;
+import com.joinmatch.backend.service.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class NotificationFeedQueryTest {
+
+    @MockitoBean private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User saveUser() {
+        User u = new User();
+        u.setName("Reader");
+        u.setEmail("feed-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    @Test
+    void getFeed_shouldWalkHistoryWithoutGapsOrDuplicates() {
+        User user = saveUser();
+        for (int i = 0; i < 7; i++) {
+            notificationService.sendModeratorWarning(user);
+        }
+        // ties on created_at are broken by id
+        jdbcTemplate.update("UPDATE notification SET created_at = ? WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.of(2025, 5, 1, 12, 0)), user.getId());
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NotificationFeedDto page = notificationService.getFeed(user.getId(), cursor, 3);
+            page.items().stream().map(NotificationResponseDto::id).forEach(seen::add);
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+        assertEquals(seen.stream().sorted((a, b) -> b - a).toList(), seen);
+    }
+
+    @Test
+    void unreadCount_shouldBeServedFromMemoryAndPushedOnChange() {
+        User user = saveUser();
+        String userId = user.getId().toString();
+        notificationService.sendModeratorWarning(user);
+        assertEquals(1, notificationService.getUnreadCount(user.getId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        notificationService.sendModeratorWarning(user);
+        assertEquals(2, notificationService.getUnreadCount(user.getId()));
+        assertEquals(0, statistics.getQueryExecutionCount());
+        verify(messagingTemplate, timeout(5_000))
+                .convertAndSendToUser(userId, NotificationDispatcher.DESTINATION, new NotificationUnreadCountDto(2));
+
+        Integer notificationId = notificationService.getFeed(user.getId(), null, 1).items().get(0).id();
+        notificationService.markAsRead(notificationId);
+        notificationService.markAsRead(notificationId);
+
+        assertEquals(1, notificationService.getUnreadCount(user.getId()));
+        verify(messagingTemplate, times(1))
+                .convertAndSendToUser(eq(userId), eq(NotificationDispatcher.DESTINATION), eq(new NotificationUnreadCountDto(1)));
+    }
+
+    @Test
+    void markAllAsRead_shouldOnlyTouchNotificationsUpToCursor() {
+        User user = saveUser();
+        for (int i = 0; i < 5; i++) {
+            notificationService.sendModeratorWarning(user);
+        }
+        List<NotificationResponseDto> feed = notificationService.getFeed(user.getId(), null, 5).items();
+        assertEquals(5, notificationService.getUnreadCount(user.getId()));
+
+        // the client has seen the three oldest, the two newest stay unread
+        assertEquals(3, notificationService.markAllAsRead(user.getId(), feed.get(2).id()));
+        assertEquals(2, notificationService.getUnreadCount(user.getId()));
+        assertEquals(0, notificationService.markAllAsRead(user.getId(), feed.get(2).id()));
+
+        assertEquals(2, notificationService.markAllAsRead(user.getId(), null));
+        assertEquals(0, notificationService.getUnreadCount(user.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification WHERE user_id = ? AND is_read = false", Integer.class, user.getId()));
+    }
+}
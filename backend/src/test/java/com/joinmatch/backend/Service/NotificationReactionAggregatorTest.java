@@ -0,0 +1,141 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.NotificationType;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.events.ReactionReceived;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.NotificationDispatcher;
+import com.joinmatch.backend.service.NotificationReactionAggregator;
+import com.joinmatch.backend.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "notifications.reactions.window=PT1H",
+        "notifications.reactions.max-actors=5"
+})
+@ActiveProfiles("test")
+class NotificationReactionAggregatorTest {
+
+    @MockitoBean private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired private NotificationReactionAggregator aggregator;
+    @Autowired private NotificationService notificationService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User saveUser() {
+        User u = new User();
+        u.setName("Author");
+        u.setEmail("reactions-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private ReactionReceived postReaction(Integer authorId, int actorId) {
+        return new ReactionReceived(NotificationType.POST_REACTION, authorId, 99, null, null,
+                actorId, "Osoba " + actorId, 1);
+    }
+
+    @Test
+    void flushAll_shouldCoalesceReactionsOnTheSameTarget() {
+        Integer authorId = saveUser().getId();
+        for (int actorId = 1; actorId <= 15; actorId++) {
+            aggregator.onReactionReceived(postReaction(authorId, actorId));
+        }
+        // toggling again does not count twice, but makes the user the newest reactor
+        aggregator.onReactionReceived(postReaction(authorId, 3));
+        aggregator.onReactionReceived(new ReactionReceived(NotificationType.COMMENT_REACTION, authorId, 99, 33, null,
+                4, "Osoba 4", 1));
+
+        // the window is still open
+        assertEquals(0, aggregator.flush());
+        assertEquals(2, aggregator.pendingCount());
+
+        assertEquals(2, aggregator.flushAll());
+        assertEquals(0, aggregator.pendingCount());
+
+        List<String> messages = jdbcTemplate.queryForList(
+                "SELECT message FROM notification WHERE user_id = ? ORDER BY type DESC", String.class, authorId);
+        assertEquals(List.of(
+                "Osoba 3 i 14 innych osób zareagowało na Twój post",
+                "Osoba 4 zareagował na Twój komentarz"
+        ), messages);
+        String data = notificationService.getUserNotifications(authorId).stream()
+                .filter(n -> n.type() == NotificationType.POST_REACTION)
+                .findFirst().orElseThrow().data();
+        assertTrue(data.contains("\"userIds\":[3,15,14,13,12]"), data);
+        assertTrue(data.contains("\"reactionCount\":15"), data);
+
+        verify(messagingTemplate, timeout(5_000).times(2))
+                .convertAndSendToUser(eq(authorId.toString()), eq(NotificationDispatcher.DESTINATION), any());
+    }
+
+    @Test
+    void onReactionReceived_shouldIgnoreRolledBackReactions() {
+        Integer authorId = saveUser().getId();
+        int pending = aggregator.pendingCount();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(postReaction(authorId, 1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(pending, aggregator.pendingCount());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                eventPublisher.publishEvent(postReaction(authorId, 1)));
+
+        assertEquals(pending + 1, aggregator.pendingCount());
+        aggregator.flushAll();
+    }
+
+    @Test
+    void flush_shouldKeepWindowsAndMergeNewReactions_whenWritingFails() {
+        NotificationService failingService = mock(NotificationService.class);
+        NotificationReactionAggregator local = new NotificationReactionAggregator(
+                failingService, new SimpleMeterRegistry(), Duration.ZERO, 5, 500);
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doNothing()
+                .when(failingService).sendReactionDigests(any());
+
+        local.onReactionReceived(postReaction(42, 1));
+        local.onReactionReceived(postReaction(42, 2));
+        assertEquals(0, local.flush());
+        assertEquals(1, local.pendingCount());
+
+        local.onReactionReceived(postReaction(42, 3));
+        assertEquals(1, local.flush());
+        assertEquals(0, local.pendingCount());
+
+        verify(failingService, times(2)).sendReactionDigests(argThat(digests -> digests.size() == 1));
+        verify(failingService).sendReactionDigests(argThat(digests -> digests.get(0).actorCount() == 3
+                && digests.get(0).actorIds().equals(List.of(3, 2, 1))));
+    }
+}
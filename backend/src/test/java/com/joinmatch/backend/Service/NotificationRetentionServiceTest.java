@@ -0,0 +1,96 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.NotificationRetentionService;
+import com.joinmatch.backend.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "notifications.retention.batch-size=4",
+        "notifications.retention.pause=PT0S"
+})
+@ActiveProfiles("test")
+class NotificationRetentionServiceTest {
+
+    @Autowired private NotificationRetentionService retentionService;
+    @Autowired private NotificationService notificationService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User saveUser() {
+        User u = new User();
+        u.setName("Old timer");
+        u.setEmail("retention-" + System.nanoTime() + "@test.pl");
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private int count(String condition, Integer userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification WHERE user_id = ? AND " + condition, Integer.class, userId);
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteOnlyOldReadNotificationsInBatches() {
+        User user = saveUser();
+        for (int i = 0; i < 13; i++) {
+            notificationService.sendModeratorWarning(user);
+        }
+        Timestamp old = Timestamp.valueOf(LocalDateTime.now().minusDays(120));
+        // 10 old and read, 2 old but unread, 1 recent and read
+        jdbcTemplate.update("UPDATE notification SET created_at = ?, is_read = true WHERE user_id = ?", old, user.getId());
+        jdbcTemplate.update("""
+                UPDATE notification SET is_read = false
+                WHERE id IN (SELECT id FROM notification WHERE user_id = ? ORDER BY id LIMIT 2)
+                """, user.getId());
+        jdbcTemplate.update("""
+                UPDATE notification SET created_at = ?
+                WHERE id = (SELECT MAX(id) FROM notification WHERE user_id = ?)
+                """, Timestamp.valueOf(LocalDateTime.now()), user.getId());
+
+        int deleted = retentionService.purgeExpired();
+
+        assertTrue(deleted >= 10);
+        assertEquals(0, count("is_read = true AND created_at < CURRENT_TIMESTAMP - INTERVAL '90' DAY", user.getId()));
+        assertEquals(2, count("is_read = false", user.getId()));
+        assertEquals(1, count("is_read = true", user.getId()));
+    }
+
+    @Test
+    void purgeExpired_shouldSkip_whenAnotherNodeHoldsTheLock() {
+        User user = saveUser();
+        notificationService.sendModeratorWarning(user);
+        jdbcTemplate.update("UPDATE notification SET created_at = ?, is_read = true WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(120)), user.getId());
+
+        retentionService.purgeExpired();
+        jdbcTemplate.update("UPDATE scheduler_lock SET locked_until = ?, locked_by = 'other-node' WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusHours(1)), NotificationRetentionService.LOCK_NAME);
+        notificationService.sendModeratorWarning(user);
+        jdbcTemplate.update("UPDATE notification SET created_at = ?, is_read = true WHERE user_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(120)), user.getId());
+
+        try {
+            assertEquals(0, retentionService.purgeExpired());
+            assertEquals(1, count("is_read = true", user.getId()));
+        } finally {
+            jdbcTemplate.update("UPDATE scheduler_lock SET locked_until = ? WHERE name = ?",
+                    Timestamp.valueOf(LocalDateTime.now()), NotificationRetentionService.LOCK_NAME);
+        }
+    }
+}
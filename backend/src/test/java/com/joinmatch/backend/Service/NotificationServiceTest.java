@@ -4,15 +4,20 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.joinmatch.backend.dto.Notification.*;
 import com.joinmatch.backend.enums.NotificationType;
+import com.joinmatch.backend.events.NotificationsRead;
+import com.joinmatch.backend.events.ReactionReceived;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.NotificationRepository;
+import com.joinmatch.backend.repository.UserRepository;
+import com.joinmatch.backend.service.NotificationDispatcher;
 import com.joinmatch.backend.service.NotificationService;
+import com.joinmatch.backend.service.NotificationUnreadService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,7 +30,16 @@ class NotificationServiceTest {
     private NotificationRepository notificationRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private NotificationUnreadService notificationUnreadService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private ObjectMapper objectMapper;
@@ -57,8 +71,8 @@ class NotificationServiceTest {
         notificationService.sendFriendRequestNotification(receiver, sender, 55);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("20"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(20)));
     }
 
     @Test
@@ -72,8 +86,8 @@ class NotificationServiceTest {
         notificationService.sendFriendRequestAcceptedNotification(receiver, sender);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("2"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(2)));
     }
 
     @Test
@@ -87,8 +101,8 @@ class NotificationServiceTest {
         notificationService.sendFriendRequestRejectedNotification(receiver, sender);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("7"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(7)));
     }
 
     // ------------------------------------------------------------
@@ -107,9 +121,37 @@ class NotificationServiceTest {
         assertEquals(1, result.get(0).id());
     }
 
+    @Test
+    void getFeed_shouldReturnPageWithCursor_whenMoreAvailable() {
+        LocalDateTime now = LocalDateTime.of(2025, 5, 1, 12, 0);
+        Notification n1 = Notification.builder().id(3).title("A").createdAt(now).build();
+        Notification n2 = Notification.builder().id(2).title("B").createdAt(now).build();
+        Notification n3 = Notification.builder().id(1).title("C").createdAt(now.minusMinutes(1)).build();
+        when(notificationRepository.findFirstPage(10, 3)).thenReturn(List.of(n1, n2, n3));
+
+        NotificationFeedDto feed = notificationService.getFeed(10, null, 2);
+
+        assertEquals(2, feed.items().size());
+        assertTrue(feed.hasMore());
+        assertNotNull(feed.nextCursor());
+
+        when(notificationRepository.findPageBefore(10, now, 2, 3)).thenReturn(List.of(n3));
+
+        NotificationFeedDto next = notificationService.getFeed(10, feed.nextCursor(), 2);
+
+        assertEquals(1, next.items().size());
+        assertFalse(next.hasMore());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void getFeed_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> notificationService.getFeed(10, "%%%", 20));
+    }
+
     @Test
     void getUnreadCount_shouldReturnValue() {
-        when(notificationRepository.countByUserIdAndIsReadFalse(5))
+        when(notificationUnreadService.getUnreadCount(5))
                 .thenReturn(3L);
 
         assertEquals(3, notificationService.getUnreadCount(5));
@@ -117,13 +159,45 @@ class NotificationServiceTest {
 
     @Test
     void markAsRead_shouldUpdateNotification() {
-        Notification n = Notification.builder().id(10).isRead(false).build();
+        User owner = new User(); owner.setId(4);
+        Notification n = Notification.builder().id(10).user(owner).isRead(false).build();
         when(notificationRepository.findById(10)).thenReturn(Optional.of(n));
 
         notificationService.markAsRead(10);
 
         assertTrue(n.getIsRead());
         verify(notificationRepository).save(n);
+        verify(eventPublisher).publishEvent(new NotificationsRead(4, 1));
+    }
+
+    @Test
+    void markAsRead_shouldSkipAlreadyReadNotification() {
+        Notification n = Notification.builder().id(10).isRead(true).build();
+        when(notificationRepository.findById(10)).thenReturn(Optional.of(n));
+
+        notificationService.markAsRead(10);
+
+        verify(notificationRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void markAllAsRead_shouldPublishUpdatedCount() {
+        when(notificationRepository.markAllAsRead(4)).thenReturn(6);
+
+        assertEquals(6, notificationService.markAllAsRead(4, null));
+
+        verify(eventPublisher).publishEvent(new NotificationsRead(4, 6));
+    }
+
+    @Test
+    void markAllAsRead_shouldMarkUpToGivenNotification_andSkipEventWhenNothingChanged() {
+        when(notificationRepository.markAsReadUpTo(4, 30)).thenReturn(0);
+
+        assertEquals(0, notificationService.markAllAsRead(4, 30));
+
+        verify(notificationRepository, never()).markAllAsRead(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // ------------------------------------------------------------
@@ -150,8 +224,8 @@ class NotificationServiceTest {
         notificationService.sendTeamRequestAcceptedNotification(req);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("100"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(100)));
     }
 
     // ------------------------------------------------------------
@@ -177,8 +251,8 @@ class NotificationServiceTest {
         notificationService.sendTeamLeftNotification(userTeam);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("20"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(20)));
     }
 
     // ------------------------------------------------------------
@@ -204,8 +278,8 @@ class NotificationServiceTest {
         notificationService.sendTeamMemberRemovedNotification(ut, "Powód testowy");
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("33"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(33)));
     }
 
     // ------------------------------------------------------------
@@ -230,8 +304,8 @@ class NotificationServiceTest {
         notificationService.sendTeamRequestNotification(req);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("66"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(66)));
     }
 
     // ------------------------------------------------------------
@@ -256,8 +330,8 @@ class NotificationServiceTest {
         notificationService.sendTeamRejectAcceptedNotification(req);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("50"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(50)));
     }
 
     // ------------------------------------------------------------
@@ -276,18 +350,21 @@ class NotificationServiceTest {
 
         UserTeam ut1 = new UserTeam(); ut1.setTeam(team); ut1.setUser(m1);
         UserTeam ut2 = new UserTeam(); ut2.setTeam(team); ut2.setUser(m2);
+        UserTeam leaderTeam = new UserTeam(); leaderTeam.setTeam(team); leaderTeam.setUser(leader);
 
-        team.setUserTeams(List.of(ut1, ut2));
+        team.setUserTeams(List.of(ut1, leaderTeam, ut2));
 
         when(objectMapper.writeValueAsString(any())).thenReturn("{}");
-        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(notificationRepository.insertAll(any())).thenAnswer(inv -> inv.getArgument(0));
 
         notificationService.notifyTeamCancellation(team, "Powód");
 
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("2"), eq("/queue/notifications"), any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("3"), eq("/queue/notifications"), any());
+        verify(objectMapper, times(1)).writeValueAsString(any());
+        verify(objectMapper).writeValueAsString(new TeamCancelNotificationDto(1, 99, "Powód"));
+        verify(notificationRepository, never()).save(any());
+        verify(notificationDispatcher).enqueueAll(argThat(list -> list.size() == 2
+                && list.get(0).getUser().getId().equals(2)
+                && list.get(1).getUser().getId().equals(3)));
     }
 
     // ------------------------------------------------------------
@@ -314,8 +391,8 @@ class NotificationServiceTest {
         notificationService.sendCommentNotifications(comment);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("10"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(10)));
     }
 
     // ------------------------------------------------------------
@@ -323,7 +400,7 @@ class NotificationServiceTest {
     // ------------------------------------------------------------
 
     @Test
-    void sendPostReactionNotification_shouldSaveAndSend() throws Exception {
+    void sendPostReactionNotification_shouldHandOverToAggregator() {
         User author = new User(); author.setId(10);
         User reactor = new User(); reactor.setId(20); reactor.setName("Maciek");
 
@@ -339,14 +416,11 @@ class NotificationServiceTest {
         reaction.setUser(reactor);
         reaction.setReactionType(rt);
 
-        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
-        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
         notificationService.sendPostReactionNotification(reaction);
 
-        verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("10"), eq("/queue/notifications"), any());
+        verify(eventPublisher).publishEvent(new ReactionReceived(
+                NotificationType.POST_REACTION, 10, 99, null, null, 20, "Maciek", 5));
+        verifyNoInteractions(notificationRepository, notificationDispatcher);
     }
 
     // ------------------------------------------------------------
@@ -354,7 +428,7 @@ class NotificationServiceTest {
     // ------------------------------------------------------------
 
     @Test
-    void sendCommentReactionNotification_shouldSaveAndSend() throws Exception {
+    void sendCommentReactionNotification_shouldHandOverToAggregator() {
         User author = new User(); author.setId(50);
         User reactor = new User(); reactor.setId(60); reactor.setName("Piotr");
 
@@ -369,14 +443,37 @@ class NotificationServiceTest {
         reaction.setComment(comment);
         reaction.setUser(reactor);
 
-        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
-        when(notificationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
         notificationService.sendCommentReactionNotification(reaction);
 
-        verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("50"), eq("/queue/notifications"), any());
+        verify(eventPublisher).publishEvent(new ReactionReceived(
+                NotificationType.COMMENT_REACTION, 50, 77, 33, null, 60, "Piotr", null));
+        verifyNoInteractions(notificationRepository, notificationDispatcher);
+    }
+
+    @Test
+    void sendReactionDigests_shouldWriteOneNotificationPerTarget() throws Exception {
+        User author = new User(); author.setId(10);
+        when(userRepository.getReferenceById(10)).thenReturn(author);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(notificationRepository.insertAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        notificationService.sendReactionDigests(List.of(
+                new ReactionDigestDto(NotificationType.POST_REACTION, 10, 99, null, null, 5,
+                        15, List.of(20, 21), List.of("Maciek", "Ola")),
+                new ReactionDigestDto(NotificationType.COMMENT_REACTION, 10, 99, 33, null, 5,
+                        3, List.of(22, 20, 21), List.of("Jan", "Maciek", "Ola")),
+                new ReactionDigestDto(NotificationType.COMMENT_REACTION, 10, 99, 34, null, 5,
+                        1, List.of(22), List.of("Jan"))
+        ));
+
+        verify(objectMapper).writeValueAsString(
+                new PostReactionNotificationDto(20, 99, 5, List.of(20, 21), 15));
+        verify(notificationDispatcher).enqueueAll(argThat(list -> list.size() == 3
+                && list.get(0).getMessage().equals("Maciek i 14 innych osób zareagowało na Twój post")
+                && list.get(0).getTitle().equals("Nowe reakcje do Twojego posta")
+                && list.get(1).getMessage().equals("Jan i 2 inne osoby zareagowały na Twój komentarz")
+                && list.get(2).getMessage().equals("Jan zareagował na Twój komentarz")
+                && list.get(2).getTitle().equals("Nowa reakcja do Twojego komentarza")));
     }
 
     // ------------------------------------------------------------
@@ -408,8 +505,8 @@ class NotificationServiceTest {
         notificationService.sendCommentReplyNotification(reply);
 
         verify(notificationRepository).save(any());
-        verify(messagingTemplate)
-                .convertAndSendToUser(eq("100"), eq("/queue/notifications"), any());
+        verify(notificationDispatcher)
+                .enqueue(argThat(n -> n.getUser().getId().equals(100)));
     }
 
     @Test
@@ -420,7 +517,6 @@ class NotificationServiceTest {
 
         // no calls
         verify(notificationRepository, never()).save(any());
-        verify(messagingTemplate, never())
-                .convertAndSendToUser(any(), any(), any());
+        verify(notificationDispatcher, never()).enqueue(any());
     }
 }
@@ -0,0 +1,70 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.Notification.NotificationUnreadCountDto;
+import com.joinmatch.backend.events.NotificationsCreated;
+import com.joinmatch.backend.repository.NotificationRepository;
+import com.joinmatch.backend.service.ChatPresenceService;
+import com.joinmatch.backend.service.NotificationDispatcher;
+import com.joinmatch.backend.service.NotificationUnreadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationUnreadServiceTest {
+
+    private NotificationRepository notificationRepository;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatPresenceService presenceService;
+
+    @BeforeEach
+    void setup() {
+        notificationRepository = mock(NotificationRepository.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        presenceService = mock(ChatPresenceService.class);
+    }
+
+    private NotificationUnreadService service(Duration expireAfterWrite) {
+        return new NotificationUnreadService(notificationRepository, messagingTemplate, presenceService,
+                100, expireAfterWrite);
+    }
+
+    @Test
+    void onNotificationsCreated_shouldIncrementCachedCountWithoutQuery() {
+        NotificationUnreadService unreadService = service(Duration.ofMinutes(10));
+        when(notificationRepository.countByUserIdAndIsReadFalse(1)).thenReturn(2L);
+        unreadService.getUnreadCount(1);
+
+        unreadService.onNotificationsCreated(new NotificationsCreated(List.of(1, 1)));
+
+        verify(messagingTemplate).convertAndSendToUser("1", NotificationDispatcher.DESTINATION, new NotificationUnreadCountDto(4));
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1);
+    }
+
+    @Test
+    void onNotificationsCreated_shouldReloadAndPush_whenEntryExpiredForConnectedUser() {
+        NotificationUnreadService unreadService = service(Duration.ZERO);
+        when(notificationRepository.countByUserIdAndIsReadFalse(1)).thenReturn(2L, 3L);
+        when(presenceService.isOnline(1)).thenReturn(true);
+        unreadService.getUnreadCount(1);
+
+        unreadService.onNotificationsCreated(new NotificationsCreated(List.of(1)));
+
+        verify(messagingTemplate).convertAndSendToUser("1", NotificationDispatcher.DESTINATION, new NotificationUnreadCountDto(3));
+    }
+
+    @Test
+    void onNotificationsCreated_shouldSkipOfflineUserWithoutCachedCount() {
+        NotificationUnreadService unreadService = service(Duration.ofMinutes(10));
+
+        unreadService.onNotificationsCreated(new NotificationsCreated(List.of(2)));
+
+        verify(notificationRepository, never()).countByUserIdAndIsReadFalse(anyInt());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+}
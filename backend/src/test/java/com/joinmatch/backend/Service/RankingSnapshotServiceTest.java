@@ -0,0 +1,159 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.enums.RankingType;
+import com.joinmatch.backend.model.RankingSnapshot;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.RankingSnapshotService;
+import com.joinmatch.backend.service.SchedulerLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RankingSnapshotServiceTest {
+
+    @Mock private RankingSnapshotRepository rankingSnapshotRepository;
+    @Mock private UserRatingRepository userRatingRepository;
+    @Mock private UserEventRepository userEventRepository;
+    @Mock private OrganizerRatingRepository organizerRatingRepository;
+    @Mock private EventRepository eventRepository;
+    @Mock private TeamRepository teamRepository;
+    @Mock private UserBadgeRepository userBadgeRepository;
+    @Mock private SportObjectRepository sportObjectRepository;
+    @Mock private SchedulerLockService schedulerLockService;
+    @Spy private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private RankingSnapshotService rankingSnapshotService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(rankingSnapshotService, "snapshotSize", 100);
+        when(schedulerLockService.runExclusively(anyString(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RankingSnapshot> captureSaved() {
+        ArgumentCaptor<List<RankingSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rankingSnapshotRepository).insertAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void refresh_shouldReplaceSnapshotWithRankedRows() {
+        when(userRatingRepository.findTopUsersByRating(100, 0)).thenReturn(List.of(
+                new Object[]{1, "Anna", "anna@test.pl", "a.png", 4.8, 12L},
+                new Object[]{2, "Jan", "jan@test.pl", null, 4.1, 3L}
+        ));
+
+        rankingSnapshotService.refresh();
+
+        verify(rankingSnapshotRepository).deleteAllInBatch();
+        List<RankingSnapshot> rows = captureSaved();
+        assertEquals(2, rows.size());
+        assertEquals(RankingType.USER_RATING, rows.get(0).getRankingType());
+        assertEquals(1, rows.get(0).getRankOrder());
+        assertEquals(4.8, rows.get(0).getAverageRating());
+        assertEquals(12, rows.get(0).getTotalCount());
+        assertEquals(2, rows.get(1).getRankOrder());
+        assertEquals(rows.get(0).getRefreshedAt(), rows.get(1).getRefreshedAt());
+    }
+
+    @Test
+    void refresh_shouldStoreLocalRankingsUnderLowercasedCity() {
+        when(sportObjectRepository.findDistinctCitiesFromEvents()).thenReturn(List.of("Kraków"));
+        when(teamRepository.findDistinctCitiesFromTeams()).thenReturn(Collections.emptyList());
+        when(userEventRepository.findTopUsersByLocalActivity("Kraków", 100)).thenReturn(List.<Object[]>of(
+                new Object[]{5, "Ola", "ola@test.pl", null, 7L}
+        ));
+
+        rankingSnapshotService.refresh();
+
+        RankingSnapshot row = captureSaved().get(0);
+        assertEquals(RankingType.USER_LOCAL_ACTIVITY, row.getRankingType());
+        assertEquals("kraków", row.getCity());
+        assertNull(row.getAverageRating());
+        assertEquals(7, row.getTotalCount());
+        verify(eventRepository).findTopEventsByLocalRating(eq("Kraków"), eq(100), eq(0));
+    }
+
+    @Test
+    void refresh_shouldSkipRebuild_whenAnotherNodeHoldsTheLock() {
+        doReturn(false).when(schedulerLockService).runExclusively(anyString(), any(), any());
+
+        rankingSnapshotService.refresh();
+
+        verify(rankingSnapshotRepository, never()).deleteAllInBatch();
+        verify(rankingSnapshotRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void find_shouldReadSnapshot_whenItHoldsTheWholeRanking() {
+        RankingSnapshot stored = new RankingSnapshot();
+        when(rankingSnapshotRepository.findGlobalRanking(RankingType.USER_RATING, 5, 20)).thenReturn(List.of(stored));
+        when(rankingSnapshotRepository.countByRankingTypeAndCityIsNull(RankingType.USER_RATING)).thenReturn(40L);
+
+        assertEquals(List.of(stored), rankingSnapshotService.find(RankingType.USER_RATING, null, 5, 20));
+        verify(userRatingRepository, never()).findTopUsersByRating(anyInt(), anyInt());
+    }
+
+    @Test
+    void find_shouldFallBackToLiveQuery_whenSnapshotIsTruncated() {
+        when(rankingSnapshotRepository.findGlobalRanking(RankingType.USER_RATING, 5, 20)).thenReturn(List.of(new RankingSnapshot()));
+        when(rankingSnapshotRepository.countByRankingTypeAndCityIsNull(RankingType.USER_RATING)).thenReturn(100L);
+        when(userRatingRepository.findTopUsersByRating(20, 5)).thenReturn(List.<Object[]>of(
+                new Object[]{1, "Anna", "anna@test.pl", null, 4.8, 12L},
+                new Object[]{2, "Jan", "jan@test.pl", null, 4.1, 6L}
+        ));
+
+        List<RankingSnapshot> rows = rankingSnapshotService.find(RankingType.USER_RATING, null, 5, 20);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(1).getRankOrder());
+        assertEquals(6, rows.get(1).getTotalCount());
+    }
+
+    @Test
+    void find_shouldFallBackToLiveQuery_whenSnapshotWasNotBuiltYet() {
+        when(rankingSnapshotRepository.findLocalRanking(RankingType.USER_LOCAL_ACTIVITY, "Gdańsk", 0, 20))
+                .thenReturn(Collections.emptyList());
+        when(rankingSnapshotRepository.countByRankingTypeAndCity(RankingType.USER_LOCAL_ACTIVITY, "gdańsk")).thenReturn(0L);
+        when(userEventRepository.findTopUsersByLocalActivity("Gdańsk", 20)).thenReturn(List.<Object[]>of(
+                new Object[]{5, "Ola", "ola@test.pl", null, 3L}
+        ));
+
+        List<RankingSnapshot> rows = rankingSnapshotService.find(RankingType.USER_LOCAL_ACTIVITY, "Gdańsk", 0, 20);
+
+        assertEquals(1, rows.size());
+        assertEquals("gdańsk", rows.get(0).getCity());
+        assertEquals(3, rows.get(0).getTotalCount());
+    }
+
+    @Test
+    void find_shouldFallBackToLiveQuery_whenLimitExceedsSnapshotSize() {
+        when(rankingSnapshotRepository.findLocalRanking(RankingType.TEAM_LOCAL_MEMBERS, "Kraków", 0, 150))
+                .thenReturn(Collections.nCopies(100, new RankingSnapshot()));
+        when(rankingSnapshotRepository.countByRankingTypeAndCity(RankingType.TEAM_LOCAL_MEMBERS, "kraków")).thenReturn(100L);
+
+        rankingSnapshotService.find(RankingType.TEAM_LOCAL_MEMBERS, "Kraków", 0, 150);
+
+        verify(teamRepository).findTopTeamsByLocalMemberCount("Kraków", 150);
+    }
+}
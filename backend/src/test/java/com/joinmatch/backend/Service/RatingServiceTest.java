@@ -8,6 +8,7 @@ import com.joinmatch.backend.dto.Reports.EventRatingReportDto;
 import com.joinmatch.backend.dto.Reports.UserRatingReportDto;
 import com.joinmatch.backend.dto.UserRating.UserRatingRequestDto;
 import com.joinmatch.backend.dto.UserRating.UserRatingResponseDto;
+import com.joinmatch.backend.events.EventDetailsChanged;
 import com.joinmatch.backend.model.*;
 import com.joinmatch.backend.repository.*;
 import com.joinmatch.backend.service.RatingService;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,6 +46,8 @@ class RatingServiceTest {
     private ReportEventRatingRepository reportEventRatingRepository;
     @Mock
     private ReportUserRatingRepository reportUserRatingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private RatingService ratingService;
@@ -201,6 +205,7 @@ class RatingServiceTest {
         assertEquals("Super event", out.comment());
         assertEquals("User", out.userName());
         assertNotNull(out.createdAt());
+        verify(eventPublisher).publishEvent(new EventDetailsChanged(10));
     }
 
     @Test
@@ -377,6 +382,9 @@ class RatingServiceTest {
         rating.setRating(3);
         rating.setComment("old");
         rating.setCreatedAt(LocalDateTime.now());
+        Event event = new Event();
+        event.setEventId(99);
+        rating.setEvent(event);
 
         when(eventRatingRepository.findById(10)).thenReturn(Optional.of(rating));
 
@@ -390,6 +398,7 @@ class RatingServiceTest {
         assertEquals("User", out.userName());
 
         verify(eventRatingRepository).save(rating);
+        verify(eventPublisher).publishEvent(new EventDetailsChanged(99));
     }
 
     @Test
@@ -421,12 +430,16 @@ class RatingServiceTest {
         EventRating rating = new EventRating();
         rating.setEventRatingId(10);
         rating.setUser(user);
+        Event event = new Event();
+        event.setEventId(99);
+        rating.setEvent(event);
 
         when(eventRatingRepository.findById(10)).thenReturn(Optional.of(rating));
 
         ratingService.deleteEventRating(10, 5);
 
         verify(eventRatingRepository).delete(rating);
+        verify(eventPublisher).publishEvent(new EventDetailsChanged(99));
     }
 
     @Test
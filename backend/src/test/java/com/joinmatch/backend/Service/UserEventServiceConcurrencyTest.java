@@ -0,0 +1,247 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.dto.UserEvent.UserEventRequestDto;
+import com.joinmatch.backend.dto.UserEvent.UserEventResponseDto;
+import com.joinmatch.backend.enums.EventStatus;
+import com.joinmatch.backend.enums.Role;
+import com.joinmatch.backend.model.*;
+import com.joinmatch.backend.repository.*;
+import com.joinmatch.backend.service.BadgeAwardService;
+import com.joinmatch.backend.service.ChatService;
+import com.joinmatch.backend.service.NotificationService;
+import com.joinmatch.backend.service.UserEventService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserEventServiceConcurrencyTest {
+
+    private static final int CAPACITY = 50;
+    private static final int PARTICIPANTS = 300;
+
+    @Autowired private UserEventService userEventService;
+    @Autowired private UserEventRepository userEventRepository;
+    @Autowired private EventRepository eventRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SportRepository sportRepository;
+    @Autowired private SportObjectRepository sportObjectRepository;
+    @Autowired private EventVisibilityRepository eventVisibilityRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean private ChatService chatService;
+    @MockitoBean private NotificationService notificationService;
+    @MockitoBean private BadgeAwardService badgeAwardService;
+
+    private Event event;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("MERGE INTO attendance_status (id, name) KEY (id) VALUES (1, 'Zaakceptowany')");
+        jdbcTemplate.update("MERGE INTO attendance_status (id, name) KEY (id) VALUES (3, 'Odrzucony')");
+        jdbcTemplate.update("MERGE INTO attendance_status (id, name) KEY (id) VALUES (6, 'Lista oczekujących')");
+        EventVisibility visibility = eventVisibilityRepository.findById(1)
+                .orElseGet(() -> eventVisibilityRepository.save(new EventVisibility(null, "Publiczne")));
+
+        User owner = saveUser("owner-" + System.nanoTime() + "@test.pl");
+
+        Sport sport = new Sport();
+        sport.setName("Football");
+        sport.setURL("football.png");
+        sport = sportRepository.save(sport);
+
+        SportObject sportObject = new SportObject();
+        sportObject.setName("Hall");
+        sportObject.setCity("Warszawa");
+        sportObject.setStreet("Main");
+        sportObject.setNumber(1);
+        sportObject.setLatitude(52.0);
+        sportObject.setLongitude(21.0);
+        sportObject = sportObjectRepository.save(sportObject);
+
+        Event e = new Event();
+        e.setEventName("Popular event");
+        e.setNumberOfParticipants(CAPACITY);
+        e.setCost(BigDecimal.ZERO);
+        e.setOwner(owner);
+        e.setSportObject(sportObject);
+        e.setSportEv(sport);
+        e.setEventVisibility(visibility);
+        e.setEventDate(LocalDateTime.now().plusDays(7));
+        e.setMinLevel(1);
+        e.setStatus(EventStatus.PLANNED);
+        event = eventRepository.save(e);
+    }
+
+    private User saveUser(String email) {
+        User u = new User();
+        u.setName("User");
+        u.setEmail(email);
+        u.setPassword("password");
+        u.setDateOfBirth(LocalDate.of(2000, 1, 1));
+        u.setRole(Role.USER);
+        u.setIsBlocked(false);
+        return userRepository.save(u);
+    }
+
+    private <T> List<Future<T>> runConcurrently(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void create_shouldNeverOverbook_underParallelJoins() throws Exception {
+        String prefix = "join-" + System.nanoTime() + "-";
+        List<Callable<UserEventResponseDto>> tasks = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            String email = prefix + i + "@test.pl";
+            saveUser(email);
+            tasks.add(() -> userEventService.create(new UserEventRequestDto(email, event.getEventId(), 1)));
+        }
+
+        int waitlisted = 0;
+        for (Future<UserEventResponseDto> future : runConcurrently(tasks)) {
+            if (future.get().waitlisted()) {
+                waitlisted++;
+            }
+        }
+
+        assertEquals(PARTICIPANTS - CAPACITY, waitlisted);
+        assertEquals(PARTICIPANTS - CAPACITY, userEventRepository.findByEvent_EventId(event.getEventId()).stream()
+                .map(UserEvent::getWaitlistPosition)
+                .filter(Objects::nonNull)
+                .distinct()
+                .count());
+        assertEquals(CAPACITY, countAccepted());
+        assertEquals(CAPACITY, eventRepository.findById(event.getEventId()).orElseThrow().getBookedParticipants());
+    }
+
+    @Test
+    void leaveEvent_shouldPromoteHeadOfWaitlist() {
+        String prefix = "queue-" + System.nanoTime() + "-";
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            saveUser(prefix + i + "@test.pl");
+            userEventService.create(new UserEventRequestDto(prefix + i + "@test.pl", event.getEventId(), 1));
+        }
+
+        userEventService.leaveEvent(prefix + 0 + "@test.pl", event.getEventId());
+
+        User first = userRepository.findByEmail(prefix + CAPACITY + "@test.pl").orElseThrow();
+        User second = userRepository.findByEmail(prefix + (CAPACITY + 1) + "@test.pl").orElseThrow();
+        assertEquals(1, userEventRepository.findByEvent_EventIdAndUser_Id(event.getEventId(), first.getId())
+                .orElseThrow().getAttendanceStatus().getId());
+        assertEquals(AttendanceStatus.WAITLISTED_ID, userEventRepository.findByEvent_EventIdAndUser_Id(event.getEventId(), second.getId())
+                .orElseThrow().getAttendanceStatus().getId());
+        assertEquals(CAPACITY, countAccepted());
+        assertEquals(CAPACITY, eventRepository.findById(event.getEventId()).orElseThrow().getBookedParticipants());
+    }
+
+    private String fillWithWaitlist() {
+        String prefix = "mod-" + System.nanoTime() + "-";
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            saveUser(prefix + i + "@test.pl");
+            userEventService.create(new UserEventRequestDto(prefix + i + "@test.pl", event.getEventId(), 1));
+        }
+        return prefix;
+    }
+
+    private int statusOf(String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        return userEventRepository.findByEvent_EventIdAndUser_Id(event.getEventId(), user.getId())
+                .orElseThrow().getAttendanceStatus().getId();
+    }
+
+    @Test
+    void leaveEvent_shouldNotPromoteAgain_whenWaitlistedUserWasApproved() {
+        String prefix = fillWithWaitlist();
+        jdbcTemplate.update("UPDATE event SET number_of_participants = ? WHERE event_id = ?", CAPACITY + 1, event.getEventId());
+        User head = userRepository.findByEmail(prefix + CAPACITY + "@test.pl").orElseThrow();
+
+        userEventService.approveUser(event.getEventId(), head.getId());
+        userEventService.leaveEvent(prefix + 0 + "@test.pl", event.getEventId());
+
+        assertEquals(1, statusOf(prefix + CAPACITY + "@test.pl"));
+        assertEquals(1, statusOf(prefix + (CAPACITY + 1) + "@test.pl"));
+        assertEquals(CAPACITY + 1, countAccepted());
+        assertEquals(CAPACITY + 1, eventRepository.findById(event.getEventId()).orElseThrow().getBookedParticipants());
+        verify(chatService, times(1)).addUserToEventChat(event.getEventId(), head.getId());
+    }
+
+    @Test
+    void leaveEvent_shouldSkipWaitlistedUserThatWasRejected() {
+        String prefix = fillWithWaitlist();
+        User head = userRepository.findByEmail(prefix + CAPACITY + "@test.pl").orElseThrow();
+
+        userEventService.rejectUser(event.getEventId(), head.getId());
+        userEventService.leaveEvent(prefix + 0 + "@test.pl", event.getEventId());
+
+        assertEquals(3, statusOf(prefix + CAPACITY + "@test.pl"));
+        assertEquals(1, statusOf(prefix + (CAPACITY + 1) + "@test.pl"));
+        assertEquals(CAPACITY, countAccepted());
+        assertEquals(CAPACITY, eventRepository.findById(event.getEventId()).orElseThrow().getBookedParticipants());
+    }
+
+    private long countAccepted() {
+        return userEventRepository.findByEvent_EventId(event.getEventId()).stream()
+                .filter(ue -> ue.getAttendanceStatus().getId() == 1)
+                .count();
+    }
+
+    @Test
+    void create_shouldKeepSingleRow_whenSameUserJoinsInParallel() throws Exception {
+        String email = "dup-" + System.nanoTime() + "@test.pl";
+        saveUser(email);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(() -> {
+                try {
+                    userEventService.create(new UserEventRequestDto(email, event.getEventId(), 1));
+                } catch (DuplicateKeyException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        for (Future<Void> future : runConcurrently(tasks)) {
+            future.get();
+        }
+
+        assertEquals(1, userEventRepository.findByEvent_EventId(event.getEventId()).size());
+        assertEquals(1, eventRepository.findById(event.getEventId()).orElseThrow().getBookedParticipants());
+    }
+}
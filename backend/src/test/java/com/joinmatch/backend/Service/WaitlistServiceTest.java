@@ -0,0 +1,127 @@
+package com.joinmatch.backend.Service;
+
+import com.joinmatch.backend.events.WaitlistPromotion;
+import com.joinmatch.backend.model.AttendanceStatus;
+import com.joinmatch.backend.model.Event;
+import com.joinmatch.backend.model.User;
+import com.joinmatch.backend.model.UserEvent;
+import com.joinmatch.backend.repository.AttendanceStatusRepository;
+import com.joinmatch.backend.repository.EventRepository;
+import com.joinmatch.backend.repository.UserEventRepository;
+import com.joinmatch.backend.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WaitlistServiceTest {
+
+    @Mock private UserEventRepository userEventRepository;
+    @Mock private EventRepository eventRepository;
+    @Mock private AttendanceStatusRepository attendanceStatusRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final AttendanceStatus accepted = new AttendanceStatus(1, "Zaakceptowany");
+    private final AttendanceStatus waitlisted = new AttendanceStatus(AttendanceStatus.WAITLISTED_ID, "Lista oczekujących");
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(attendanceStatusRepository.findById(1)).thenReturn(Optional.of(accepted));
+        when(attendanceStatusRepository.findById(AttendanceStatus.WAITLISTED_ID)).thenReturn(Optional.of(waitlisted));
+    }
+
+    private Event event() {
+        Event e = new Event();
+        e.setEventId(1);
+        return e;
+    }
+
+    private UserEvent queued(Integer userId, long position) {
+        User user = new User();
+        user.setId(userId);
+        UserEvent ue = new UserEvent();
+        ue.setUser(user);
+        ue.setEvent(event());
+        ue.setAttendanceStatus(waitlisted);
+        ue.setWaitlistPosition(position);
+        return ue;
+    }
+
+    @Test
+    void enqueue_shouldAppendToTailOfQueue() {
+        when(userEventRepository.findLastWaitlistPosition(1)).thenReturn(4L);
+        when(userEventRepository.saveAndFlush(any(UserEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UserEvent result = waitlistService.enqueue(new User(), event());
+
+        assertEquals(5L, result.getWaitlistPosition());
+        assertEquals(AttendanceStatus.WAITLISTED_ID, result.getAttendanceStatus().getId());
+    }
+
+    @Test
+    void enqueue_shouldAcceptDirectly_whenSpotFreedBeforeLock() {
+        when(eventRepository.reserveSpots(1, 1)).thenReturn(1);
+        when(userEventRepository.saveAndFlush(any(UserEvent.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UserEvent result = waitlistService.enqueue(new User(), event());
+
+        assertEquals(1, result.getAttendanceStatus().getId());
+        assertNull(result.getWaitlistPosition());
+        verify(userEventRepository, never()).findLastWaitlistPosition(anyInt());
+    }
+
+    @Test
+    void promote_shouldAcceptHeadAndPublishPromotion() {
+        UserEvent head = queued(10, 1);
+        when(userEventRepository.findFirstByEvent_EventIdAndAttendanceStatus_IdAndWaitlistPositionNotNullOrderByWaitlistPositionAscIdAsc(
+                1, AttendanceStatus.WAITLISTED_ID))
+                .thenReturn(Optional.of(head));
+        when(eventRepository.reserveSpots(1, 1)).thenReturn(1);
+
+        waitlistService.promote(1, 1);
+
+        assertEquals(1, head.getAttendanceStatus().getId());
+        assertNull(head.getWaitlistPosition());
+        verify(userEventRepository).save(head);
+        verify(eventPublisher).publishEvent(new WaitlistPromotion(1, 10));
+    }
+
+    @Test
+    void promote_shouldStop_whenQueueIsEmpty() {
+        when(userEventRepository.findFirstByEvent_EventIdAndAttendanceStatus_IdAndWaitlistPositionNotNullOrderByWaitlistPositionAscIdAsc(
+                1, AttendanceStatus.WAITLISTED_ID))
+                .thenReturn(Optional.empty());
+
+        waitlistService.promote(1, 3);
+
+        verify(eventRepository, never()).reserveSpots(anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void promote_shouldLeaveHeadWaiting_whenSpotWasTakenMeanwhile() {
+        UserEvent head = queued(10, 1);
+        when(userEventRepository.findFirstByEvent_EventIdAndAttendanceStatus_IdAndWaitlistPositionNotNullOrderByWaitlistPositionAscIdAsc(
+                1, AttendanceStatus.WAITLISTED_ID))
+                .thenReturn(Optional.of(head));
+        when(eventRepository.reserveSpots(1, 1)).thenReturn(0);
+
+        waitlistService.promote(1, 1);
+
+        assertEquals(AttendanceStatus.WAITLISTED_ID, head.getAttendanceStatus().getId());
+        verify(userEventRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -0,0 +1,88 @@
+-- Event ranking benchmark: old ratings x participants GROUP BY vs pre-aggregated subqueries.
+-- Seeds 5 000 events, 50 000 ratings and 100 000 participations inside a transaction
+-- that is rolled back at the end. Run against a migrated database:
+--   psql -d joinmatch -f db/benchmarks/event_ranking_fanout.sql
+-- Requires at least one row in sport, event_visibility and attendance_status.
+BEGIN;
+
+CREATE TEMP TABLE bench_user ON COMMIT DROP AS
+WITH inserted AS (
+    INSERT INTO join_match_user (name, email, password, date_of_birth, is_blocked, is_verified, role)
+    SELECT 'Bench ' || g, 'bench-' || g || '@bench.local', 'x', DATE '1995-01-01', false, true, 'USER'
+    FROM generate_series(1, 2000) g
+    RETURNING id
+)
+SELECT id, row_number() OVER (ORDER BY id) - 1 AS idx FROM inserted;
+
+CREATE TEMP TABLE bench_object ON COMMIT DROP AS
+WITH inserted AS (
+    INSERT INTO sport_object (name, city, street, number, latitude, longitude)
+    SELECT 'Bench hall ' || g, 'Bench city ' || (g % 10), 'Main', g, 52.0, 21.0
+    FROM generate_series(1, 50) g
+    RETURNING object_id
+)
+SELECT object_id, row_number() OVER (ORDER BY object_id) - 1 AS idx FROM inserted;
+
+CREATE TEMP TABLE bench_event ON COMMIT DROP AS
+WITH inserted AS (
+    INSERT INTO event (event_name, number_of_participants, booked_participants, version, cost, is_for_team,
+                       owner_id, sport_object_object_id, event_visibility_id, event_date, min_level,
+                       status, sport_type_id, is_attendance_checked)
+    SELECT 'Bench event ' || g, 30, 0, 0, 0, false,
+           (SELECT id FROM bench_user WHERE idx = g % 2000),
+           (SELECT object_id FROM bench_object WHERE idx = g % 50),
+           (SELECT MIN(id) FROM event_visibility),
+           now() - (g || ' hours')::interval, 1, 'COMPLETED',
+           (SELECT MIN(id) FROM sport), true
+    FROM generate_series(1, 5000) g
+    RETURNING event_id
+)
+SELECT event_id, row_number() OVER (ORDER BY event_id) - 1 AS idx FROM inserted;
+
+INSERT INTO event_rating (event_id, user_id, rating, created_at)
+SELECT e.event_id, u.id, 1 + (e.idx + k) % 5, now()
+FROM bench_event e
+CROSS JOIN generate_series(0, 9) k
+JOIN bench_user u ON u.idx = (e.idx * 13 + k) % 2000;
+
+INSERT INTO user_event (user_id, event_id, attendance_status_id, is_paid)
+SELECT u.id, e.event_id, (SELECT MIN(id) FROM attendance_status), false
+FROM bench_event e
+CROSS JOIN generate_series(0, 19) k
+JOIN bench_user u ON u.idx = (e.idx * 7 + k) % 2000;
+
+ANALYZE join_match_user, sport_object, event, event_rating, user_event;
+
+-- Before: every event row is multiplied by ratings x participants (10 x 20 = 200 rows per event)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.event_id, AVG(er.rating) AS avg_rating, COUNT(er.event_rating_id) AS total_ratings, COUNT(ue.id) AS participants
+FROM event e
+LEFT JOIN event_rating er ON er.event_id = e.event_id
+LEFT JOIN user_event ue ON ue.event_id = e.event_id
+JOIN join_match_user u ON u.id = e.owner_id
+WHERE u.is_blocked = false AND u.is_verified = true
+GROUP BY e.event_id
+HAVING COUNT(er.event_rating_id) >= 1
+ORDER BY avg_rating DESC, total_ratings DESC
+LIMIT 500;
+
+-- After: ratings and participations are aggregated once per event and joined 1:1
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.event_id, COALESCE(r.avg_rating, 0) AS avg_rating, COALESCE(r.rating_count, 0) AS total_ratings,
+       COALESCE(p.participant_count, 0) AS participants
+FROM event e
+LEFT JOIN (
+    SELECT event_id, AVG(rating) AS avg_rating, COUNT(*) AS rating_count
+    FROM event_rating GROUP BY event_id
+) r ON r.event_id = e.event_id
+LEFT JOIN (
+    SELECT event_id, COUNT(*) AS participant_count
+    FROM user_event GROUP BY event_id
+) p ON p.event_id = e.event_id
+JOIN join_match_user u ON u.id = e.owner_id
+WHERE u.is_blocked = false AND u.is_verified = true
+  AND COALESCE(r.rating_count, 0) >= 1
+ORDER BY avg_rating DESC, total_ratings DESC
+LIMIT 500;
+
+ROLLBACK;
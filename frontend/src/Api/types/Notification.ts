@@ -36,6 +36,8 @@ export interface NotificationData {
 	userId?: number
 	postId?: number
 	commentId?: number
+	userIds?: number[]
+	reactionCount?: number
 	reactionTypeId?: number
 	eventId?: number
 	eventName?: string
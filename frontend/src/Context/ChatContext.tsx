@@ -11,6 +11,7 @@ export interface ChatMessage {
   senderAvatarUrl?: string
   content: string
   createdAt: string
+  seq?: number
 }
 
 interface ConversationPreviewForHydrate {
@@ -23,6 +24,7 @@ interface ChatContextType {
   sendMessage: (conversationId: number, content: string) => void
   addMessage: (msg: ChatMessage) => void
   addMessages: (conversationId: number, msgs: ChatMessage[]) => void
+  prependMessages: (conversationId: number, msgs: ChatMessage[]) => void
   clearMessages: (conversationId: number) => void
   stompClient: Client | null
   isConnected: boolean
@@ -85,6 +87,15 @@ export const ChatProvider: React.FC<ChatProviderProps> = ({ userId, userName, ch
     setMessages(prev => ({ ...prev, [conversationId]: msgs }))
   }, [])
 
+  // Starsza strona historii trafia na początek listy
+  const prependMessages = useCallback((conversationId: number, msgs: ChatMessage[]) => {
+    setMessages(prev => {
+      const current = prev[conversationId] || []
+      const known = new Set(current.map(m => m.id))
+      return { ...prev, [conversationId]: [...msgs.filter(m => !known.has(m.id)), ...current] }
+    })
+  }, [])
+
   const addMessage = useCallback(
     (msg: ChatMessage) => {
       setMessages(prev => ({
@@ -168,6 +179,7 @@ export const ChatProvider: React.FC<ChatProviderProps> = ({ userId, userName, ch
         sendMessage,
         addMessage,
         addMessages,
+        prependMessages,
         clearMessages,
         stompClient,
         isConnected,
@@ -7,13 +7,18 @@ interface NotificationContextType {
   notifications: Notification[];
   unreadCount: number;
   isLoading: boolean;
+  hasMore: boolean;
   addNotification: (notification: Notification) => void;
   markAsRead: (notificationId: number) => Promise<void>;
+  markAllAsRead: () => Promise<void>;
   loadNotifications: () => Promise<void>;
+  loadMoreNotifications: () => Promise<void>;
   loadUnreadCount: () => Promise<void>;
   disconnect: () => void;
 }
 
+const FEED_PAGE_SIZE = 20;
+
 const NotificationContext = createContext<NotificationContextType | undefined>(undefined);
 
 export const useNotification = () => {
@@ -33,16 +38,27 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [isLoading, setIsLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   
   const { disconnect } = useWebSocket(userId);
 
   const addNotification = useCallback((notification: Notification) => {
-    setNotifications(prev => [notification, ...prev]);
-    if (!notification.isRead) {
-      setUnreadCount(prev => prev + 1);
-    }
+    // Serwer może wysłać to samo powiadomienie ponownie, jeśli nie zdążył potwierdzić dostarczenia
+    setNotifications(prev => prev.some(n => n.id === notification.id) ? prev : [notification, ...prev]);
   }, []);
 
+  const loadUnreadCount = useCallback(async () => {
+    if (!userId) return;
+    
+    try {
+      const response = await axiosInstance.get(`/notifications/${userId}/unread-count`);
+      setUnreadCount(response.data);
+    } catch (error) {
+      console.error('Error loading unread count:', error);
+    }
+  }, [userId]);
+
+  // Licznik ustawia tylko serwer (push lub unread-count), lokalne +1/-1 rozjeżdżało się z pushem
   const markAsRead = useCallback(async (notificationId: number) => {
     try {
       await axiosInstance.patch(`/notifications/${notificationId}/read`);
@@ -53,23 +69,41 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
             : notification
         )
       );
-      setUnreadCount(prev => Math.max(0, prev - 1));
+      await loadUnreadCount();
     } catch (error) {
       console.error('Error marking notification as read:', error);
     }
-  }, []);
+  }, [loadUnreadCount]);
+
+  const markAllAsRead = useCallback(async () => {
+    if (!userId || notifications.length === 0) return;
+
+    try {
+      // Tylko do najnowszego widocznego powiadomienia - nowsze zostają nieprzeczytane
+      await axiosInstance.patch(`/notifications/${userId}/read-all`, null, {
+        params: { upToId: notifications[0].id }
+      });
+      setNotifications(prev => prev.map(notification => ({ ...notification, isRead: true })));
+      await loadUnreadCount();
+    } catch (error) {
+      console.error('Error marking notifications as read:', error);
+    }
+  }, [userId, notifications, loadUnreadCount]);
+
+  const parseNotifications = (items: any[]): Notification[] =>
+    items.map((notification: any) => ({
+      ...notification,
+      data: notification.data ? JSON.parse(notification.data) : undefined
+    }));
 
   const loadNotifications = useCallback(async () => {
     if (!userId) return;
     
     setIsLoading(true);
     try {
-      const response = await axiosInstance.get(`/notifications/${userId}`);
-      const notificationsData = response.data.map((notification: any) => ({
-        ...notification,
-        data: notification.data ? JSON.parse(notification.data) : undefined
-      }));
-      setNotifications(notificationsData);
+      const response = await axiosInstance.get(`/notifications/${userId}/feed`, { params: { size: FEED_PAGE_SIZE } });
+      setNotifications(parseNotifications(response.data.items));
+      setNextCursor(response.data.nextCursor);
     } catch (error) {
       console.error('Error loading notifications:', error);
     } finally {
@@ -77,16 +111,22 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
     }
   }, [userId]);
 
-  const loadUnreadCount = useCallback(async () => {
-    if (!userId) return;
-    
+  const loadMoreNotifications = useCallback(async () => {
+    if (!userId || !nextCursor) return;
+
+    setIsLoading(true);
     try {
-      const response = await axiosInstance.get(`/notifications/${userId}/unread-count`);
-      setUnreadCount(response.data);
+      const response = await axiosInstance.get(`/notifications/${userId}/feed`, {
+        params: { cursor: nextCursor, size: FEED_PAGE_SIZE }
+      });
+      setNotifications(prev => [...prev, ...parseNotifications(response.data.items)]);
+      setNextCursor(response.data.nextCursor);
     } catch (error) {
-      console.error('Error loading unread count:', error);
+      console.error('Error loading notifications:', error);
+    } finally {
+      setIsLoading(false);
     }
-  }, [userId]);
+  }, [userId, nextCursor]);
 
   // Ładowanie powiadomień przy inicjalizacji
   useEffect(() => {
@@ -108,6 +148,11 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
   useEffect(() => {
     const handleWebSocketNotification = (event: CustomEvent) => {
       const notification = event.detail;
+      // Serwer wysyła aktualny licznik nieprzeczytanych na tę samą kolejkę
+      if (typeof notification.unreadCount === 'number' && notification.id === undefined) {
+        setUnreadCount(notification.unreadCount);
+        return;
+      }
       // Parsuj data jeśli jest stringiem
       if (notification.data && typeof notification.data === 'string') {
         try {
@@ -130,9 +175,12 @@ export const NotificationProvider: React.FC<NotificationProviderProps> = ({ chil
     notifications,
     unreadCount,
     isLoading,
+    hasMore: nextCursor !== null,
     addNotification,
     markAsRead,
+    markAllAsRead,
     loadNotifications,
+    loadMoreNotifications,
     loadUnreadCount,
     disconnect
   };
@@ -3,7 +3,7 @@ import type { ChatMessage } from '../Context/ChatContext'
 import MessageBubble from './MessageBubble'
 import Avatar from './Avatar'
 import { useChat } from '../Context/ChatContext'
-import { useEffect } from 'react'
+import { useEffect, useLayoutEffect, useRef } from 'react'
 import api from '../Api/axios'
 
 interface ChatWindowProps {
@@ -13,13 +13,42 @@ interface ChatWindowProps {
 	setInput: (v: string) => void
 	onSend: () => void
 	activeConversation?: any
+	hasOlder?: boolean
+	isLoadingOlder?: boolean
+	onLoadOlder?: () => void
 }
 
-const ChatWindow: React.FC<ChatWindowProps> = ({ messages, myUserId, input, setInput, onSend, activeConversation }) => {
+const ChatWindow: React.FC<ChatWindowProps> = ({
+	messages,
+	myUserId,
+	input,
+	setInput,
+	onSend,
+	activeConversation,
+	hasOlder,
+	isLoadingOlder,
+	onLoadOlder,
+}) => {
 	// Znajdź ID drugiego użytkownika z wiadomości
 	const otherUserMessage = messages.find(m => m.senderId !== myUserId)
 	const otherUserId = otherUserMessage?.senderId
 	const { markConversationRead } = useChat()
+	const listRef = useRef<HTMLDivElement>(null)
+	const heightBeforeLoad = useRef<number | null>(null)
+
+	const loadOlder = () => {
+		if (!hasOlder || isLoadingOlder || !onLoadOlder || !listRef.current) return
+		heightBeforeLoad.current = listRef.current.scrollHeight
+		onLoadOlder()
+	}
+
+	// Po dociągnięciu starszych wiadomości widok zostaje w tym samym miejscu
+	useLayoutEffect(() => {
+		const list = listRef.current
+		if (!list || heightBeforeLoad.current === null || isLoadingOlder) return
+		list.scrollTop += list.scrollHeight - heightBeforeLoad.current
+		heightBeforeLoad.current = null
+	}, [messages, isLoadingOlder])
 
 	useEffect(() => {
 		if (!activeConversation) return
@@ -28,7 +57,7 @@ const ChatWindow: React.FC<ChatWindowProps> = ({ messages, myUserId, input, setI
 			api.post(`/conversations/${activeConversation.id}/read`, null, {
 				params: {
 					userId: myUserId,
-					lastMessageId: null,
+					lastSeq: null,
 				},
 			})
 			return
@@ -39,7 +68,7 @@ const ChatWindow: React.FC<ChatWindowProps> = ({ messages, myUserId, input, setI
 		api.post(`/conversations/${activeConversation.id}/read`, null, {
 			params: {
 				userId: myUserId,
-				lastMessageId: lastMessage.id,
+				lastSeq: lastMessage.seq,
 			},
 		})
 
@@ -73,7 +102,18 @@ const ChatWindow: React.FC<ChatWindowProps> = ({ messages, myUserId, input, setI
 					)}
 				</div>
 			)}
-			<div className='flex-1 overflow-y-auto p-6 space-y-3 dark-scrollbar min-h-0'>
+			<div
+				ref={listRef}
+				onScroll={e => e.currentTarget.scrollTop === 0 && loadOlder()}
+				className='flex-1 overflow-y-auto p-6 space-y-3 dark-scrollbar min-h-0'>
+				{hasOlder && (
+					<button
+						onClick={loadOlder}
+						disabled={isLoadingOlder}
+						className='w-full py-2 text-sm text-violet-400 hover:text-violet-300 transition-colors disabled:opacity-50'>
+						{isLoadingOlder ? 'Ładowanie...' : 'Pokaż starsze wiadomości'}
+					</button>
+				)}
 				{messages.map((m, i) => (
 					<MessageBubble key={`${m.createdAt}-${i}`} message={m} isOwn={m.senderId === myUserId} />
 				))}
@@ -16,7 +16,7 @@ const NotificationBell: React.FC = () => {
 	const [selectedNotification, setSelectedNotification] = useState<Notification | null>(null)
 	const dropdownRef = useRef<HTMLDivElement>(null)
 	const navigate = useNavigate()
-	const { notifications, unreadCount, markAsRead } = useNotification()
+	const { notifications, unreadCount, markAsRead, markAllAsRead, hasMore, isLoading, loadMoreNotifications } = useNotification()
 
 	// Zamknij dropdown gdy klikniesz poza nim
 	useEffect(() => {
@@ -303,9 +303,18 @@ const NotificationBell: React.FC = () => {
 					{/* Header */}
 					<div className='flex items-center justify-between p-4 border-b border-zinc-800'>
 						<h3 className='text-white font-semibold'>Powiadomienia</h3>
-						<button onClick={() => setIsOpen(false)} className='p-1 rounded-lg hover:bg-zinc-800 transition-colors'>
-							<X size={16} className='text-zinc-400' />
-						</button>
+						<div className='flex items-center gap-2'>
+							{unreadCount > 0 && (
+								<button
+									onClick={() => markAllAsRead()}
+									className='text-xs text-violet-400 hover:text-violet-300 transition-colors'>
+									Oznacz wszystkie jako przeczytane
+								</button>
+							)}
+							<button onClick={() => setIsOpen(false)} className='p-1 rounded-lg hover:bg-zinc-800 transition-colors'>
+								<X size={16} className='text-zinc-400' />
+							</button>
+						</div>
 					</div>
 
 					{/* Lista powiadomień */}
@@ -340,6 +349,14 @@ const NotificationBell: React.FC = () => {
 								</div>
 							))
 						)}
+						{hasMore && (
+							<button
+								onClick={() => loadMoreNotifications()}
+								disabled={isLoading}
+								className='w-full p-3 text-sm text-violet-400 hover:bg-zinc-800/50 transition-colors disabled:opacity-50'>
+								{isLoading ? 'Ładowanie...' : 'Pokaż starsze'}
+							</button>
+						)}
 					</div>
 				</div>
 			)}
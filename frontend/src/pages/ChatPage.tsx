@@ -10,6 +10,8 @@ import type { ChatMessage } from '../Context/ChatContext'
 import { useLocation } from 'react-router-dom'
 import { ArrowLeft } from 'lucide-react'
 
+const MESSAGE_PAGE_SIZE = 50
+
 const ChatPage: React.FC = () => {
 	const { accessToken } = useAuth()
 	const [myUserId, setMyUserId] = useState<number | null>(null)
@@ -20,6 +22,7 @@ const ChatPage: React.FC = () => {
 		sendMessage,
 		addMessage,
 		addMessages,
+		prependMessages,
 		clearMessages,
 		stompClient,
 		isConnected,
@@ -30,6 +33,8 @@ const ChatPage: React.FC = () => {
 	const [conversations, setConversations] = useState<any[]>([])
 	const [conversationId, setConversationId] = useState<number | null>(null)
 	const [input, setInput] = useState('')
+	const [hasOlder, setHasOlder] = useState(false)
+	const [isLoadingOlder, setIsLoadingOlder] = useState(false)
 	const location = useLocation() as any
 	const state = (location && location.state) || {}
 
@@ -93,15 +98,35 @@ const ChatPage: React.FC = () => {
 		markConversationRead(conversationId)
 
 		clearMessages(conversationId)
+		setHasOlder(false)
 
 		api
-			.get<ChatMessage[]>(`/conversations/${conversationId}/messages`)
+			.get<ChatMessage[]>(`/conversations/${conversationId}/messages`, { params: { limit: MESSAGE_PAGE_SIZE } })
 			.then(res => {
 				addMessages(conversationId, res.data)
+				setHasOlder(res.data.length === MESSAGE_PAGE_SIZE)
 			})
 			.catch(err => console.error('❌ Błąd ładowania wiadomości', err))
 	}, [conversationId, myUserId])
 
+	const loadOlderMessages = async () => {
+		const oldest = conversationId ? messages[conversationId]?.[0] : undefined
+		if (!conversationId || oldest?.seq == null || isLoadingOlder) return
+
+		setIsLoadingOlder(true)
+		try {
+			const res = await api.get<ChatMessage[]>(`/conversations/${conversationId}/messages`, {
+				params: { beforeSeq: oldest.seq, limit: MESSAGE_PAGE_SIZE },
+			})
+			prependMessages(conversationId, res.data)
+			setHasOlder(res.data.length === MESSAGE_PAGE_SIZE)
+		} catch (err) {
+			console.error('❌ Błąd ładowania starszych wiadomości', err)
+		} finally {
+			setIsLoadingOlder(false)
+		}
+	}
+
 	useEffect(() => {
 		const resolve = async () => {
 			if (typeof state?.conversationId === 'number') {
@@ -153,6 +178,9 @@ const ChatPage: React.FC = () => {
 						setInput={setInput}
 						onSend={handleSend}
 						activeConversation={conversations.find(c => c.id === conversationId)}
+						hasOlder={hasOlder}
+						isLoadingOlder={isLoadingOlder}
+						onLoadOlder={loadOlderMessages}
 					/>
 				</>
 			)}
@@ -188,6 +216,9 @@ const ChatPage: React.FC = () => {
 								setInput={setInput}
 								onSend={handleSend}
 								activeConversation={conversations.find(c => c.id === conversationId)}
+								hasOlder={hasOlder}
+								isLoadingOlder={isLoadingOlder}
+								onLoadOlder={loadOlderMessages}
 							/>
 						</div>
 					)}